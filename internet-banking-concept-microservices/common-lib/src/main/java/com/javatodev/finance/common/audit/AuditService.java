@@ -1,15 +1,13 @@
 package com.javatodev.finance.common.audit;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javatodev.finance.common.audit.event.AuditCategory;
+import com.javatodev.finance.common.audit.event.AuditEvent;
+import com.javatodev.finance.common.audit.pipeline.AuditPipeline;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -17,14 +15,10 @@ import java.util.Map;
  * and security events.
  */
 @Service
-@Slf4j
 @RequiredArgsConstructor
 public class AuditService {
 
-    private final ObjectMapper objectMapper;
-
-    @Value("${spring.application.name}")
-    private String applicationName;
+    private final AuditPipeline auditPipeline;
 
     /**
      * Log a security-related event
@@ -34,11 +28,15 @@ public class AuditService {
      * @param details Additional details about the event
      */
     public void logSecurityEvent(SecurityEventType event, String userId, Map<String, Object> details) {
-        Map<String, Object> auditData = createBaseAuditData("SECURITY", event.name());
-        auditData.put("userId", userId);
-        auditData.put("details", details);
+        long position = auditPipeline.claim();
+        if (position < 0) {
+            return;
+        }
+        AuditEvent auditEvent = createAuditEvent(position, AuditCategory.SECURITY, event.name());
+        auditEvent.setUserId(userId);
+        auditEvent.setDetails(details);
 
-        logAuditEvent(auditData);
+        auditPipeline.publish(position);
     }
 
     /**
@@ -53,14 +51,18 @@ public class AuditService {
      */
     public void logDataAccess(DataOperation operation, String resourceType, String resourceId, 
                                String userId, boolean success, Map<String, Object> details) {
-        Map<String, Object> auditData = createBaseAuditData("DATA_ACCESS", operation.name());
-        auditData.put("resourceType", resourceType);
-        auditData.put("resourceId", resourceId);
-        auditData.put("userId", userId);
-        auditData.put("success", success);
-        auditData.put("details", details);
-
-        logAuditEvent(auditData);
+        long position = auditPipeline.claim();
+        if (position < 0) {
+            return;
+        }
+        AuditEvent auditEvent = createAuditEvent(position, AuditCategory.DATA_ACCESS, operation.name());
+        auditEvent.setResourceType(resourceType);
+        auditEvent.setResourceId(resourceId);
+        auditEvent.setUserId(userId);
+        auditEvent.setSuccess(success);
+        auditEvent.setDetails(details);
+
+        auditPipeline.publish(position);
     }
 
     /**
@@ -75,14 +77,18 @@ public class AuditService {
      */
     public void logFinancialTransaction(String transactionType, String transactionId, String userId,
                                         Double amount, String currency, Map<String, Object> details) {
-        Map<String, Object> auditData = createBaseAuditData("FINANCIAL", transactionType);
-        auditData.put("transactionId", transactionId);
-        auditData.put("userId", userId);
-        auditData.put("amount", amount);
-        auditData.put("currency", currency);
-        auditData.put("details", details);
-
-        logAuditEvent(auditData);
+        long position = auditPipeline.claim();
+        if (position < 0) {
+            return;
+        }
+        AuditEvent auditEvent = createAuditEvent(position, AuditCategory.FINANCIAL, transactionType);
+        auditEvent.setTransactionId(transactionId);
+        auditEvent.setUserId(userId);
+        auditEvent.setAmount(amount);
+        auditEvent.setCurrency(currency);
+        auditEvent.setDetails(details);
+
+        auditPipeline.publish(position);
     }
 
     /**
@@ -94,12 +100,16 @@ public class AuditService {
      * @param details Additional details about the operation
      */
     public void logAdminOperation(String operation, String userId, String target, Map<String, Object> details) {
-        Map<String, Object> auditData = createBaseAuditData("ADMIN", operation);
-        auditData.put("userId", userId);
-        auditData.put("target", target);
-        auditData.put("details", details);
+        long position = auditPipeline.claim();
+        if (position < 0) {
+            return;
+        }
+        AuditEvent auditEvent = createAuditEvent(position, AuditCategory.ADMIN, operation);
+        auditEvent.setUserId(userId);
+        auditEvent.setTarget(target);
+        auditEvent.setDetails(details);
 
-        logAuditEvent(auditData);
+        auditPipeline.publish(position);
     }
 
     /**
@@ -109,34 +119,19 @@ public class AuditService {
      * @param details Additional details about the event
      */
     public void logSystemEvent(String eventType, Map<String, Object> details) {
-        Map<String, Object> auditData = createBaseAuditData("SYSTEM", eventType);
-        auditData.put("details", details);
-
-        logAuditEvent(auditData);
-    }
-
-    private Map<String, Object> createBaseAuditData(String category, String action) {
-        Map<String, Object> auditData = new HashMap<>();
-        auditData.put("timestamp", LocalDateTime.now().toString());
-        auditData.put("service", applicationName);
-        auditData.put("category", category);
-        auditData.put("action", action);
-        auditData.put("auditVersion", "1.0");
+        long position = auditPipeline.claim();
+        if (position < 0) {
+            return;
+        }
+        AuditEvent auditEvent = createAuditEvent(position, AuditCategory.SYSTEM, eventType);
+        auditEvent.setDetails(details);
 
-        return auditData;
+        auditPipeline.publish(position);
     }
 
-    private void logAuditEvent(Map<String, Object> auditData) {
-        try {
-            // Log in a structured format for easy parsing by ELK or other log analysis tools
-            String auditJson = objectMapper.writeValueAsString(auditData);
-            log.info("AUDIT: {}", auditJson);
-
-            // In a production environment, you might want to send this to a dedicated audit log
-            // system or database in addition to logging it locally
-        } catch (Exception e) {
-            log.error("Failed to log audit event", e);
-        }
+    private AuditEvent createAuditEvent(long position, AuditCategory category, String action) {
+        // The event is a reused ring buffer slot, encoding and delivery to the sinks happen on the audit writer thread
+        return auditPipeline.event(position).reset(category, action, System.currentTimeMillis());
     }
 
     public enum SecurityEventType {
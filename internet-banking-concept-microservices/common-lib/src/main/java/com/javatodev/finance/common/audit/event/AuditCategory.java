@@ -0,0 +1,22 @@
+package com.javatodev.finance.common.audit.event;
+
+import java.nio.charset.StandardCharsets;
+
+public enum AuditCategory {
+
+    SECURITY,
+    DATA_ACCESS,
+    FINANCIAL,
+    ADMIN,
+    SYSTEM;
+
+    private final byte[] encoded = ('"' + name() + '"').getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The category as a quoted JSON string, encoded once.
+     */
+    byte[] encoded() {
+        return encoded;
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.javatodev.finance.common.audit.event;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Typed audit record. Instances are preallocated in the audit ring buffer and reused for every lap, so the
+ * fields are cleared on {@link #reset} instead of creating a new event per call.
+ */
+@Getter
+@Setter
+public final class AuditEvent {
+
+    private long timestamp;
+    private AuditCategory category;
+    private String action;
+    private String userId;
+    private String resourceType;
+    private String resourceId;
+    private Boolean success;
+    private String transactionId;
+    private Double amount;
+    private String currency;
+    private String target;
+    private Map<String, Object> details;
+
+    public AuditEvent reset(AuditCategory category, String action, long timestamp) {
+        this.timestamp = timestamp;
+        this.category = category;
+        this.action = action;
+        this.userId = null;
+        this.resourceType = null;
+        this.resourceId = null;
+        this.success = null;
+        this.transactionId = null;
+        this.amount = null;
+        this.currency = null;
+        this.target = null;
+        this.details = null;
+        return this;
+    }
+
+}
@@ -0,0 +1,252 @@
+package com.javatodev.finance.common.audit.event;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Writes {@link AuditEvent}s as single line JSON straight into a byte buffer. Field names and constant values
+ * are encoded once, and strings, integers, money amounts and the timestamp are written character by
+ * character, so encoding does not allocate for the common event shapes.
+ * <p>
+ * Throws {@link BufferOverflowException} when the event does not fit the remaining buffer.
+ */
+public class AuditEventEncoder {
+
+    private static final String AUDIT_VERSION = "1.0";
+
+    private static final byte[] TIMESTAMP = field("{", "timestamp");
+    private static final byte[] SERVICE = field(",", "service");
+    private static final byte[] CATEGORY = field(",", "category");
+    private static final byte[] ACTION = field(",", "action");
+    private static final byte[] AUDIT_VERSION_FIELD = (",\"auditVersion\":\"" + AUDIT_VERSION + "\"").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] USER_ID = field(",", "userId");
+    private static final byte[] RESOURCE_TYPE = field(",", "resourceType");
+    private static final byte[] RESOURCE_ID = field(",", "resourceId");
+    private static final byte[] SUCCESS = field(",", "success");
+    private static final byte[] TRANSACTION_ID = field(",", "transactionId");
+    private static final byte[] AMOUNT = field(",", "amount");
+    private static final byte[] CURRENCY = field(",", "currency");
+    private static final byte[] TARGET = field(",", "target");
+    private static final byte[] DETAILS = field(",", "details");
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final byte[] service;
+
+    public AuditEventEncoder(String applicationName) {
+        this.service = quoted(applicationName);
+    }
+
+    public void encode(AuditEvent event, ByteBuffer buffer) {
+        buffer.put(TIMESTAMP);
+        writeTimestamp(event.getTimestamp(), buffer);
+        buffer.put(SERVICE).put(service);
+        buffer.put(CATEGORY).put(event.getCategory().encoded());
+        buffer.put(ACTION);
+        writeString(event.getAction(), buffer);
+        buffer.put(AUDIT_VERSION_FIELD);
+
+        writeField(USER_ID, event.getUserId(), buffer);
+        writeField(RESOURCE_TYPE, event.getResourceType(), buffer);
+        writeField(RESOURCE_ID, event.getResourceId(), buffer);
+        if (event.getSuccess() != null) {
+            buffer.put(SUCCESS).put(event.getSuccess() ? TRUE : FALSE);
+        }
+        writeField(TRANSACTION_ID, event.getTransactionId(), buffer);
+        if (event.getAmount() != null) {
+            buffer.put(AMOUNT);
+            writeDouble(event.getAmount(), buffer);
+        }
+        writeField(CURRENCY, event.getCurrency(), buffer);
+        writeField(TARGET, event.getTarget(), buffer);
+        if (event.getDetails() != null) {
+            buffer.put(DETAILS);
+            writeValue(event.getDetails(), buffer);
+        }
+        buffer.put((byte) '}');
+    }
+
+    private void writeField(byte[] name, String value, ByteBuffer buffer) {
+        if (value != null) {
+            buffer.put(name);
+            writeString(value, buffer);
+        }
+    }
+
+    private void writeValue(Object value, ByteBuffer buffer) {
+        if (value == null) {
+            buffer.put(NULL);
+        } else if (value instanceof CharSequence text) {
+            writeString(text, buffer);
+        } else if (value instanceof Boolean bool) {
+            buffer.put(bool ? TRUE : FALSE);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writeLong(((Number) value).longValue(), buffer);
+        } else if (value instanceof Double || value instanceof Float) {
+            writeDouble(((Number) value).doubleValue(), buffer);
+        } else if (value instanceof Number number) {
+            writeAscii(number.toString(), buffer);
+        } else if (value instanceof Map<?, ?> map) {
+            buffer.put((byte) '{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    buffer.put((byte) ',');
+                }
+                writeString(String.valueOf(entry.getKey()), buffer);
+                buffer.put((byte) ':');
+                writeValue(entry.getValue(), buffer);
+                first = false;
+            }
+            buffer.put((byte) '}');
+        } else if (value instanceof Collection<?> collection) {
+            buffer.put((byte) '[');
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    buffer.put((byte) ',');
+                }
+                writeValue(element, buffer);
+                first = false;
+            }
+            buffer.put((byte) ']');
+        } else {
+            writeString(value.toString(), buffer);
+        }
+    }
+
+    private void writeString(CharSequence value, ByteBuffer buffer) {
+        if (value == null) {
+            buffer.put(NULL);
+            return;
+        }
+        buffer.put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.put((byte) '\\').put((byte) c);
+            } else if (c < 0x20) {
+                buffer.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                    .put(HEX[c >> 4]).put(HEX[c & 0xF]);
+            } else if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6))).put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)))
+                    .put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+                    .put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+                    .put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12))).put((byte) (0x80 | ((c >> 6) & 0x3F))).put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.put((byte) '"');
+    }
+
+    private void writeAscii(String value, ByteBuffer buffer) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private void writeLong(long value, ByteBuffer buffer) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value), buffer);
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        writeDigits(value, 1, buffer);
+    }
+
+    private void writeDouble(double value, ByteBuffer buffer) {
+        // money amounts have at most two decimals, anything else goes through the JDK formatting
+        long cents = Math.round(value * 100);
+        if (Math.abs(cents) < 1_000_000_000_000_000L && cents / 100.0 == value) {
+            if (cents < 0) {
+                buffer.put((byte) '-');
+                cents = -cents;
+            }
+            writeDigits(cents / 100, 1, buffer);
+            buffer.put((byte) '.');
+            writeDigits(cents % 100, 2, buffer);
+        } else {
+            writeAscii(Double.toString(value), buffer);
+        }
+    }
+
+    private void writeDigits(long value, int minDigits, ByteBuffer buffer) {
+        int digits = 1;
+        for (long bound = 10; digits < 19 && value >= bound; bound *= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, minDigits);
+        if (buffer.remaining() < digits) {
+            throw new BufferOverflowException();
+        }
+        int start = buffer.position();
+        buffer.position(start + digits);
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer.put(start + i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+    }
+
+    /**
+     * Writes the epoch millis as an ISO-8601 UTC instant, e.g. {@code "2024-05-01T10:15:30.120Z"}.
+     */
+    private void writeTimestamp(long epochMillis, ByteBuffer buffer) {
+        long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY);
+
+        // civil date from days since epoch, see http://howardhinnant.github.io/date_algorithms.html
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        long month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        buffer.put((byte) '"');
+        writeDigits(year, 4, buffer);
+        buffer.put((byte) '-');
+        writeDigits(month, 2, buffer);
+        buffer.put((byte) '-');
+        writeDigits(day, 2, buffer);
+        buffer.put((byte) 'T');
+        writeDigits(millisOfDay / 3_600_000, 2, buffer);
+        buffer.put((byte) ':');
+        writeDigits(millisOfDay / 60_000 % 60, 2, buffer);
+        buffer.put((byte) ':');
+        writeDigits(millisOfDay / 1_000 % 60, 2, buffer);
+        buffer.put((byte) '.');
+        writeDigits(millisOfDay % 1_000, 3, buffer);
+        buffer.put((byte) 'Z').put((byte) '"');
+    }
+
+    private static byte[] field(String separator, String name) {
+        return (separator + '"' + name + "\":").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] quoted(String value) {
+        StringBuilder escaped = new StringBuilder("\"");
+        value.chars().forEach(c -> escaped.append(c == '"' || c == '\\' ? "\\" + (char) c : String.valueOf((char) c)));
+        return escaped.append('"').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
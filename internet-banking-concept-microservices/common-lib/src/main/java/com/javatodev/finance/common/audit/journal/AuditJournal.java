@@ -0,0 +1,270 @@
+package com.javatodev.finance.common.audit.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only, hash-chained audit journal written through memory-mapped segment files of a fixed size. An
+ * append is a few buffer puts and one SHA-256 over the record, no system call is involved until
+ * {@link #flush()}. Full segments are rotated and compressed in the background. See {@link JournalFormat}
+ * for the layout and {@link AuditJournalReader} for reading it back.
+ * <p>
+ * Not thread safe, all calls are expected from the single audit writer thread.
+ */
+@Slf4j
+public class AuditJournal implements Closeable {
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean compress;
+    private final MessageDigest digest = JournalFormat.newDigest();
+    private final ExecutorService compressor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "audit-journal-compressor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private byte[] lastHash = new byte[JournalFormat.HASH_LENGTH];
+    private long nextSequence;
+    private long segmentIndex = -1;
+    private Path segmentFile;
+    private MappedByteBuffer segment;
+
+    public AuditJournal(Path directory, int segmentSize, boolean compress) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.compress = compress;
+    }
+
+    /**
+     * Recovers the chain from the existing segments and continues the last one that is still open.
+     */
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = AuditJournalReader.segments(directory);
+
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (!JournalFormat.isCompressed(segments.get(i))) {
+                scheduleCompression(segments.get(i));
+            }
+        }
+
+        if (segments.isEmpty()) {
+            startSegment(0);
+            return;
+        }
+
+        Path last = segments.get(segments.size() - 1);
+        if (JournalFormat.isCompressed(last)) {
+            AuditJournalReader.ChainState state = new AuditJournalReader.ChainState();
+            AuditJournalReader.readSegment(last, state, (sequence, payload, length) -> { });
+            lastHash = state.lastHash;
+            nextSequence = state.nextSequence;
+            startSegment(JournalFormat.segmentIndex(last) + 1);
+        } else {
+            resume(last);
+        }
+        log.info("Audit journal opened at {} with next sequence {}", directory, nextSequence);
+    }
+
+    /**
+     * Appends the remaining bytes of the payload as one record and returns its sequence.
+     */
+    public long append(ByteBuffer payload) throws IOException {
+        int length = payload.remaining();
+        int recordLength = JournalFormat.RECORD_OVERHEAD + length;
+        if (JournalFormat.HEADER_LENGTH + recordLength + 4 > segmentSize) {
+            throw new IllegalArgumentException("Audit record of " + length + " bytes exceeds the journal segment size");
+        }
+        // keep room for the zero length that terminates the segment
+        if (segment.remaining() < recordLength + 4) {
+            rotate();
+        }
+
+        long sequence = nextSequence;
+        JournalFormat.chain(digest, lastHash, sequence, payload, lastHash);
+
+        int start = segment.position();
+        // a negative length marks the record being written, resume knows where a record torn by a crash ends
+        segment.putInt(-length);
+        segment.putLong(sequence);
+        segment.put(payload.duplicate());
+        segment.put(lastHash);
+        // the length goes last, a record becomes visible to readers only once it is complete
+        segment.putInt(start, length);
+
+        nextSequence++;
+        return sequence;
+    }
+
+    /**
+     * Forces the appended records of the current segment to the storage device.
+     */
+    public void flush() {
+        segment.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+        compressor.shutdown();
+        try {
+            if (!compressor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Audit journal compression did not finish within timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void rotate() throws IOException {
+        segment.force();
+        Path finished = segmentFile;
+        startSegment(segmentIndex + 1);
+        scheduleCompression(finished);
+    }
+
+    private void startSegment(long index) throws IOException {
+        segmentIndex = index;
+        segmentFile = directory.resolve(JournalFormat.segmentName(index));
+        segment = map(segmentFile, StandardOpenOption.CREATE_NEW);
+        segment.putInt(JournalFormat.MAGIC);
+        segment.putInt(JournalFormat.VERSION);
+        segment.putLong(index);
+        segment.putLong(nextSequence);
+        segment.put(lastHash);
+        segment.force();
+    }
+
+    /**
+     * Continues an open segment after its last valid record. Only the final record may be incomplete, it was
+     * being appended when the writer stopped and was never acknowledged, so it is cleared. Any other record that
+     * does not continue the chain, or data after the end of the records, means the segment was altered: the
+     * segment is left as it is and {@link JournalIntegrityException} is raised.
+     */
+    private void resume(Path file) throws IOException {
+        segmentIndex = JournalFormat.segmentIndex(file);
+        segmentFile = file;
+        segment = map(file);
+
+        if (segment.getInt() != JournalFormat.MAGIC || segment.getInt() != JournalFormat.VERSION || segment.getLong() != segmentIndex) {
+            throw new JournalIntegrityException("Unknown journal segment format in " + file);
+        }
+        nextSequence = segment.getLong();
+        segment.get(lastHash);
+
+        byte[] storedHash = new byte[JournalFormat.HASH_LENGTH];
+        byte[] hash = new byte[JournalFormat.HASH_LENGTH];
+        while (segment.remaining() >= 4) {
+            int start = segment.position();
+            int length = segment.getInt();
+            if (length == 0) {
+                segment.position(start);
+                break;
+            }
+            int end = start + JournalFormat.RECORD_OVERHEAD + Math.abs(length);
+            if (length == Integer.MIN_VALUE || end > segment.limit() - 4) {
+                throw new JournalIntegrityException("Invalid audit record length " + length + " at offset " + start + " of " + file);
+            }
+            if (length < 0) {
+                // the writer stopped while appending this record
+                discardIncompleteRecord(file, start, end, nextSequence);
+                break;
+            }
+
+            long sequence = segment.getLong();
+            ByteBuffer payload = segment.slice(segment.position(), length);
+            segment.position(segment.position() + length);
+            segment.get(storedHash);
+
+            JournalFormat.chain(digest, lastHash, sequence, payload, hash);
+            if (sequence != nextSequence || !Arrays.equals(hash, storedHash)) {
+                // pages of the last record may not have reached the disk before a crash
+                discardIncompleteRecord(file, start, end, sequence);
+                break;
+            }
+            System.arraycopy(hash, 0, lastHash, 0, hash.length);
+            nextSequence++;
+        }
+
+        if (!isClear(segment.position(), segment.limit())) {
+            throw new JournalIntegrityException("Unexpected data after audit record " + (nextSequence - 1) + " at offset "
+                + segment.position() + " of " + file);
+        }
+    }
+
+    private void discardIncompleteRecord(Path file, int start, int end, long sequence) {
+        if (!isClear(end, segment.limit())) {
+            throw new JournalIntegrityException("Hash chain broken at audit record " + sequence + " at offset " + start + " of " + file);
+        }
+        log.warn("Discarding incomplete audit record {} at offset {} of {}", sequence, start, file);
+        for (int i = start; i < end; i++) {
+            segment.put(i, (byte) 0);
+        }
+        segment.position(start);
+    }
+
+    private boolean isClear(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (segment.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private MappedByteBuffer map(Path file, StandardOpenOption... options) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, withReadWrite(options))) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private static StandardOpenOption[] withReadWrite(StandardOpenOption... options) {
+        StandardOpenOption[] all = Arrays.copyOf(options, options.length + 2);
+        all[options.length] = StandardOpenOption.READ;
+        all[options.length + 1] = StandardOpenOption.WRITE;
+        return all;
+    }
+
+    private void scheduleCompression(Path file) {
+        if (!compress) {
+            return;
+        }
+        compressor.execute(() -> {
+            Path compressed = file.resolveSibling(file.getFileName() + JournalFormat.COMPRESSED_SUFFIX);
+            Path temporary = file.resolveSibling(compressed.getFileName() + ".tmp");
+            try {
+                try (InputStream input = Files.newInputStream(file);
+                     OutputStream output = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+                    input.transferTo(output);
+                }
+                Files.move(temporary, compressed, StandardCopyOption.ATOMIC_MOVE);
+                Files.delete(file);
+            } catch (IOException e) {
+                log.error("Failed to compress audit journal segment {}", file, e);
+            }
+        });
+    }
+
+}
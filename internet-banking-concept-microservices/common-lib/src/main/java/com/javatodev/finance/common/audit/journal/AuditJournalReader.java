@@ -0,0 +1,145 @@
+package com.javatodev.finance.common.audit.journal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams the records of an audit journal directory in order, verifying the hash chain on the way. Segments
+ * are read through a buffered stream, compressed ones through GZIP, so exports of any size run with a
+ * constant amount of memory.
+ */
+public class AuditJournalReader {
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+
+    public AuditJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    @FunctionalInterface
+    public interface RecordHandler {
+
+        /**
+         * Receives one record. The payload array is reused for the next record, only the first {@code length}
+         * bytes belong to this one.
+         */
+        void onRecord(long sequence, byte[] payload, int length) throws IOException;
+
+    }
+
+    /**
+     * Reads every segment in order. Throws {@link JournalIntegrityException} at the first record or segment
+     * that does not continue the chain.
+     */
+    public void read(RecordHandler handler) throws IOException {
+        ChainState state = new ChainState();
+        for (Path segment : segments(directory)) {
+            readSegment(segment, state, handler);
+        }
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        // while a segment is being compressed both files exist for a moment, they hold the same records
+        Map<Long, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> JournalFormat.segmentIndex(file) >= 0)
+                .forEach(file -> segments.merge(JournalFormat.segmentIndex(file), file,
+                    (existing, other) -> JournalFormat.isCompressed(existing) ? existing : other));
+        }
+        return List.copyOf(segments.values());
+    }
+
+    static void readSegment(Path segment, ChainState state, RecordHandler handler) throws IOException {
+        long segmentIndex = JournalFormat.segmentIndex(segment);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(open(segment), STREAM_BUFFER_SIZE))) {
+            if (input.readInt() != JournalFormat.MAGIC || input.readInt() != JournalFormat.VERSION) {
+                throw new JournalIntegrityException("Unknown journal segment format in " + segment);
+            }
+            if (input.readLong() != segmentIndex) {
+                throw new JournalIntegrityException("Journal segment " + segment + " was renamed");
+            }
+
+            long firstSequence = input.readLong();
+            byte[] previousHash = new byte[JournalFormat.HASH_LENGTH];
+            input.readFully(previousHash);
+            if (state.started && (firstSequence != state.nextSequence || !Arrays.equals(previousHash, state.lastHash))) {
+                throw new JournalIntegrityException("Journal segment " + segment + " does not continue the previous segment");
+            }
+            state.started = true;
+            state.nextSequence = firstSequence;
+            state.lastHash = previousHash;
+
+            MessageDigest digest = JournalFormat.newDigest();
+            byte[] storedHash = new byte[JournalFormat.HASH_LENGTH];
+            while (true) {
+                int length = readLength(input);
+                if (length <= 0) {
+                    break;
+                }
+
+                long sequence = input.readLong();
+                if (sequence != state.nextSequence) {
+                    throw new JournalIntegrityException("Expected audit record " + state.nextSequence + " but found " + sequence + " in " + segment);
+                }
+                if (state.payload.length < length) {
+                    state.payload = new byte[Math.max(length, state.payload.length * 2)];
+                }
+                input.readFully(state.payload, 0, length);
+                input.readFully(storedHash);
+
+                JournalFormat.chain(digest, state.lastHash, sequence, ByteBuffer.wrap(state.payload, 0, length), state.lastHash);
+                if (!Arrays.equals(storedHash, state.lastHash)) {
+                    throw new JournalIntegrityException("Hash chain broken at audit record " + sequence + " in " + segment);
+                }
+
+                handler.onRecord(sequence, state.payload, length);
+                state.nextSequence++;
+            }
+        }
+    }
+
+    private static int readLength(DataInputStream input) throws IOException {
+        try {
+            return input.readInt();
+        } catch (EOFException e) {
+            // a compressed segment may end right after its last record
+            return 0;
+        }
+    }
+
+    private static InputStream open(Path segment) throws IOException {
+        InputStream input = Files.newInputStream(segment);
+        return JournalFormat.isCompressed(segment) ? new GZIPInputStream(input, STREAM_BUFFER_SIZE) : input;
+    }
+
+    /**
+     * Position of the chain after the segments read so far.
+     */
+    static final class ChainState {
+
+        boolean started;
+        long nextSequence;
+        byte[] lastHash = new byte[JournalFormat.HASH_LENGTH];
+        byte[] payload = new byte[4096];
+
+    }
+
+}
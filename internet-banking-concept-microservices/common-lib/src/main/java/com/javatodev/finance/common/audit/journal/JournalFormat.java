@@ -0,0 +1,79 @@
+package com.javatodev.finance.common.audit.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * On-disk layout of the audit journal, shared by {@link AuditJournal} and {@link AuditJournalReader}.
+ * <pre>
+ * segment header: magic(int) version(int) segmentIndex(long) firstSequence(long) previousHash(32 bytes)
+ * record:         length(int) sequence(long) payload(length bytes) hash(32 bytes)
+ * </pre>
+ * A record hash is SHA-256 over the previous record hash, the sequence and the payload, so changing, removing
+ * or reordering any record breaks every hash after it. The first segment starts from an all zero hash, later
+ * segments repeat the last hash of their predecessor in the header. A zero length marks the end of a segment, a
+ * negative one the record that is still being written.
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x4155444A;
+    static final int VERSION = 1;
+    static final int HASH_LENGTH = 32;
+    static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + HASH_LENGTH;
+    static final int RECORD_OVERHEAD = 4 + 8 + HASH_LENGTH;
+
+    static final String COMPRESSED_SUFFIX = ".gz";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{20})\\.seg(\\.gz)?");
+
+    private JournalFormat() {
+    }
+
+    static String segmentName(long segmentIndex) {
+        return String.format("audit-%020d.seg", segmentIndex);
+    }
+
+    /**
+     * Segment index of a journal file name, or -1 for unrelated files.
+     */
+    static long segmentIndex(Path file) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    static boolean isCompressed(Path file) {
+        return file.getFileName().toString().endsWith(COMPRESSED_SUFFIX);
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Writes the chained hash of a record into {@code hash}, which may be the same array as {@code previousHash}.
+     * The payload position is left unchanged.
+     */
+    static void chain(MessageDigest digest, byte[] previousHash, long sequence, ByteBuffer payload, byte[] hash) {
+        digest.update(previousHash);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            digest.update((byte) (sequence >>> shift));
+        }
+        int position = payload.position();
+        digest.update(payload);
+        payload.position(position);
+        try {
+            digest.digest(hash, 0, HASH_LENGTH);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Failed to hash audit record " + sequence, e);
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.javatodev.finance.common.audit.journal;
+
+/**
+ * Raised when a journal segment does not match its hash chain, which means records were altered, removed or
+ * reordered after they were written.
+ */
+public class JournalIntegrityException extends RuntimeException {
+
+    public JournalIntegrityException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,229 @@
+package com.javatodev.finance.common.audit.pipeline;
+
+import com.javatodev.finance.common.audit.event.AuditEvent;
+import com.javatodev.finance.common.audit.event.AuditEventEncoder;
+import com.javatodev.finance.common.audit.sink.AuditBatch;
+import com.javatodev.finance.common.audit.sink.AuditSink;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.BufferOverflowException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands audit events from request threads to a background writer. Callers claim a preallocated
+ * {@link AuditEvent} slot in a lock-free ring buffer, fill it in place and publish it; encoding and sink I/O
+ * happen on the writer thread in batches.
+ * <pre>
+ * long position = auditPipeline.claim();
+ * if (position >= 0) {
+ *     auditPipeline.event(position).reset(...).setUserId(...);
+ *     auditPipeline.publish(position);
+ * }
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditPipeline {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final List<AuditSink> sinks;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Value("${app.config.audit.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${app.config.audit.batch-size:256}")
+    private int batchSize;
+
+    @Value("${app.config.audit.batch-bytes:1048576}")
+    private int batchBytes;
+
+    @Value("${app.config.audit.backpressure:DROP}")
+    private BackpressurePolicy backpressurePolicy;
+
+    @Value("${app.config.audit.block-timeout:50ms}")
+    private Duration blockTimeout;
+
+    private AuditRingBuffer<AuditEvent> buffer;
+    private AuditEventEncoder encoder;
+    private Thread writer;
+    private volatile boolean running = true;
+
+    private Counter publishedCounter;
+    private Counter droppedCounter;
+    private Counter blockedCounter;
+    private Counter writtenCounter;
+
+    @PostConstruct
+    void start() {
+        buffer = new AuditRingBuffer<>(bufferSize, AuditEvent::new);
+        encoder = new AuditEventEncoder(applicationName);
+
+        Gauge.builder("audit.queue.depth", buffer, AuditRingBuffer::size).register(meterRegistry);
+        Gauge.builder("audit.queue.capacity", buffer, AuditRingBuffer::capacity).register(meterRegistry);
+        publishedCounter = meterRegistry.counter("audit.events.published");
+        droppedCounter = meterRegistry.counter("audit.events.dropped");
+        blockedCounter = meterRegistry.counter("audit.events.blocked");
+        writtenCounter = meterRegistry.counter("audit.events.written");
+
+        writer = new Thread(this::drain, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Audit pipeline started with sinks {} and {} backpressure", sinks.stream().map(AuditSink::name).toList(), backpressurePolicy);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (AuditSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (Exception e) {
+                log.error("Failed to close audit sink {}", sink.name(), e);
+            }
+        }
+    }
+
+    /**
+     * Claims a slot for the next event. Returns -1 when the event was dropped under backpressure, otherwise
+     * the caller must fill {@link #event(long)} and {@link #publish(long)} the position without fail.
+     */
+    public long claim() {
+        long position = buffer.tryClaim();
+        if (position >= 0) {
+            publishedCounter.increment();
+            return position;
+        }
+
+        if (backpressurePolicy == BackpressurePolicy.BLOCK) {
+            position = claimWithin(blockTimeout.toNanos());
+            if (position >= 0) {
+                blockedCounter.increment();
+                publishedCounter.increment();
+                return position;
+            }
+        }
+
+        droppedCounter.increment();
+        return -1;
+    }
+
+    public AuditEvent event(long position) {
+        return buffer.get(position);
+    }
+
+    public void publish(long position) {
+        buffer.publish(position);
+    }
+
+    private long claimWithin(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+            long position = buffer.tryClaim();
+            if (position >= 0) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private void drain() {
+        AuditBatch batch = new AuditBatch(batchBytes, batchSize);
+        while (running || buffer.size() > 0) {
+            long position = buffer.nextPublished();
+            if (position < 0) {
+                if (batch.size() > 0) {
+                    flush(batch);
+                } else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                continue;
+            }
+
+            AuditEvent event = buffer.get(position);
+            append(batch, event);
+            // do not keep caller owned details reachable until the slot comes around again
+            event.setDetails(null);
+            buffer.release(position);
+
+            if (batch.isFull()) {
+                flush(batch);
+            }
+        }
+        if (batch.size() > 0) {
+            flush(batch);
+        }
+    }
+
+    private void append(AuditBatch batch, AuditEvent event) {
+        if (tryEncode(batch, event)) {
+            return;
+        }
+        if (batch.size() > 0) {
+            flush(batch);
+            if (tryEncode(batch, event)) {
+                return;
+            }
+        }
+        droppedCounter.increment();
+        log.error("Audit event {} {} does not fit into {} bytes, dropped", event.getCategory(), event.getAction(), batchBytes);
+    }
+
+    private boolean tryEncode(AuditBatch batch, AuditEvent event) {
+        try {
+            encoder.encode(event, batch.encodingBuffer());
+            if (batch.commit()) {
+                return true;
+            }
+        } catch (BufferOverflowException e) {
+            // the event does not fit the remaining batch buffer
+        } catch (RuntimeException e) {
+            log.error("Failed to encode audit event {} {}", event.getCategory(), event.getAction(), e);
+            droppedCounter.increment();
+            batch.rollback();
+            return true;
+        }
+        batch.rollback();
+        return false;
+    }
+
+    private void flush(AuditBatch batch) {
+        // one failing sink must not keep the events from the others
+        for (AuditSink sink : sinks) {
+            try {
+                sink.write(batch);
+            } catch (Exception e) {
+                meterRegistry.counter("audit.sink.failures", "sink", sink.name()).increment();
+                log.error("Audit sink {} failed to write {} events", sink.name(), batch.size(), e);
+            }
+        }
+        writtenCounter.increment(batch.size());
+        batch.clear();
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.javatodev.finance.common.audit.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer. Slots hold preallocated elements
+ * that producers fill in place: a producer claims a position, writes the slot element and publishes the
+ * position, the consumer reads the element and releases the slot for the next lap. Every slot carries a
+ * sequence number telling producers whether it is free and the consumer whether it is published, so neither
+ * side ever takes a lock or allocates.
+ */
+final class AuditRingBuffer<E> {
+
+    private final int mask;
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    AuditRingBuffer(int requestedCapacity, Supplier<E> factory) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = factory.get();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Claims the next free position, or returns -1 when the buffer is full.
+     */
+    long tryClaim() {
+        long position = tail.get();
+        while (true) {
+            long distance = sequences.get(index(position)) - position;
+            if (distance == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+                position = tail.get();
+            } else if (distance < 0) {
+                // the consumer has not released this slot from the previous lap yet
+                return -1;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    E get(long position) {
+        return (E) slots[index(position)];
+    }
+
+    void publish(long position) {
+        sequences.set(index(position), position + 1);
+    }
+
+    /**
+     * Next position for the consumer, or -1 when it is not published yet. Consumer thread only.
+     */
+    long nextPublished() {
+        long position = head.get();
+        return sequences.get(index(position)) == position + 1 ? position : -1;
+    }
+
+    /**
+     * Hands the slot of a consumed position back to the producers. Consumer thread only.
+     */
+    void release(long position) {
+        sequences.set(index(position), position + mask + 1);
+        head.set(position + 1);
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    private int index(long position) {
+        return (int) (position & mask);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.javatodev.finance.common.audit.pipeline;
+
+/**
+ * What a caller does when the audit buffer is full.
+ */
+public enum BackpressurePolicy {
+
+    /**
+     * Drop the event and count it, the caller never waits.
+     */
+    DROP,
+
+    /**
+     * Wait for free space up to the configured block timeout, then drop the event.
+     */
+    BLOCK
+
+}
@@ -0,0 +1,87 @@
+package com.javatodev.finance.common.audit.sink;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Batch of encoded audit events handed to the sinks. The events are UTF-8 JSON documents, each followed by a
+ * new line, in one buffer that is reused by the writer thread once every sink has returned. Sinks must copy
+ * anything they want to keep.
+ */
+public final class AuditBatch {
+
+    private final ByteBuffer buffer;
+    private final int[] ends;
+    private int size;
+
+    public AuditBatch(int capacityBytes, int maxEvents) {
+        this.buffer = ByteBuffer.allocateDirect(capacityBytes);
+        this.ends = new int[maxEvents];
+    }
+
+    /**
+     * Buffer the next event is encoded into, positioned after the last complete event.
+     */
+    public ByteBuffer encodingBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Completes the event encoded since the previous commit. Returns false when the buffer has no room for the
+     * line terminator, in which case the caller {@link #rollback() rolls back} the partial event.
+     */
+    public boolean commit() {
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+        buffer.put((byte) '\n');
+        ends[size++] = buffer.position();
+        return true;
+    }
+
+    /**
+     * Discards a partially encoded event.
+     */
+    public void rollback() {
+        buffer.position(size == 0 ? 0 : ends[size - 1]);
+    }
+
+    public boolean isFull() {
+        return size == ends.length;
+    }
+
+    public void clear() {
+        buffer.clear();
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * All events of the batch as a read-only view, new line delimited.
+     */
+    public ByteBuffer content() {
+        return buffer.asReadOnlyBuffer().flip();
+    }
+
+    /**
+     * One event without its line terminator, as a read-only view of the batch buffer.
+     */
+    public ByteBuffer eventBytes(int index) {
+        int start = index == 0 ? 0 : ends[index - 1];
+        return buffer.slice(start, ends[index] - start - 1).asReadOnlyBuffer();
+    }
+
+    /**
+     * One event without its line terminator, decoded to a string.
+     */
+    public String event(int index) {
+        int start = index == 0 ? 0 : ends[index - 1];
+        byte[] bytes = new byte[ends[index] - start - 1];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.javatodev.finance.common.audit.sink;
+
+/**
+ * Destination of audit events. Sinks are called from the single audit writer thread with batches of events
+ * encoded as JSON lines, in the order they were published.
+ */
+public interface AuditSink {
+
+    String name();
+
+    void write(AuditBatch batch) throws Exception;
+
+    default void close() throws Exception {
+    }
+
+}
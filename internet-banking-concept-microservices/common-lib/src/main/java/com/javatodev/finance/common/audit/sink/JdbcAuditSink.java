@@ -0,0 +1,61 @@
+package com.javatodev.finance.common.audit.sink;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Stores audit events in a table with one JDBC batch insert per writer batch. The table is owned by the
+ * service schema, for example:
+ *
+ * <pre>
+ * CREATE TABLE audit_event (
+ *     id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+ *     service    VARCHAR(100) NOT NULL,
+ *     payload    TEXT         NOT NULL,
+ *     created_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+ * );
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.config.audit.sink.jdbc.enabled", havingValue = "true")
+public class JdbcAuditSink implements AuditSink {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Value("${app.config.audit.sink.jdbc.table:audit_event}")
+    private String table;
+
+    @Override
+    public String name() {
+        return "jdbc";
+    }
+
+    @Override
+    public void write(AuditBatch batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (service, payload) VALUES (?, ?)", new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int index) throws SQLException {
+                statement.setString(1, applicationName);
+                statement.setString(2, batch.event(index));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.javatodev.finance.common.audit.sink;
+
+import com.javatodev.finance.common.audit.journal.AuditJournal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Writes audit events into the tamper evident {@link AuditJournal}, one record per event. Every batch is
+ * forced to disk before the writer moves on unless {@code force-per-batch} is turned off.
+ */
+@Component
+@ConditionalOnProperty(name = "app.config.audit.sink.journal.enabled", havingValue = "true")
+public class JournalAuditSink implements AuditSink {
+
+    @Value("${app.config.audit.sink.journal.directory:audit-journal}")
+    private String directory;
+
+    @Value("${app.config.audit.sink.journal.segment-size-bytes:67108864}")
+    private int segmentSizeBytes;
+
+    @Value("${app.config.audit.sink.journal.compress:true}")
+    private boolean compress;
+
+    @Value("${app.config.audit.sink.journal.force-per-batch:true}")
+    private boolean forcePerBatch;
+
+    private AuditJournal journal;
+
+    @PostConstruct
+    void open() throws IOException {
+        journal = new AuditJournal(Paths.get(directory), segmentSizeBytes, compress);
+        journal.open();
+    }
+
+    @Override
+    public String name() {
+        return "journal";
+    }
+
+    @Override
+    public void write(AuditBatch batch) throws IOException {
+        for (int i = 0; i < batch.size(); i++) {
+            journal.append(batch.eventBytes(i));
+        }
+        if (forcePerBatch) {
+            journal.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+
+}
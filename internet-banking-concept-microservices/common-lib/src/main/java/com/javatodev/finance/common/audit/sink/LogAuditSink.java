@@ -0,0 +1,28 @@
+package com.javatodev.finance.common.audit.sink;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the original {@code AUDIT: {...}} log lines for ELK style collectors. Enabled by default.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.config.audit.sink.log.enabled", havingValue = "true", matchIfMissing = true)
+public class LogAuditSink implements AuditSink {
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void write(AuditBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            log.info("AUDIT: {}", batch.event(i));
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.javatodev.finance.common.audit.sink;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Appends audit batches as JSON lines to a file. Once a batch would exceed the configured size the file is renamed to
+ * {@code <file>.1}, older files shift up by one and the oldest beyond {@code max-files} is removed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.config.audit.sink.file.enabled", havingValue = "true")
+public class RollingFileAuditSink implements AuditSink {
+
+    @Value("${app.config.audit.sink.file.path:logs/audit.log}")
+    private String path;
+
+    @Value("${app.config.audit.sink.file.max-size-bytes:104857600}")
+    private long maxSizeBytes;
+
+    @Value("${app.config.audit.sink.file.max-files:10}")
+    private int maxFiles;
+
+    private Path file;
+    private FileChannel channel;
+
+    @PostConstruct
+    void open() throws IOException {
+        file = Paths.get(path).toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        channel = openChannel();
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void write(AuditBatch batch) throws IOException {
+        ByteBuffer content = batch.content();
+        if (channel.size() > 0 && channel.size() + content.remaining() > maxSizeBytes) {
+            roll();
+        }
+        while (content.hasRemaining()) {
+            channel.write(content);
+        }
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void roll() throws IOException {
+        channel.force(true);
+        channel.close();
+
+        Files.deleteIfExists(rolled(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            if (Files.exists(rolled(i))) {
+                Files.move(rolled(i), rolled(i + 1), StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        Files.move(file, rolled(1), StandardCopyOption.ATOMIC_MOVE);
+
+        channel = openChannel();
+        log.info("Rolled audit file {}", file);
+    }
+
+    private Path rolled(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+}
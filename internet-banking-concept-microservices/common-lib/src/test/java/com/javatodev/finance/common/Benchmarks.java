@@ -0,0 +1,58 @@
+package com.javatodev.finance.common;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Measurements for the benchmarks, the tests tagged {@value #TAG} that the services' builds only run with
+ * {@code gradle benchmark}. Their sizes are read from {@code benchmark.*} system properties, so a run can be scaled
+ * up from the command line, for example {@code -Dbenchmark.iterations=1000000}.
+ */
+public final class Benchmarks {
+
+    public static final String TAG = "benchmark";
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Benchmarks() {
+    }
+
+    public static int setting(String name, int defaultValue) {
+        return Integer.getInteger("benchmark." + name, defaultValue);
+    }
+
+    /**
+     * Calls the operation {@code warmup} times, then measures the time and the heap allocated by the calling
+     * thread per call over {@code iterations} calls.
+     */
+    public static Measurement measure(int warmup, int iterations, Runnable operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Measurement((double) elapsed / iterations, (double) allocated / iterations);
+    }
+
+    public static void report(String benchmark, String format, Object... args) {
+        System.out.printf(Locale.ROOT, "[benchmark] %-48s %s%n", benchmark, String.format(Locale.ROOT, format, args));
+    }
+
+    public record Measurement(double nanosPerOp, double bytesPerOp) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%10.1f ns/op %10.1f B/op", nanosPerOp, bytesPerOp);
+        }
+
+    }
+
+}
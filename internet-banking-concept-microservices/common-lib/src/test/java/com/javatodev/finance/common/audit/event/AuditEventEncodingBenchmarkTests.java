@@ -0,0 +1,77 @@
+package com.javatodev.finance.common.audit.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javatodev.finance.common.Benchmarks;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A financial audit event as the audit service built it before the typed events, a map with a timestamp string
+ * serialized by Jackson, against a reused {@link AuditEvent} written by the {@link AuditEventEncoder} into a reused
+ * buffer. Both include the work of the calling thread and of the audit writer thread. The details map is the
+ * caller's in both, so it is built once. Sized with {@code benchmark.iterations}.
+ */
+@Tag(Benchmarks.TAG)
+class AuditEventEncodingBenchmarkTests {
+
+    private static final String SERVICE = "core-banking-service";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Object> details = Map.of("fromAccount", "100015003000", "toAccount", "100015003001");
+
+    @Test
+    void financialEventEncoding() {
+        int iterations = Benchmarks.setting("iterations", 200000);
+        AuditEventEncoder encoder = new AuditEventEncoder(SERVICE);
+        AuditEvent event = new AuditEvent();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        int[] size = new int[2];
+
+        Benchmarks.Measurement map = Benchmarks.measure(iterations / 5, iterations, () -> size[0] = mapEvent().length);
+        Benchmarks.Measurement typed = Benchmarks.measure(iterations / 5, iterations, () -> {
+            buffer.clear();
+            event.reset(AuditCategory.FINANCIAL, "FUND_TRANSFER", System.currentTimeMillis());
+            event.setTransactionId("7c9e6679-7425-40de-944b-e07fc1f90ae7");
+            event.setUserId("42");
+            event.setAmount(250.75);
+            event.setCurrency("USD");
+            event.setDetails(details);
+            encoder.encode(event, buffer);
+            size[1] = buffer.position();
+        });
+
+        Benchmarks.report("audit event map and Jackson", "%s  %d bytes", map, size[0]);
+        Benchmarks.report("audit event typed encoder", "%s  %d bytes", typed, size[1]);
+        assertThat(size[1]).isPositive();
+    }
+
+    private byte[] mapEvent() {
+        Map<String, Object> auditData = new HashMap<>();
+        auditData.put("timestamp", LocalDateTime.now().toString());
+        auditData.put("service", SERVICE);
+        auditData.put("category", "FINANCIAL");
+        auditData.put("action", "FUND_TRANSFER");
+        auditData.put("auditVersion", "1.0");
+        auditData.put("transactionId", "7c9e6679-7425-40de-944b-e07fc1f90ae7");
+        auditData.put("userId", "42");
+        auditData.put("amount", 250.75);
+        auditData.put("currency", "USD");
+        auditData.put("details", details);
+        try {
+            return objectMapper.writeValueAsString(auditData).getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
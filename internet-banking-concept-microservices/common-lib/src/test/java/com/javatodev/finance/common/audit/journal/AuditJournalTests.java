@@ -0,0 +1,114 @@
+package com.javatodev.finance.common.audit.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditJournalTests {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final int PAYLOAD_LENGTH = 8;
+    private static final int RECORD_LENGTH = JournalFormat.RECORD_OVERHEAD + PAYLOAD_LENGTH;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenedJournalContinuesTheChain() throws IOException {
+        append(0, 3);
+
+        append(3, 2);
+
+        assertThat(readSequences()).containsExactly(0L, 1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void recordTheWriterStoppedInIsDiscarded() throws IOException {
+        append(0, 3);
+        ByteBuffer torn = ByteBuffer.allocate(4 + 8 + 3);
+        torn.putInt(-PAYLOAD_LENGTH).putLong(3).put("rec".getBytes(StandardCharsets.US_ASCII)).flip();
+        write(recordOffset(3), torn);
+
+        append(3, 1);
+
+        assertThat(readSequences()).containsExactly(0L, 1L, 2L, 3L);
+    }
+
+    @Test
+    void lastRecordWithoutItsHashIsDiscarded() throws IOException {
+        append(0, 3);
+        // the length and payload reached the disk, the page with the hash did not
+        write(recordOffset(2) + 4 + 8 + PAYLOAD_LENGTH, ByteBuffer.allocate(JournalFormat.HASH_LENGTH));
+
+        append(2, 1);
+
+        assertThat(readSequences()).containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    void alteredRecordIsReportedAndTheSegmentIsLeftAsItIs() throws IOException {
+        append(0, 3);
+        write(recordOffset(1) + 4 + 8, ByteBuffer.wrap("altered!".getBytes(StandardCharsets.US_ASCII)));
+        byte[] before = Files.readAllBytes(segment());
+
+        assertThatThrownBy(() -> append(3, 1)).isInstanceOf(JournalIntegrityException.class);
+
+        assertThat(Files.readAllBytes(segment())).isEqualTo(before);
+    }
+
+    @Test
+    void recordsHiddenBehindAClearedLengthAreReported() throws IOException {
+        append(0, 3);
+        write(recordOffset(1), ByteBuffer.allocate(4));
+        byte[] before = Files.readAllBytes(segment());
+
+        assertThatThrownBy(() -> append(1, 1)).isInstanceOf(JournalIntegrityException.class);
+
+        assertThat(Files.readAllBytes(segment())).isEqualTo(before);
+    }
+
+    private void append(long firstSequence, int count) throws IOException {
+        try (AuditJournal journal = new AuditJournal(directory, SEGMENT_SIZE, false)) {
+            journal.open();
+            for (int i = 0; i < count; i++) {
+                long sequence = firstSequence + i;
+                byte[] payload = String.format("rec%05d", sequence).getBytes(StandardCharsets.US_ASCII);
+                assertThat(journal.append(ByteBuffer.wrap(payload))).isEqualTo(sequence);
+            }
+            journal.flush();
+        }
+    }
+
+    private List<Long> readSequences() throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        new AuditJournalReader(directory).read((sequence, payload, length) -> sequences.add(sequence));
+        return sequences;
+    }
+
+    private Path segment() {
+        return directory.resolve(JournalFormat.segmentName(0));
+    }
+
+    private static long recordOffset(int record) {
+        return JournalFormat.HEADER_LENGTH + (long) record * RECORD_LENGTH;
+    }
+
+    private void write(long offset, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment(), StandardOpenOption.WRITE)) {
+            channel.write(bytes, offset);
+        }
+    }
+
+}
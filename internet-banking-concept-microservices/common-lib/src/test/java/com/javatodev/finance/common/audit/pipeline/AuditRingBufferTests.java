@@ -0,0 +1,113 @@
+package com.javatodev.finance.common.audit.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTests {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new AuditRingBuffer<>(1, Slot::new).capacity()).isEqualTo(2);
+        assertThat(new AuditRingBuffer<>(8, Slot::new).capacity()).isEqualTo(8);
+        assertThat(new AuditRingBuffer<>(100, Slot::new).capacity()).isEqualTo(128);
+    }
+
+    @Test
+    void fullBufferRefusesClaimsUntilTheConsumerReleases() {
+        AuditRingBuffer<Slot> buffer = new AuditRingBuffer<>(4, Slot::new);
+        for (int i = 0; i < 4; i++) {
+            long position = buffer.tryClaim();
+            buffer.get(position).value = i;
+            buffer.publish(position);
+        }
+
+        assertThat(buffer.tryClaim()).isEqualTo(-1);
+        assertThat(buffer.size()).isEqualTo(4);
+
+        long consumed = buffer.nextPublished();
+        assertThat(buffer.get(consumed).value).isZero();
+        buffer.release(consumed);
+
+        assertThat(buffer.tryClaim()).isEqualTo(4);
+    }
+
+    @Test
+    void claimedSlotIsNotVisibleBeforeItIsPublished() {
+        AuditRingBuffer<Slot> buffer = new AuditRingBuffer<>(4, Slot::new);
+        long first = buffer.tryClaim();
+        long second = buffer.tryClaim();
+        buffer.publish(second);
+
+        // published in order only, the second slot waits for the first
+        assertThat(buffer.nextPublished()).isEqualTo(-1);
+
+        buffer.publish(first);
+        assertThat(buffer.nextPublished()).isEqualTo(first);
+    }
+
+    @Test
+    void everyElementOfConcurrentProducersIsConsumedOnce() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        AuditRingBuffer<Slot> buffer = new AuditRingBuffer<>(64, Slot::new);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> sent = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long base = (long) p * perProducer;
+                sent.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        long position;
+                        while ((position = buffer.tryClaim()) < 0) {
+                            Thread.yield();
+                        }
+                        buffer.get(position).value = base + i;
+                        buffer.publish(position);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            boolean[] seen = new boolean[producers * perProducer];
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            for (int consumed = 0; consumed < seen.length; ) {
+                long position = buffer.nextPublished();
+                if (position < 0) {
+                    assertThat(System.nanoTime()).as("producers finished in time").isLessThan(deadline);
+                    Thread.yield();
+                    continue;
+                }
+                int value = (int) buffer.get(position).value;
+                assertThat(seen[value]).as("element %d consumed once", value).isFalse();
+                seen[value] = true;
+                buffer.release(position);
+                consumed++;
+            }
+            for (Future<?> producer : sent) {
+                producer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.nextPublished()).isEqualTo(-1);
+    }
+
+    private static final class Slot {
+        long value;
+    }
+
+}
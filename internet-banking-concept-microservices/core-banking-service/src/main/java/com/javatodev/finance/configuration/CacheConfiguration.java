@@ -0,0 +1,41 @@
+package com.javatodev.finance.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Bounded in-process caches for account reads. Every cache records statistics, so hit and miss counts are
+ * published through the actuator as {@code cache.gets} and {@code cache.evictions}.
+ */
+@Configuration
+public class CacheConfiguration {
+
+    public static final String BANK_ACCOUNTS = "bank-accounts";
+    public static final String UTILITY_ACCOUNTS_BY_PROVIDER = "utility-accounts-by-provider";
+    public static final String UTILITY_ACCOUNTS_BY_ID = "utility-accounts-by-id";
+
+    @Value("${app.config.cache.bank-accounts:maximumSize=10000,expireAfterWrite=5m}")
+    private String bankAccountsSpec;
+
+    @Value("${app.config.cache.utility-accounts:maximumSize=1000,expireAfterWrite=1h}")
+    private String utilityAccountsSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // only the caches registered here exist, an unknown name must not silently create an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(BANK_ACCOUNTS, Caffeine.from(bankAccountsSpec).recordStats().build());
+        cacheManager.registerCustomCache(UTILITY_ACCOUNTS_BY_PROVIDER, Caffeine.from(utilityAccountsSpec).recordStats().build());
+        cacheManager.registerCustomCache(UTILITY_ACCOUNTS_BY_ID, Caffeine.from(utilityAccountsSpec).recordStats().build());
+        return cacheManager;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.javatodev.finance.configuration.datasource;
+
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Binds the {@code X-Auth-Id} of the request to the {@link ReadYourWritesGuard}, which records a write of the
+ * caller once one of its read-write transactions committed.
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HTTP_HEADER_AUTH_USER_ID = "X-Auth-Id";
+
+    private final ReadYourWritesGuard guard;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String authId = request.getHeader(HTTP_HEADER_AUTH_USER_ID);
+        if (!StringUtils.hasText(authId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try (ReadYourWritesGuard.Scope scope = guard.bind(authId)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+}
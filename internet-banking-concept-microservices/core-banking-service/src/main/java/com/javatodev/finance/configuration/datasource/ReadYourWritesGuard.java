@@ -0,0 +1,86 @@
+package com.javatodev.finance.configuration.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+
+/**
+ * Remembers which callers wrote recently, so their next reads are not served by a replica that has not caught
+ * up yet. A caller is identified by the {@code X-Auth-Id} the upstream services forward, it is bound to the
+ * handling thread for the duration of the request. A write keeps its caller on the primary for the stickiness
+ * window, which should be set above the replication lag normally seen.
+ * <p>
+ * Writes are recorded when a read-write transaction of the caller commits, the guard listens on the transaction
+ * manager for that. Requests that fail or only read leave the caller on the replica.
+ */
+public class ReadYourWritesGuard implements TransactionExecutionListener {
+
+    private final ThreadLocal<String> currentAuthId = new ThreadLocal<>();
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesGuard(Duration stickiness, long maximumSize) {
+        this.recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(stickiness)
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    /**
+     * Binds the caller to the current thread until the returned scope is closed.
+     */
+    public Scope bind(String authId) {
+        String previous = currentAuthId.get();
+        currentAuthId.set(authId);
+        return new Scope(previous);
+    }
+
+    /**
+     * Starts or restarts the stickiness window of the bound caller.
+     */
+    public void recordWrite() {
+        String authId = currentAuthId.get();
+        if (authId != null) {
+            recentWriters.put(authId, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            recordWrite();
+        }
+    }
+
+    /**
+     * Whether reads of the bound caller have to go to the primary. Work that is not done for a caller, like
+     * scheduled jobs and calls without an auth id, reads from the replica.
+     */
+    public boolean readsFromPrimary() {
+        String authId = currentAuthId.get();
+        return authId != null && recentWriters.getIfPresent(authId) != null;
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final String previous;
+
+        private Scope(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                currentAuthId.remove();
+            } else {
+                currentAuthId.set(previous);
+            }
+        }
+
+    }
+
+}
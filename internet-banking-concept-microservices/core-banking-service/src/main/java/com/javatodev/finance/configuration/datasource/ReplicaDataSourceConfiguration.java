@@ -0,0 +1,132 @@
+package com.javatodev.finance.configuration.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends the work of {@code @Transactional(readOnly = true)} methods to a read replica when
+ * {@code app.config.datasource.replica.enabled=true}. The data source the application uses only fetches a physical
+ * connection on first use, so by then the transaction has flagged it read-only and the replica pool is picked.
+ * Writes, and reads that join a write transaction, stay on the primary.
+ * <p>
+ * A caller whose read-write transaction committed within {@code app.config.datasource.replica.stickiness} keeps
+ * reading from the primary, see {@link ReadYourWritesGuard}. The replica pool takes its settings from {@code spring.datasource.hikari}, each of
+ * them can be overridden under {@code app.config.datasource.replica.hikari}. The split is published as
+ * {@code datasource.reads} tagged with the pool that served them.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.config.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfiguration {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    @Value("${app.config.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${app.config.datasource.replica.username:}")
+    private String replicaUsername;
+
+    @Value("${app.config.datasource.replica.password:}")
+    private String replicaPassword;
+
+    @Value("${app.config.datasource.replica.stickiness:5s}")
+    private Duration stickiness;
+
+    @Value("${app.config.datasource.replica.sticky-callers:100000}")
+    private long stickyCallers;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.config.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(REPLICA);
+        dataSource.setJdbcUrl(replicaUrl);
+        dataSource.setDriverClassName(primaryDataSource.getDriverClassName());
+        dataSource.setUsername(StringUtils.hasText(replicaUsername) ? replicaUsername : primaryDataSource.getUsername());
+        dataSource.setPassword(StringUtils.hasText(replicaPassword) ? replicaPassword : primaryDataSource.getPassword());
+        // negative sizes mean unset, Hikari defaults them once the pool starts
+        if (primaryDataSource.getMaximumPoolSize() > 0) {
+            dataSource.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+        }
+        if (primaryDataSource.getMinimumIdle() >= 0) {
+            dataSource.setMinimumIdle(primaryDataSource.getMinimumIdle());
+        }
+        dataSource.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+        dataSource.setLeakDetectionThreshold(primaryDataSource.getLeakDetectionThreshold());
+        dataSource.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+        return dataSource;
+    }
+
+    /**
+     * Registered with the transaction manager as a {@code TransactionExecutionListener} by Spring Boot.
+     */
+    @Bean
+    ReadYourWritesGuard readYourWritesGuard() {
+        return new ReadYourWritesGuard(stickiness, stickyCallers);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                          @Qualifier("replicaDataSource") HikariDataSource replicaDataSource, ReadYourWritesGuard guard,
+                          MeterRegistry meterRegistry) {
+        Counter primaryReads = Counter.builder("datasource.reads").tag("pool", PRIMARY)
+            .description("Read-only transactions served by the primary as their caller wrote recently").register(meterRegistry);
+        Counter replicaReads = Counter.builder("datasource.reads").tag("pool", REPLICA)
+            .description("Read-only transactions served by the replica").register(meterRegistry);
+
+        AbstractRoutingDataSource readOnlyDataSource = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                if (guard.readsFromPrimary()) {
+                    primaryReads.increment();
+                    return PRIMARY;
+                }
+                replicaReads.increment();
+                return REPLICA;
+            }
+        };
+        readOnlyDataSource.setTargetDataSources(Map.of(PRIMARY, primaryDataSource, REPLICA, replicaDataSource));
+        readOnlyDataSource.setLenientFallback(false);
+        readOnlyDataSource.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readOnlyDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesGuard guard) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(guard));
+    }
+
+}
@@ -1,12 +1,31 @@
 package com.javatodev.finance.controller;
 
+import com.javatodev.finance.model.StatementExportFormat;
+import com.javatodev.finance.model.dto.request.BatchBankAccountRequest;
 import com.javatodev.finance.service.AccountService;
+import com.javatodev.finance.service.StatementExportService;
+import com.javatodev.finance.service.StatementService;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +37,11 @@ import lombok.extern.slf4j.Slf4j;
 public class AccountController {
 
     private final AccountService accountService;
+    private final StatementService statementService;
+    private final StatementExportService statementExportService;
+
+    @Value("${app.config.statement.export.timeout:30m}")
+    private Duration exportTimeout;
 
     @GetMapping("/bank-account/{account_number}")
     public ResponseEntity getBankAccount(@PathVariable("account_number") String accountNumber) {
@@ -25,10 +49,92 @@ public class AccountController {
         return ResponseEntity.ok(accountService.readBankAccount(accountNumber));
     }
 
+    @PostMapping("/bank-account/_batch")
+    public ResponseEntity getBankAccounts(@RequestBody BatchBankAccountRequest request) {
+        log.info("Reading {} accounts by ID", request.getAccountNumbers().size());
+        return ResponseEntity.ok(accountService.readBankAccounts(request.getAccountNumbers()));
+    }
+
+    @GetMapping("/{account_number}/transactions")
+    public ResponseEntity getStatement(@PathVariable("account_number") String accountNumber,
+                                       @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                       @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                       @RequestParam(value = "after", required = false) String after,
+                                       @RequestParam(value = "size", required = false) Integer size) {
+        log.info("Reading statement of account {}", accountNumber);
+        return ResponseEntity.ok(statementService.readStatement(accountNumber, from, to, after, size));
+    }
+
+    /**
+     * Streams on an async request of its own timeout, {@code app.config.statement.export.timeout}, other async
+     * requests keep the default one.
+     */
+    @GetMapping("/{account_number}/transactions/export")
+    public WebAsyncTask<Void> exportStatement(@PathVariable("account_number") String accountNumber,
+                                             @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                             @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                             @RequestParam(value = "format", defaultValue = "CSV") StatementExportFormat format,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                             HttpServletResponse response) {
+        log.info("Exporting statement of account {} as {}", accountNumber, format);
+        long accountId = statementExportService.resolveAccountId(accountNumber);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        response.setContentType(format == StatementExportFormat.NDJSON ? MediaType.APPLICATION_NDJSON_VALUE : "text/csv");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-" + accountNumber + "." + format.name().toLowerCase() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            statementExportService.export(accountId, from, to, format, gzip, response.getOutputStream());
+            return null;
+        });
+    }
+
     @GetMapping("/util-account/{account_name}")
     public ResponseEntity getUtilityAccount(@PathVariable("account_name") String providerName) {
         log.info("Reading utitlity account by ID {}", providerName);
         return ResponseEntity.ok(accountService.readUtilityAccount(providerName));
     }
 
+    /**
+     * Whether gzip is acceptable by the Accept-Encoding rules of RFC 9110, a coding listed with {@code q=0} is
+     * refused and {@code *} stands for every coding that is not listed.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        double wildcardQuality = 0;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        return (gzipQuality != null ? gzipQuality : wildcardQuality) > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q') && parameter.charAt(1) == '=') {
+                try {
+                    double quality = Double.parseDouble(parameter.substring(2).trim());
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException e) {
+                    // a malformed weight does not make the coding acceptable
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
 }
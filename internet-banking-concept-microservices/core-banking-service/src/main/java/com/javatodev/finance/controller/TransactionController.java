@@ -1,7 +1,11 @@
 package com.javatodev.finance.controller;
 
+import com.javatodev.finance.model.dto.request.BatchFundTransferRequest;
+import com.javatodev.finance.model.dto.request.BatchTransactionLookupRequest;
 import com.javatodev.finance.model.dto.request.FundTransferRequest;
 import com.javatodev.finance.model.dto.request.UtilityPaymentRequest;
+import com.javatodev.finance.service.LedgerTransactionService;
+import com.javatodev.finance.service.TransactionRetryExecutor;
 import com.javatodev.finance.service.TransactionService;
 
 import org.springframework.http.ResponseEntity;
@@ -10,6 +14,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Optional;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,12 +26,36 @@ import lombok.extern.slf4j.Slf4j;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionRetryExecutor transactionRetryExecutor;
+    private final Optional<LedgerTransactionService> ledgerTransactionService;
 
     @PostMapping("/fund-transfer")
     public ResponseEntity fundTransfer(@RequestBody FundTransferRequest fundTransferRequest) {
 
         log.info("Fund transfer initiated in core bank from {}", fundTransferRequest.toString());
-        return ResponseEntity.ok(transactionService.fundTransfer(fundTransferRequest));
+        if (ledgerTransactionService.isPresent()) {
+            return ResponseEntity.ok(ledgerTransactionService.get().fundTransfer(fundTransferRequest));
+        }
+        return ResponseEntity.ok(transactionRetryExecutor.execute(() -> transactionService.fundTransfer(fundTransferRequest)));
+
+    }
+
+    @PostMapping("/fund-transfer/batch")
+    public ResponseEntity batchFundTransfer(@RequestBody BatchFundTransferRequest batchFundTransferRequest) {
+
+        log.info("Batch fund transfer initiated in core bank with {} transfers", batchFundTransferRequest.getTransfers().size());
+        if (ledgerTransactionService.isPresent()) {
+            return ResponseEntity.ok(ledgerTransactionService.get().batchFundTransfer(batchFundTransferRequest));
+        }
+        return ResponseEntity.ok(transactionRetryExecutor.execute(() -> transactionService.batchFundTransfer(batchFundTransferRequest)));
+
+    }
+
+    @PostMapping("/_lookup")
+    public ResponseEntity lookupTransactions(@RequestBody BatchTransactionLookupRequest request) {
+
+        log.info("Looking up {} transactions by ID", request.getTransactionIds().size());
+        return ResponseEntity.ok(transactionService.readExistingTransactionIds(request.getTransactionIds()));
 
     }
 
@@ -33,7 +63,10 @@ public class TransactionController {
     public ResponseEntity utilPayment(@RequestBody UtilityPaymentRequest utilityPaymentRequest) {
 
         log.info("Utility Payment initiated in core bank from {}", utilityPaymentRequest.toString());
-        return ResponseEntity.ok(transactionService.utilPayment(utilityPaymentRequest));
+        if (ledgerTransactionService.isPresent()) {
+            return ResponseEntity.ok(ledgerTransactionService.get().utilPayment(utilityPaymentRequest));
+        }
+        return ResponseEntity.ok(transactionRetryExecutor.execute(() -> transactionService.utilPayment(utilityPaymentRequest)));
 
     }
 
@@ -1,5 +1,6 @@
 package com.javatodev.finance.controller;
 
+import com.javatodev.finance.service.BalanceSummaryService;
 import com.javatodev.finance.service.UserService;
 
 import org.springframework.context.MessageSource;
@@ -8,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import lombok.RequiredArgsConstructor;
@@ -20,6 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 public class UserController {
 
     private final UserService userService;
+    private final BalanceSummaryService balanceSummaryService;
     private final MessageSource messageSource;
 
     @GetMapping(value = "/{identification}")
@@ -27,8 +30,17 @@ public class UserController {
         return ResponseEntity.ok(userService.readUser(identification));
     }
 
+    @GetMapping(value = "/{user_id}/balance-summary")
+    public ResponseEntity readBalanceSummary(@PathVariable("user_id") Long userId) {
+        return ResponseEntity.ok(balanceSummaryService.readSummary(userId));
+    }
+
     @GetMapping
-    public ResponseEntity readUsers(Pageable pageable) {
+    public ResponseEntity readUsers(@RequestParam(value = "after", required = false) String after, Pageable pageable) {
+        // with an after token, even an empty one, the users are paged by keyset
+        if (after != null) {
+            return ResponseEntity.ok(userService.readUsers(after, pageable.getPageSize()));
+        }
         return ResponseEntity.ok(userService.readUsers(pageable));
     }
 
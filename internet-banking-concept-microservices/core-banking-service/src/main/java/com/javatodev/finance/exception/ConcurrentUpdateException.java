@@ -0,0 +1,7 @@
+package com.javatodev.finance.exception;
+
+public class ConcurrentUpdateException extends SimpleBankingGlobalException {
+    public ConcurrentUpdateException(String message, String code) {
+        super(message, code);
+    }
+}
@@ -3,4 +3,7 @@ package com.javatodev.finance.exception;
 public class GlobalErrorCode {
     public static final String ERROR_ENTITY_NOT_FOUND = "BANKING-CORE-SERVICE-1000";
     public static final String INSUFFICIENT_FUNDS = "BANKING-CORE-SERVICE-1001";
+    public static final String CONCURRENT_UPDATE = "BANKING-CORE-SERVICE-1002";
+    public static final String INVALID_CURSOR = "BANKING-CORE-SERVICE-1003";
+    public static final String LEDGER_UNAVAILABLE = "BANKING-CORE-SERVICE-1004";
 }
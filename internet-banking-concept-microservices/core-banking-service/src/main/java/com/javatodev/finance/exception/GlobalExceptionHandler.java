@@ -1,5 +1,7 @@
 package com.javatodev.finance.exception;
 
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -20,6 +22,37 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 .build());
     }
 
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    protected ResponseEntity handleConcurrentUpdateException(ConcurrentUpdateException concurrentUpdateException, Locale locale) {
+        return ResponseEntity
+            .status(HttpStatus.CONFLICT)
+            .body(ErrorResponse.builder()
+                .code(concurrentUpdateException.getCode())
+                .message(concurrentUpdateException.getMessage())
+                .build());
+    }
+
+    @ExceptionHandler(LedgerUnavailableException.class)
+    protected ResponseEntity handleLedgerUnavailableException(LedgerUnavailableException ledgerUnavailableException, Locale locale) {
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .body(ErrorResponse.builder()
+                .code(ledgerUnavailableException.getCode())
+                .message(ledgerUnavailableException.getMessage())
+                .build());
+    }
+
+    // lock timeouts and deadlocks outside the retry executor, nothing was written and the request can be sent again
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    protected ResponseEntity handleLockingFailure(PessimisticLockingFailureException e, Locale locale) {
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .body(ErrorResponse.builder()
+                .code(GlobalErrorCode.CONCURRENT_UPDATE)
+                .message("Account is locked by a concurrent update. Please retry.")
+                .build());
+    }
+
     @ExceptionHandler({Exception.class})
     protected ResponseEntity handleException(Exception e, Locale locale) {
         return ResponseEntity
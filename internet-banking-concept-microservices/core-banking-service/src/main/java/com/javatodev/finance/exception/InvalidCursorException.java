@@ -0,0 +1,7 @@
+package com.javatodev.finance.exception;
+
+public class InvalidCursorException extends SimpleBankingGlobalException {
+    public InvalidCursorException(String message) {
+        super(message, GlobalErrorCode.INVALID_CURSOR);
+    }
+}
@@ -0,0 +1,7 @@
+package com.javatodev.finance.exception;
+
+public class LedgerUnavailableException extends SimpleBankingGlobalException {
+    public LedgerUnavailableException(String message) {
+        super(message, GlobalErrorCode.LEDGER_UNAVAILABLE);
+    }
+}
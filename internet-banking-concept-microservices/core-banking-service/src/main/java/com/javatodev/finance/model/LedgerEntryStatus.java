@@ -0,0 +1,5 @@
+package com.javatodev.finance.model;
+
+public enum LedgerEntryStatus {
+    PENDING, FAILED
+}
@@ -0,0 +1,5 @@
+package com.javatodev.finance.model;
+
+public enum TransactionStatus {
+    SUCCESS, FAILED
+}
@@ -6,8 +6,10 @@ import com.javatodev.finance.model.AccountType;
 import java.math.BigDecimal;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class BankAccount {
 
     private Long id;
@@ -18,4 +20,16 @@ public class BankAccount {
     private BigDecimal actualBalance;
     private User user;
 
+    /**
+     * Used by the constructor expressions of the account read queries, the user is never part of those reads.
+     */
+    public BankAccount(Long id, String number, AccountType type, AccountStatus status, BigDecimal availableBalance, BigDecimal actualBalance) {
+        this.id = id;
+        this.number = number;
+        this.type = type;
+        this.status = status;
+        this.availableBalance = availableBalance;
+        this.actualBalance = actualBalance;
+    }
+
 }
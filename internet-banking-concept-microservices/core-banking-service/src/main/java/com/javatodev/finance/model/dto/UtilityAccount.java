@@ -1,8 +1,12 @@
 package com.javatodev.finance.model.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class UtilityAccount {
     private Long id;
     private String number;
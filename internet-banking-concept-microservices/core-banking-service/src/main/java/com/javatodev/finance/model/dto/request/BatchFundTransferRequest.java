@@ -0,0 +1,10 @@
+package com.javatodev.finance.model.dto.request;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchFundTransferRequest {
+    private List<FundTransferRequest> transfers;
+}
@@ -0,0 +1,10 @@
+package com.javatodev.finance.model.dto.request;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchTransactionLookupRequest {
+    private List<String> transactionIds;
+}
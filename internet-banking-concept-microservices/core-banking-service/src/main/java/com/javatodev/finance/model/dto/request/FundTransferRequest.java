@@ -9,4 +9,6 @@ public class FundTransferRequest {
     private String fromAccount;
     private String toAccount;
     private BigDecimal amount;
+    // assigned by the caller so it can look the transfer up when the response is lost, generated when missing
+    private String transactionId;
 }
@@ -0,0 +1,21 @@
+package com.javatodev.finance.model.dto.response;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+public class AccountStatementResponse {
+
+    private String accountNumber;
+    private List<StatementEntry> transactions;
+    /**
+     * Cursor for the {@code after} parameter of the next page, absent on the last page.
+     */
+    private String next;
+
+}
@@ -0,0 +1,18 @@
+package com.javatodev.finance.model.dto.response;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+public class BatchFundTransferResponse {
+
+    private int succeeded;
+    private int failed;
+    private List<FundTransferItemResponse> results;
+
+}
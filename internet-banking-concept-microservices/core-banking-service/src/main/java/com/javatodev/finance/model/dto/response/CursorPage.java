@@ -0,0 +1,60 @@
+package com.javatodev.finance.model.dto.response;
+
+import com.javatodev.finance.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of a list read by keyset. {@code next} is the opaque token for the {@code after} parameter of the
+ * following page, absent on the last page.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String next;
+
+    /**
+     * Builds the page from up to {@code size + 1} rows read in ascending id order, the extra row only tells
+     * that another page follows.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, ToLongFunction<T> idOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        String next = Long.toString(idOf.applyAsLong(items.get(size - 1)));
+        return new CursorPage<>(items, Base64.getUrlEncoder().withoutPadding().encodeToString(next.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Converts the items, typically entities to their DTOs, keeping the token.
+     */
+    public <R> CursorPage<R> map(Function<List<T>, List<R>> converter) {
+        return new CursorPage<>(converter.apply(items), next);
+    }
+
+    /**
+     * Decodes an {@code after} token into the id the page starts after, a blank token starts at the beginning.
+     */
+    public static long afterId(String after) {
+        if (after == null || after.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(after), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor " + after);
+        }
+    }
+
+}
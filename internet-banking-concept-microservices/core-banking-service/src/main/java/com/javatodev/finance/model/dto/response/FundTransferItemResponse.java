@@ -0,0 +1,20 @@
+package com.javatodev.finance.model.dto.response;
+
+import com.javatodev.finance.model.TransactionStatus;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+public class FundTransferItemResponse {
+
+    private int index;
+    private TransactionStatus status;
+    private String transactionId;
+    private String code;
+    private String message;
+
+}
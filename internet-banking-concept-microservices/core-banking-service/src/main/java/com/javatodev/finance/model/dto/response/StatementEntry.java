@@ -0,0 +1,22 @@
+package com.javatodev.finance.model.dto.response;
+
+import com.javatodev.finance.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StatementEntry {
+
+    private Long id;
+    private String transactionId;
+    private String referenceNumber;
+    private TransactionType transactionType;
+    private BigDecimal amount;
+    private Instant createdDate;
+
+}
@@ -0,0 +1,17 @@
+package com.javatodev.finance.model.dto.response;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserBalanceSummary {
+
+    private Long userId;
+    private Long accountCount;
+    private BigDecimal totalAvailableBalance;
+    private BigDecimal totalActualBalance;
+
+}
@@ -0,0 +1,28 @@
+package com.javatodev.finance.model.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "banking_core_account_balance_slot",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "slot"}))
+public class AccountBalanceSlotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long accountId;
+
+    private int slot;
+
+    private BigDecimal actualBalance;
+
+    private BigDecimal availableBalance;
+
+}
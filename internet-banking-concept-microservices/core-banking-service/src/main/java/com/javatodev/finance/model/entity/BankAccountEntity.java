@@ -31,7 +31,10 @@ public class BankAccountEntity {
 
     private BigDecimal actualBalance;
 
-    @ManyToOne
+    @Version
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private UserEntity user;
 
@@ -0,0 +1,62 @@
+package com.javatodev.finance.model.entity;
+
+import com.javatodev.finance.model.LedgerEntryStatus;
+import com.javatodev.finance.model.TransactionType;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A transfer or payment accepted by the sharded ledger, with both of its legs, that is not applied to the
+ * account balances yet. A payment has no credit leg.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "banking_core_ledger_journal")
+public class LedgerJournalEntryEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String transactionId;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+
+    private String referenceNumber;
+
+    private Long debitAccountId;
+
+    private Long debitUserId;
+
+    private Long creditAccountId;
+
+    private Long creditUserId;
+
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    private LedgerEntryStatus status;
+
+    @Column(length = 1024)
+    private String failureReason;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdDate;
+
+}
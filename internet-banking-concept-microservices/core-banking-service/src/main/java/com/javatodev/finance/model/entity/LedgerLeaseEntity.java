@@ -0,0 +1,24 @@
+package com.javatodev.finance.model.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "banking_core_ledger_lease")
+public class LedgerLeaseEntity {
+
+    @Id
+    private String name;
+
+    private String owner;
+
+    private Instant expiresAt;
+
+}
@@ -1,8 +1,14 @@
 package com.javatodev.finance.model.entity;
 
+import com.javatodev.finance.configuration.persistence.PooledTableIdGenerator;
 import com.javatodev.finance.model.TransactionType;
 
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import java.math.BigDecimal;
+import java.time.Instant;
 
 import jakarta.persistence.*;
 import lombok.Builder;
@@ -17,7 +23,15 @@ import lombok.Setter;
 public class TransactionEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "transaction_id_generator")
+    @GenericGenerator(name = "transaction_id_generator", type = PooledTableIdGenerator.class, parameters = {
+        @Parameter(name = "table_name", value = "banking_core_id_sequence"),
+        @Parameter(name = "segment_column_name", value = "sequence_name"),
+        @Parameter(name = "value_column_name", value = "next_val"),
+        @Parameter(name = "segment_value", value = "banking_core_transaction"),
+        @Parameter(name = "increment_size", value = "50"),
+        @Parameter(name = "optimizer", value = "pooled")
+    })
     private Long id;
 
     private BigDecimal amount;
@@ -29,7 +43,11 @@ public class TransactionEntity {
 
     private String transactionId;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", referencedColumnName = "id")
     private BankAccountEntity account;
 
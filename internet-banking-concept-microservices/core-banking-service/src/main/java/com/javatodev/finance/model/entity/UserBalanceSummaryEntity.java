@@ -0,0 +1,26 @@
+package com.javatodev.finance.model.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "banking_core_user_balance_summary")
+public class UserBalanceSummaryEntity {
+
+    @Id
+    private Long userId;
+
+    private long accountCount;
+
+    private BigDecimal totalActualBalance;
+
+    private BigDecimal totalAvailableBalance;
+
+}
@@ -3,15 +3,18 @@ package com.javatodev.finance.model.mapper;
 import com.javatodev.finance.model.dto.BankAccount;
 import com.javatodev.finance.model.entity.BankAccountEntity;
 
-import org.springframework.beans.BeanUtils;
-
 public class BankAccountMapper extends BaseMapper<BankAccountEntity, BankAccount> {
 
     @Override
     public BankAccountEntity convertToEntity(BankAccount dto, Object... args) {
         BankAccountEntity entity = new BankAccountEntity();
         if (dto != null) {
-            BeanUtils.copyProperties(dto, entity, "user");
+            entity.setId(dto.getId());
+            entity.setNumber(dto.getNumber());
+            entity.setType(dto.getType());
+            entity.setStatus(dto.getStatus());
+            entity.setAvailableBalance(dto.getAvailableBalance());
+            entity.setActualBalance(dto.getActualBalance());
         }
         return entity;
     }
@@ -20,7 +23,12 @@ public class BankAccountMapper extends BaseMapper<BankAccountEntity, BankAccount
     public BankAccount convertToDto(BankAccountEntity entity, Object... args) {
         BankAccount dto = new BankAccount();
         if (entity != null) {
-            BeanUtils.copyProperties(entity, dto, "user");
+            dto.setId(entity.getId());
+            dto.setNumber(entity.getNumber());
+            dto.setType(entity.getType());
+            dto.setStatus(entity.getStatus());
+            dto.setAvailableBalance(entity.getAvailableBalance());
+            dto.setActualBalance(entity.getActualBalance());
         }
         return dto;
     }
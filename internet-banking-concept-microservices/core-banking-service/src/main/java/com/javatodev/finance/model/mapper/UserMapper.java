@@ -3,8 +3,6 @@ package com.javatodev.finance.model.mapper;
 import com.javatodev.finance.model.dto.User;
 import com.javatodev.finance.model.entity.UserEntity;
 
-import org.springframework.beans.BeanUtils;
-
 public class UserMapper extends BaseMapper<UserEntity, User> {
     private BankAccountMapper bankAccountMapper = new BankAccountMapper();
 
@@ -12,7 +10,11 @@ public class UserMapper extends BaseMapper<UserEntity, User> {
     public UserEntity convertToEntity(User dto, Object... args) {
         UserEntity entity = new UserEntity();
         if (dto != null) {
-            BeanUtils.copyProperties(dto, entity, "accounts");
+            entity.setId(dto.getId());
+            entity.setFirstName(dto.getFirstName());
+            entity.setLastName(dto.getLastName());
+            entity.setEmail(dto.getEmail());
+            entity.setIdentificationNumber(dto.getIdentificationNumber());
             entity.setAccounts(bankAccountMapper.convertToEntityList(dto.getBankAccounts()));
         }
         return entity;
@@ -22,7 +24,11 @@ public class UserMapper extends BaseMapper<UserEntity, User> {
     public User convertToDto(UserEntity entity, Object... args) {
         User dto = new User();
         if (entity != null) {
-            BeanUtils.copyProperties(entity, dto, "accounts");
+            dto.setId(entity.getId());
+            dto.setFirstName(entity.getFirstName());
+            dto.setLastName(entity.getLastName());
+            dto.setEmail(entity.getEmail());
+            dto.setIdentificationNumber(entity.getIdentificationNumber());
             dto.setBankAccounts(bankAccountMapper.convertToDtoList(entity.getAccounts()));
         }
         return dto;
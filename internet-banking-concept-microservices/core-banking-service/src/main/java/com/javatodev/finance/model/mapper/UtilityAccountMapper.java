@@ -3,14 +3,14 @@ package com.javatodev.finance.model.mapper;
 import com.javatodev.finance.model.dto.UtilityAccount;
 import com.javatodev.finance.model.entity.UtilityAccountEntity;
 
-import org.springframework.beans.BeanUtils;
-
 public class UtilityAccountMapper extends BaseMapper<UtilityAccountEntity, UtilityAccount> {
     @Override
     public UtilityAccountEntity convertToEntity(UtilityAccount dto, Object... args) {
         UtilityAccountEntity entity = new UtilityAccountEntity();
         if (dto != null) {
-            BeanUtils.copyProperties(dto, entity);
+            entity.setId(dto.getId());
+            entity.setNumber(dto.getNumber());
+            entity.setProviderName(dto.getProviderName());
         }
         return entity;
     }
@@ -19,7 +19,9 @@ public class UtilityAccountMapper extends BaseMapper<UtilityAccountEntity, Utili
     public UtilityAccount convertToDto(UtilityAccountEntity entity, Object... args) {
         UtilityAccount dto = new UtilityAccount();
         if (entity != null) {
-            BeanUtils.copyProperties(entity, dto);
+            dto.setId(entity.getId());
+            dto.setNumber(entity.getNumber());
+            dto.setProviderName(entity.getProviderName());
         }
         return dto;
     }
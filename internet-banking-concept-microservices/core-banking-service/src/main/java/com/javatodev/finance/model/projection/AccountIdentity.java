@@ -0,0 +1,9 @@
+package com.javatodev.finance.model.projection;
+
+public interface AccountIdentity {
+    Long getId();
+
+    String getNumber();
+
+    Long getUserId();
+}
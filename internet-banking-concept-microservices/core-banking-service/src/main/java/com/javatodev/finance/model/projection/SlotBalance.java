@@ -0,0 +1,11 @@
+package com.javatodev.finance.model.projection;
+
+import java.math.BigDecimal;
+
+public interface SlotBalance {
+    Long getAccountId();
+
+    BigDecimal getActualBalance();
+
+    BigDecimal getAvailableBalance();
+}
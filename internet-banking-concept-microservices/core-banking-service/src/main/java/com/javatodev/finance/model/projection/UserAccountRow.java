@@ -0,0 +1,14 @@
+package com.javatodev.finance.model.projection;
+
+import com.javatodev.finance.model.AccountStatus;
+import com.javatodev.finance.model.AccountType;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of a user joined with one of its accounts, the account columns are null for a user without accounts.
+ */
+public record UserAccountRow(Long userId, String firstName, String lastName, String email, String identificationNumber,
+                             Long accountId, String number, AccountType type, AccountStatus status,
+                             BigDecimal availableBalance, BigDecimal actualBalance) {
+}
@@ -0,0 +1,41 @@
+package com.javatodev.finance.repository;
+
+import com.javatodev.finance.model.entity.AccountBalanceSlotEntity;
+import com.javatodev.finance.model.projection.SlotBalance;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.persistence.LockModeType;
+
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlotEntity, Long> {
+
+    @Query("select s.slot from AccountBalanceSlotEntity s where s.accountId = :accountId")
+    List<Integer> findSlotNumbers(@Param("accountId") Long accountId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountBalanceSlotEntity s where s.accountId = :accountId order by s.slot")
+    List<AccountBalanceSlotEntity> findByAccountIdForUpdate(@Param("accountId") Long accountId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountBalanceSlotEntity s where s.accountId = :accountId and s.slot = :slot")
+    Optional<AccountBalanceSlotEntity> findSlotForUpdate(@Param("accountId") Long accountId, @Param("slot") int slot);
+
+    @Query("select s.accountId as accountId, sum(s.actualBalance) as actualBalance, sum(s.availableBalance) as availableBalance " +
+        "from AccountBalanceSlotEntity s where s.accountId in :accountIds group by s.accountId")
+    List<SlotBalance> sumByAccountIdIn(@Param("accountIds") Collection<Long> accountIds);
+
+    @Modifying
+    @Query("update AccountBalanceSlotEntity s set s.actualBalance = s.actualBalance + :amount, s.availableBalance = s.availableBalance + :amount " +
+        "where s.accountId = :accountId and s.slot = :slot")
+    int credit(@Param("accountId") Long accountId, @Param("slot") int slot, @Param("amount") BigDecimal amount);
+
+}
@@ -1,11 +1,68 @@
 package com.javatodev.finance.repository;
 
+import com.javatodev.finance.model.dto.BankAccount;
 import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.model.projection.AccountIdentity;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.LockModeType;
+
 public interface BankAccountRepository extends JpaRepository<BankAccountEntity, Long> {
+    String BANK_ACCOUNT_VIEW = "select new com.javatodev.finance.model.dto.BankAccount(a.id, a.number, a.type, a.status, " +
+        "a.availableBalance, a.actualBalance) from BankAccountEntity a ";
+    // hot accounts keep part of their balance in slots, the view adds it in the same statement
+    String SLOTTED_BANK_ACCOUNT_VIEW = "select new com.javatodev.finance.model.dto.BankAccount(a.id, a.number, a.type, a.status, " +
+        "a.availableBalance + coalesce((select sum(s.availableBalance) from AccountBalanceSlotEntity s where s.accountId = a.id), 0), " +
+        "a.actualBalance + coalesce((select sum(s.actualBalance) from AccountBalanceSlotEntity s where s.accountId = a.id), 0)) " +
+        "from BankAccountEntity a ";
+
     Optional<BankAccountEntity> findByNumber(String accountNumber);
+
+    List<BankAccountEntity> findByNumberIn(Collection<String> accountNumbers);
+
+    @Query(BANK_ACCOUNT_VIEW + "where a.number = :number")
+    Optional<BankAccount> findViewByNumber(@Param("number") String accountNumber);
+
+    @Query(BANK_ACCOUNT_VIEW + "where a.number in :numbers")
+    List<BankAccount> findViewsByNumberIn(@Param("numbers") Collection<String> accountNumbers);
+
+    @Query(SLOTTED_BANK_ACCOUNT_VIEW + "where a.number = :number")
+    Optional<BankAccount> findSlottedViewByNumber(@Param("number") String accountNumber);
+
+    @Query(SLOTTED_BANK_ACCOUNT_VIEW + "where a.number in :numbers")
+    List<BankAccount> findSlottedViewsByNumberIn(@Param("numbers") Collection<String> accountNumbers);
+
+    @Query("select a.id as id, a.number as number, a.user.id as userId from BankAccountEntity a where a.number in :numbers")
+    List<AccountIdentity> findIdentitiesByNumberIn(@Param("numbers") Collection<String> accountNumbers);
+
+    @Query("select a.id as id, a.number as number, a.user.id as userId from BankAccountEntity a where a.number = :number")
+    Optional<AccountIdentity> findIdentityByNumber(@Param("number") String accountNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from BankAccountEntity a where a.number = :number")
+    Optional<BankAccountEntity> findByNumberForUpdate(@Param("number") String accountNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from BankAccountEntity a where a.number in :numbers order by a.id")
+    List<BankAccountEntity> findByNumberInForUpdate(@Param("numbers") Collection<String> accountNumbers);
+
+    @Modifying
+    @Query("update BankAccountEntity a set a.actualBalance = a.actualBalance - :amount, a.availableBalance = a.availableBalance - :amount, " +
+        "a.version = a.version + 1 where a.id = :id and a.actualBalance >= :amount")
+    int debit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("update BankAccountEntity a set a.actualBalance = a.actualBalance + :amount, a.availableBalance = a.availableBalance + :amount, " +
+        "a.version = a.version + 1 where a.id = :id")
+    int credit(@Param("id") Long id, @Param("amount") BigDecimal amount);
 }
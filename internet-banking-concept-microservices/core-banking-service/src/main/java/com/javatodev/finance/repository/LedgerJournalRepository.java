@@ -0,0 +1,26 @@
+package com.javatodev.finance.repository;
+
+import com.javatodev.finance.model.LedgerEntryStatus;
+import com.javatodev.finance.model.entity.LedgerJournalEntryEntity;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LedgerJournalRepository extends JpaRepository<LedgerJournalEntryEntity, Long> {
+
+    List<LedgerJournalEntryEntity> findByStatusOrderById(LedgerEntryStatus status);
+
+    @Modifying
+    @Query("update LedgerJournalEntryEntity e set e.status = com.javatodev.finance.model.LedgerEntryStatus.FAILED, " +
+        "e.failureReason = :reason where e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("reason") String reason);
+
+    @Query("select e.transactionId from LedgerJournalEntryEntity e where e.transactionId in :transactionIds")
+    List<String> findTransactionIdsIn(@Param("transactionIds") Collection<String> transactionIds);
+
+}
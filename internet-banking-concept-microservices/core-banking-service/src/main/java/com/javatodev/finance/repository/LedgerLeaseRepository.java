@@ -0,0 +1,27 @@
+package com.javatodev.finance.repository;
+
+import com.javatodev.finance.model.entity.LedgerLeaseEntity;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface LedgerLeaseRepository extends JpaRepository<LedgerLeaseEntity, String> {
+
+    /**
+     * Takes or extends the lease, unless another owner holds it and it has not expired yet.
+     */
+    @Modifying
+    @Query("update LedgerLeaseEntity l set l.owner = :owner, l.expiresAt = :expiresAt where l.name = :name " +
+        "and (l.owner is null or l.owner = :owner or l.expiresAt < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now,
+                @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("update LedgerLeaseEntity l set l.owner = null, l.expiresAt = null where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+
+}
@@ -1,8 +1,31 @@
 package com.javatodev.finance.repository;
 
+import com.javatodev.finance.model.dto.response.StatementEntry;
 import com.javatodev.finance.model.entity.TransactionEntity;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<TransactionEntity, Long> {
+
+    /**
+     * Statement page of an account, newest first, starting strictly before the {@code (beforeDate, beforeId)}
+     * position. Walks the {@code (account_id, created_date, id)} index instead of skipping rows with OFFSET.
+     */
+    @Query("select new com.javatodev.finance.model.dto.response.StatementEntry(t.id, t.transactionId, t.referenceNumber, t.transactionType, t.amount, t.createdDate) " +
+        "from TransactionEntity t where t.account.id = :accountId and t.createdDate >= :from " +
+        "and t.createdDate <= :beforeDate and (t.createdDate < :beforeDate or t.id < :beforeId) " +
+        "order by t.createdDate desc, t.id desc")
+    List<StatementEntry> findStatementPage(@Param("accountId") Long accountId, @Param("from") Instant from,
+                                           @Param("beforeDate") Instant beforeDate, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("select distinct t.transactionId from TransactionEntity t where t.transactionId in :transactionIds")
+    List<String> findTransactionIdsIn(@Param("transactionIds") Collection<String> transactionIds);
+
 }
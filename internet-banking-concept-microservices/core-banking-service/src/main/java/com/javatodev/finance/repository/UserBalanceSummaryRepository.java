@@ -0,0 +1,54 @@
+package com.javatodev.finance.repository;
+
+import com.javatodev.finance.model.dto.response.UserBalanceSummary;
+import com.javatodev.finance.model.entity.UserBalanceSummaryEntity;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+public interface UserBalanceSummaryRepository extends JpaRepository<UserBalanceSummaryEntity, Long> {
+
+    @Query("select new com.javatodev.finance.model.dto.response.UserBalanceSummary(s.userId, s.accountCount, " +
+        "s.totalAvailableBalance, s.totalActualBalance) from UserBalanceSummaryEntity s where s.userId = :userId")
+    Optional<UserBalanceSummary> findViewByUserId(@Param("userId") Long userId);
+
+    // credits waiting in the slots of hot accounts are not summarized yet, the slotted views add them in the same statement
+    @Query("select new com.javatodev.finance.model.dto.response.UserBalanceSummary(s.userId, s.accountCount, " +
+        "s.totalAvailableBalance + coalesce((select sum(sl.availableBalance) from AccountBalanceSlotEntity sl " +
+        "where sl.accountId in (select b.id from BankAccountEntity b where b.user.id = s.userId)), 0), " +
+        "s.totalActualBalance + coalesce((select sum(sl.actualBalance) from AccountBalanceSlotEntity sl " +
+        "where sl.accountId in (select b.id from BankAccountEntity b where b.user.id = s.userId)), 0)) " +
+        "from UserBalanceSummaryEntity s where s.userId = :userId")
+    Optional<UserBalanceSummary> findSlottedViewByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.javatodev.finance.model.dto.response.UserBalanceSummary(u.id, count(a), " +
+        "coalesce(sum(a.availableBalance), 0), coalesce(sum(a.actualBalance), 0)) " +
+        "from UserEntity u left join u.accounts a where u.id = :userId group by u.id")
+    Optional<UserBalanceSummary> summarizeAccounts(@Param("userId") Long userId);
+
+    @Query("select new com.javatodev.finance.model.dto.response.UserBalanceSummary(u.id, count(a), " +
+        "coalesce(sum(a.availableBalance), 0) + coalesce((select sum(sl.availableBalance) from AccountBalanceSlotEntity sl " +
+        "where sl.accountId in (select b.id from BankAccountEntity b where b.user.id = u.id)), 0), " +
+        "coalesce(sum(a.actualBalance), 0) + coalesce((select sum(sl.actualBalance) from AccountBalanceSlotEntity sl " +
+        "where sl.accountId in (select b.id from BankAccountEntity b where b.user.id = u.id)), 0)) " +
+        "from UserEntity u left join u.accounts a where u.id = :userId group by u.id")
+    Optional<UserBalanceSummary> summarizeSlottedAccounts(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update UserBalanceSummaryEntity s set s.totalActualBalance = s.totalActualBalance + :actualBalance, " +
+        "s.totalAvailableBalance = s.totalAvailableBalance + :availableBalance where s.userId = :userId")
+    int addBalances(@Param("userId") Long userId, @Param("actualBalance") BigDecimal actualBalance,
+                    @Param("availableBalance") BigDecimal availableBalance);
+
+    @Modifying
+    @Query("insert into UserBalanceSummaryEntity (userId, accountCount, totalActualBalance, totalAvailableBalance) " +
+        "values (:userId, :accountCount, :actualBalance, :availableBalance)")
+    int insert(@Param("userId") Long userId, @Param("accountCount") long accountCount,
+               @Param("actualBalance") BigDecimal actualBalance, @Param("availableBalance") BigDecimal availableBalance);
+
+}
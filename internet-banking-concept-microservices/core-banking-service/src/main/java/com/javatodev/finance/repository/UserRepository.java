@@ -1,11 +1,40 @@
 package com.javatodev.finance.repository;
 
 import com.javatodev.finance.model.entity.UserEntity;
+import com.javatodev.finance.model.projection.UserAccountRow;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.LockModeType;
+
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
+    String USER_ACCOUNT_ROW = "select new com.javatodev.finance.model.projection.UserAccountRow(u.id, u.firstName, u.lastName, u.email, " +
+        "u.identificationNumber, a.id, a.number, a.type, a.status, a.availableBalance, a.actualBalance) from UserEntity u left join u.accounts a ";
+
     Optional<UserEntity> findByIdentificationNumber(String identificationNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from UserEntity u where u.id = :id")
+    Optional<UserEntity> findByIdForUpdate(@Param("id") Long id);
+
+    @Query(USER_ACCOUNT_ROW + "where u.identificationNumber = :identification order by a.id")
+    List<UserAccountRow> findUserAccountRows(@Param("identification") String identificationNumber);
+
+    @Query(USER_ACCOUNT_ROW + "where u.id in :ids order by u.id, a.id")
+    List<UserAccountRow> findUserAccountRowsByUserIdIn(@Param("ids") Collection<Long> userIds);
+
+    @Query("select u.id from UserEntity u")
+    Slice<Long> findIds(Pageable pageable);
+
+    @Query("select u.id from UserEntity u where u.id > :afterId order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
 }
@@ -1,11 +1,20 @@
 package com.javatodev.finance.repository;
 
+import com.javatodev.finance.model.dto.UtilityAccount;
 import com.javatodev.finance.model.entity.UtilityAccountEntity;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UtilityAccountRepository extends JpaRepository<UtilityAccountEntity, Long> {
     Optional<UtilityAccountEntity> findByProviderName(String provider);
+
+    @Query("select new com.javatodev.finance.model.dto.UtilityAccount(u.id, u.number, u.providerName) from UtilityAccountEntity u where u.providerName = :provider")
+    Optional<UtilityAccount> findViewByProviderName(@Param("provider") String provider);
+
+    @Query("select new com.javatodev.finance.model.dto.UtilityAccount(u.id, u.number, u.providerName) from UtilityAccountEntity u where u.id = :id")
+    Optional<UtilityAccount> findViewById(@Param("id") Long id);
 }
@@ -1,16 +1,28 @@
 package com.javatodev.finance.service;
 
+import com.javatodev.finance.configuration.CacheConfiguration;
 import com.javatodev.finance.exception.EntityNotFoundException;
 import com.javatodev.finance.model.dto.BankAccount;
 import com.javatodev.finance.model.dto.UtilityAccount;
-import com.javatodev.finance.model.entity.BankAccountEntity;
-import com.javatodev.finance.model.entity.UtilityAccountEntity;
-import com.javatodev.finance.model.mapper.BankAccountMapper;
-import com.javatodev.finance.model.mapper.UtilityAccountMapper;
 import com.javatodev.finance.repository.BankAccountRepository;
 import com.javatodev.finance.repository.UtilityAccountRepository;
+import com.javatodev.finance.service.ledger.ShardedLedgerEngine;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 
 import lombok.RequiredArgsConstructor;
 
@@ -18,24 +30,108 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AccountService {
 
-    private BankAccountMapper bankAccountMapper = new BankAccountMapper();
-    private UtilityAccountMapper utilityAccountMapper = new UtilityAccountMapper();
-
     private final BankAccountRepository bankAccountRepository;
     private final UtilityAccountRepository utilityAccountRepository;
+    private final Optional<ShardedLedgerEngine> ledgerEngine;
+    private final Optional<HotAccountBalances> hotAccountBalances;
+    private final CacheManager cacheManager;
 
+    // balances are read from the primary, a lagging replica could put a balance evicted after commit back into the cache
     public BankAccount readBankAccount(String accountNumber) {
-        BankAccountEntity entity = bankAccountRepository.findByNumber(accountNumber).orElseThrow(EntityNotFoundException::new);
-        return bankAccountMapper.convertToDto(entity);
+        BankAccount bankAccount = cached(CacheConfiguration.BANK_ACCOUNTS, accountNumber, () -> (isHot(accountNumber)
+            ? bankAccountRepository.findSlottedViewByNumber(accountNumber)
+            : bankAccountRepository.findViewByNumber(accountNumber)).orElseThrow(EntityNotFoundException::new));
+        return ledgerEngine.map(engine -> engine.overlay(bankAccount)).orElse(bankAccount);
+    }
+
+    /**
+     * Reads several accounts in one go, cached ones from the cache and the rest with a single query. Accounts
+     * that do not exist are left out of the result. Accounts read here are not put into the cache, only
+     * {@link #readBankAccount(String)} loads it in step with evictions.
+     */
+    public List<BankAccount> readBankAccounts(Collection<String> accountNumbers) {
+        Cache cache = cache(CacheConfiguration.BANK_ACCOUNTS);
+        Map<String, BankAccount> bankAccounts = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String accountNumber : accountNumbers) {
+            if (!bankAccounts.containsKey(accountNumber)) {
+                BankAccount bankAccount = cache.get(accountNumber, BankAccount.class);
+                bankAccounts.put(accountNumber, bankAccount);
+                if (bankAccount == null) {
+                    misses.add(accountNumber);
+                }
+            }
+        }
+        List<String> hotMisses = misses.stream().filter(this::isHot).toList();
+        if (!hotMisses.isEmpty()) {
+            misses.removeAll(hotMisses);
+            bankAccountRepository.findSlottedViewsByNumberIn(hotMisses)
+                .forEach(bankAccount -> bankAccounts.put(bankAccount.getNumber(), bankAccount));
+        }
+        if (!misses.isEmpty()) {
+            bankAccountRepository.findViewsByNumberIn(misses)
+                .forEach(bankAccount -> bankAccounts.put(bankAccount.getNumber(), bankAccount));
+        }
+
+        return bankAccounts.values().stream()
+            .filter(Objects::nonNull)
+            .map(bankAccount -> ledgerEngine.map(engine -> engine.overlay(bankAccount)).orElse(bankAccount))
+            .toList();
     }
 
+    @Transactional(readOnly = true)
     public UtilityAccount readUtilityAccount(String provider) {
-        UtilityAccountEntity utilityAccountEntity = utilityAccountRepository.findByProviderName(provider).orElseThrow(EntityNotFoundException::new);
-        return utilityAccountMapper.convertToDto(utilityAccountEntity);
+        return cached(CacheConfiguration.UTILITY_ACCOUNTS_BY_PROVIDER, provider, () ->
+            utilityAccountRepository.findViewByProviderName(provider).orElseThrow(EntityNotFoundException::new));
     }
 
+    @Transactional(readOnly = true)
     public UtilityAccount readUtilityAccount(Long id) {
-        return utilityAccountMapper.convertToDto(utilityAccountRepository.findById(id).orElseThrow(EntityNotFoundException::new));
+        return cached(CacheConfiguration.UTILITY_ACCOUNTS_BY_ID, id, () ->
+            utilityAccountRepository.findViewById(id).orElseThrow(EntityNotFoundException::new));
+    }
+
+    /**
+     * Drops the cached copies of accounts whose balances were changed. Inside a transaction the eviction runs
+     * after commit, so a concurrent read cannot put the pre-commit balances back into the cache.
+     */
+    public void evictBankAccounts(Collection<String> accountNumbers) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<String> numbers = List.copyOf(accountNumbers);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(numbers);
+                }
+            });
+        } else {
+            evictNow(accountNumbers);
+        }
+    }
+
+    private void evictNow(Collection<String> accountNumbers) {
+        Cache cache = cache(CacheConfiguration.BANK_ACCOUNTS);
+        accountNumbers.forEach(cache::evict);
+    }
+
+    private boolean isHot(String accountNumber) {
+        return hotAccountBalances.map(balances -> balances.isHot(accountNumber)).orElse(false);
+    }
+
+    private <T> T cached(String cacheName, Object key, Callable<T> loader) {
+        // the loader runs atomically per key, so an eviction issued while it is reading waits and removes its result
+        try {
+            return cache(cacheName).get(key, loader);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private Cache cache(String cacheName) {
+        return cacheManager.getCache(cacheName);
     }
 
 }
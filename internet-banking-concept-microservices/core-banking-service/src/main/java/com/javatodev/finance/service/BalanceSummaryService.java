@@ -0,0 +1,128 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.exception.EntityNotFoundException;
+import com.javatodev.finance.model.dto.response.UserBalanceSummary;
+import com.javatodev.finance.repository.UserBalanceSummaryRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the per user balance totals of {@code banking_core_user_balance_summary} in step with the account
+ * balances. Every posting records its balance change here. Inside a transaction the changes are summed per user
+ * and written just before commit, one update per user in user id order, so two transactions touching the same
+ * users cannot deadlock on the summary rows. The first posting of a user creates the row in its own transaction,
+ * summed from the account balances its change is already part of. Concurrent first postings of a user queue on the
+ * user's row, the later ones find the summary row in place and add their change to it.
+ * <p>
+ * Credits waiting in the balance slots of hot accounts are not in the summary rows, they get there when they are swept
+ * into the account row. Reads add them, so the totals returned always match the account balances.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceSummaryService {
+
+    private final UserBalanceSummaryRepository userBalanceSummaryRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.config.hot-accounts.enabled:false}")
+    private boolean hotAccountsEnabled;
+
+    private TransactionTemplate summaryUpdate;
+
+    @PostConstruct
+    void init() {
+        // joins the posting's transaction, a transaction of its own would need a second connection while the first is held
+        summaryUpdate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * One primary key lookup. Users added after the summary table was filled have no row until their first
+     * posting, their totals are summed from the accounts instead. With hot accounts enabled the same statement adds
+     * the user's balance slots.
+     */
+    @Transactional(readOnly = true)
+    public UserBalanceSummary readSummary(Long userId) {
+        Optional<UserBalanceSummary> summary = hotAccountsEnabled
+            ? userBalanceSummaryRepository.findSlottedViewByUserId(userId).or(() -> userBalanceSummaryRepository.summarizeSlottedAccounts(userId))
+            : userBalanceSummaryRepository.findViewByUserId(userId).or(() -> userBalanceSummaryRepository.summarizeAccounts(userId));
+        return summary.orElseThrow(EntityNotFoundException::new);
+    }
+
+    public void recordChange(Long userId, BigDecimal actualBalance, BigDecimal availableBalance) {
+        if (userId == null || (actualBalance.signum() == 0 && availableBalance.signum() == 0)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(userId, actualBalance, availableBalance);
+            return;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(userId, actualBalance, availableBalance);
+    }
+
+    private void apply(Long userId, BigDecimal actualBalance, BigDecimal availableBalance) {
+        summaryUpdate.executeWithoutResult(status -> {
+            if (userBalanceSummaryRepository.addBalances(userId, actualBalance, availableBalance) > 0) {
+                return;
+            }
+            // concurrent first postings of the user wait here, the first creates the row and the others then add to it.
+            // On MySQL two of them can still deadlock on the gap lock of the missing row, the victim is re-run.
+            userRepository.findByIdForUpdate(userId);
+            if (userBalanceSummaryRepository.addBalances(userId, actualBalance, availableBalance) > 0) {
+                return;
+            }
+            // the change is flushed or committed already, the sum includes it
+            userBalanceSummaryRepository.summarizeAccounts(userId)
+                .ifPresent(summary -> userBalanceSummaryRepository.insert(userId, summary.getAccountCount(),
+                    summary.getTotalActualBalance(), summary.getTotalAvailableBalance()));
+        });
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<Long, BigDecimal[]> changes = new TreeMap<>();
+
+        void add(Long userId, BigDecimal actualBalance, BigDecimal availableBalance) {
+            BigDecimal[] change = changes.computeIfAbsent(userId, id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            change[0] = change[0].add(actualBalance);
+            change[1] = change[1].add(availableBalance);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            changes.values().removeIf(change -> change[0].signum() == 0 && change[1].signum() == 0);
+            changes.forEach((userId, change) -> apply(userId, change[0], change[1]));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BalanceSummaryService.this);
+        }
+
+    }
+
+}
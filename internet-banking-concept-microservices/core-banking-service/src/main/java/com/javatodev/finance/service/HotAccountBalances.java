@@ -0,0 +1,215 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.model.dto.BankAccount;
+import com.javatodev.finance.model.entity.AccountBalanceSlotEntity;
+import com.javatodev.finance.model.projection.AccountIdentity;
+import com.javatodev.finance.repository.AccountBalanceSlotRepository;
+import com.javatodev.finance.repository.BankAccountRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional balance splitting for hot accounts, enabled with {@code app.config.hot-accounts.enabled=true}. Settlement
+ * accounts listed in {@code app.config.hot-accounts.numbers} get {@code app.config.hot-accounts.slots} balance slot
+ * rows. A credit to such an account adds to one slot picked at random and leaves the account row alone, so
+ * concurrent credits only wait for each other when they land on the same slot. Slot credits leave the user's
+ * balance summary alone as well, it only learns about them when they are swept into the account row.
+ * <p>
+ * Debits first collect the slots and add them to the account row, inside the debiting transaction, and then check
+ * the balance on the account row as usual. A consolidator does the same sweep for every hot account each
+ * {@code app.config.hot-accounts.consolidate-interval}, which keeps the account row close to the full balance.
+ * Reads add the slots to the account row, so a sweep never changes the balance seen.
+ * <p>
+ * Every transaction locks the slot rows it needs before any account row, and both in account id order.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.config.hot-accounts.enabled", havingValue = "true")
+public class HotAccountBalances {
+
+    private final AccountBalanceSlotRepository accountBalanceSlotRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final BalanceSummaryService balanceSummaryService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.config.hot-accounts.numbers:}")
+    private Set<String> accountNumbers;
+
+    @Value("${app.config.hot-accounts.slots:8}")
+    private int slots;
+
+    @Value("${app.config.hot-accounts.consolidate-interval:5s}")
+    private Duration consolidateInterval;
+
+    private final Map<String, AccountIdentity> accounts = new ConcurrentHashMap<>();
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        resolveAccounts();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-account-consolidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::consolidate, consolidateInterval.toMillis(), consolidateInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Hot account balances enabled for {} accounts with {} slots each", accounts.size(), slots);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Whether the account's balance is split, which is only the case once its slots exist.
+     */
+    public boolean isHot(String accountNumber) {
+        return accounts.containsKey(accountNumber);
+    }
+
+    /**
+     * Adds the amount to a random slot of the hot account.
+     */
+    public void credit(AccountIdentity account, BigDecimal amount) {
+        credit(account, ThreadLocalRandom.current().nextInt(slots), amount);
+    }
+
+    /**
+     * Locks a random slot of the hot account for credits whose amount is only known later in the transaction.
+     */
+    public int reserveSlot(AccountIdentity account) {
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        accountBalanceSlotRepository.findSlotForUpdate(account.getId(), slot);
+        return slot;
+    }
+
+    public void credit(AccountIdentity account, int slot, BigDecimal amount) {
+        if (accountBalanceSlotRepository.credit(account.getId(), slot, amount) == 0) {
+            throw new IllegalStateException("Balance slot " + slot + " of account " + account.getNumber() + " does not exist");
+        }
+    }
+
+    /**
+     * Empties the slots of a hot account, inside the caller's transaction, and returns what they held. The caller adds
+     * the amount to the account row. The slots stay locked until that transaction ends, credits arriving meanwhile
+     * wait for it. Returns zero for accounts that are not hot.
+     */
+    public BigDecimal collect(AccountIdentity account) {
+        if (!isHot(account.getNumber())) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal amount = BigDecimal.ZERO;
+        for (AccountBalanceSlotEntity slot : accountBalanceSlotRepository.findByAccountIdForUpdate(account.getId())) {
+            // slots only ever receive credits, both of their balances carry the same amount
+            amount = amount.add(slot.getActualBalance());
+            slot.setActualBalance(BigDecimal.ZERO);
+            slot.setAvailableBalance(BigDecimal.ZERO);
+        }
+        return amount;
+    }
+
+    /**
+     * Adds the slot balances to the hot accounts among the given accounts. Meant for reads inside a transaction,
+     * where the account rows and the slots come from the same snapshot.
+     */
+    public void overlay(Collection<BankAccount> bankAccounts) {
+        Map<Long, BankAccount> hotAccounts = new HashMap<>();
+        bankAccounts.stream().filter(bankAccount -> isHot(bankAccount.getNumber()))
+            .forEach(bankAccount -> hotAccounts.put(bankAccount.getId(), bankAccount));
+        if (hotAccounts.isEmpty()) {
+            return;
+        }
+        accountBalanceSlotRepository.sumByAccountIdIn(hotAccounts.keySet()).forEach(slotBalance -> {
+            BankAccount bankAccount = hotAccounts.get(slotBalance.getAccountId());
+            bankAccount.setActualBalance(bankAccount.getActualBalance().add(slotBalance.getActualBalance()));
+            bankAccount.setAvailableBalance(bankAccount.getAvailableBalance().add(slotBalance.getAvailableBalance()));
+        });
+    }
+
+    private void sweep(AccountIdentity account) {
+        BigDecimal amount = collect(account);
+        if (amount.signum() != 0) {
+            bankAccountRepository.credit(account.getId(), amount);
+            balanceSummaryService.recordChange(account.getUserId(), amount, amount);
+        }
+    }
+
+    private void consolidate() {
+        try {
+            if (accounts.size() < accountNumbers.size()) {
+                resolveAccounts();
+            }
+            accounts.values().forEach(account -> transactionTemplate.executeWithoutResult(status -> sweep(account)));
+        } catch (Exception e) {
+            // never let an exception cancel the scheduled task
+            log.warn("Hot account consolidation failed", e);
+        }
+    }
+
+    private void resolveAccounts() {
+        if (accountNumbers.isEmpty()) {
+            return;
+        }
+        bankAccountRepository.findIdentitiesByNumberIn(accountNumbers).forEach(identity -> {
+            createSlots(identity.getId());
+            accounts.put(identity.getNumber(), identity);
+        });
+        if (accounts.size() < accountNumbers.size()) {
+            log.warn("Hot accounts not found yet: {}", accountNumbers.stream().filter(number -> !accounts.containsKey(number)).toList());
+        }
+    }
+
+    private void createSlots(Long accountId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Integer> existing = accountBalanceSlotRepository.findSlotNumbers(accountId);
+                List<AccountBalanceSlotEntity> missing = new ArrayList<>();
+                for (int slot = 0; slot < slots; slot++) {
+                    if (!existing.contains(slot)) {
+                        AccountBalanceSlotEntity entity = new AccountBalanceSlotEntity();
+                        entity.setAccountId(accountId);
+                        entity.setSlot(slot);
+                        entity.setActualBalance(BigDecimal.ZERO);
+                        entity.setAvailableBalance(BigDecimal.ZERO);
+                        missing.add(entity);
+                    }
+                }
+                accountBalanceSlotRepository.saveAll(missing);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another instance created them at the same time
+            log.info("Balance slots of account {} already created", accountId);
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.configuration.datasource.ReadYourWritesGuard;
+import com.javatodev.finance.exception.SimpleBankingGlobalException;
+import com.javatodev.finance.model.dto.request.BatchFundTransferRequest;
+import com.javatodev.finance.model.dto.request.FundTransferRequest;
+import com.javatodev.finance.model.dto.request.UtilityPaymentRequest;
+import com.javatodev.finance.model.dto.response.BatchFundTransferResponse;
+import com.javatodev.finance.model.dto.response.FundTransferItemResponse;
+import com.javatodev.finance.model.dto.response.FundTransferResponse;
+import com.javatodev.finance.model.dto.response.UtilityPaymentResponse;
+import com.javatodev.finance.service.ledger.ShardedLedgerEngine;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Transactions posted through the {@link ShardedLedgerEngine}. Deliberately not transactional: the shards and the
+ * journal use their own short transactions, a caller's transaction would only hold a pooled connection while the
+ * transfer waits for its shards. For the same reason no transaction of the caller commits, an acknowledged
+ * posting records the write with the {@link ReadYourWritesGuard} itself.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.config.ledger.mode", havingValue = "sharded")
+public class LedgerTransactionService {
+
+    private final ShardedLedgerEngine ledgerEngine;
+    private final AccountService accountService;
+    private final Optional<ReadYourWritesGuard> readYourWritesGuard;
+
+    public FundTransferResponse fundTransfer(FundTransferRequest fundTransferRequest) {
+        String transactionId = ledgerEngine.transfer(fundTransferRequest.getFromAccount(), fundTransferRequest.getToAccount(), fundTransferRequest.getAmount());
+        recordWrite();
+        return FundTransferResponse.builder().message("Transaction successfully completed").transactionId(transactionId).build();
+    }
+
+    public UtilityPaymentResponse utilPayment(UtilityPaymentRequest utilityPaymentRequest) {
+        accountService.readUtilityAccount(utilityPaymentRequest.getProviderId());
+        String transactionId = ledgerEngine.payment(utilityPaymentRequest.getAccount(), utilityPaymentRequest.getAmount(), utilityPaymentRequest.getReferenceNumber());
+        recordWrite();
+        return UtilityPaymentResponse.builder().message("Utility payment successfully completed")
+            .transactionId(transactionId).build();
+    }
+
+    public BatchFundTransferResponse batchFundTransfer(BatchFundTransferRequest batchFundTransferRequest) {
+        List<FundTransferRequest> transfers = batchFundTransferRequest.getTransfers();
+        List<FundTransferItemResponse> results = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            FundTransferRequest transfer = transfers.get(i);
+            try {
+                results.add(TransactionService.successItem(i, ledgerEngine.transfer(TransactionService.transactionIdOf(transfer), transfer.getFromAccount(), transfer.getToAccount(), transfer.getAmount())));
+            } catch (SimpleBankingGlobalException e) {
+                results.add(TransactionService.failedItem(i, e));
+            }
+        }
+        BatchFundTransferResponse response = TransactionService.batchResponse(results);
+        if (response.getSucceeded() > 0) {
+            recordWrite();
+        }
+        return response;
+    }
+
+    private void recordWrite() {
+        readYourWritesGuard.ifPresent(ReadYourWritesGuard::recordWrite);
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.javatodev.finance.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javatodev.finance.exception.EntityNotFoundException;
+import com.javatodev.finance.model.StatementExportFormat;
+import com.javatodev.finance.repository.BankAccountRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams the full transaction history of an account as CSV or NDJSON. Rows are read through a forward-only,
+ * read-only JDBC cursor and written to the response as they arrive, no entities or lists are built, so the heap
+ * stays flat whatever the size of the export.
+ * <p>
+ * MySQL only fetches in chunks of {@code app.config.statement.export.fetch-size} when the connection URL has
+ * {@code useCursorFetch=true}, otherwise the driver reads the whole result into memory first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatementExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,transaction_id,reference_number,transaction_type,amount,created_date\n";
+    private static final String EXPORT_QUERY = "SELECT id, transaction_id, reference_number, transaction_type, amount, created_date "
+        + "FROM banking_core_transaction WHERE account_id = ? AND created_date >= ? AND created_date < ? ORDER BY created_date, id";
+
+    private final BankAccountRepository bankAccountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.config.statement.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Resolved before the response starts, so an unknown account still ends in a regular error response.
+     */
+    @Transactional(readOnly = true)
+    public long resolveAccountId(String accountNumber) {
+        return bankAccountRepository.findIdentityByNumber(accountNumber).orElseThrow(EntityNotFoundException::new).getId();
+    }
+
+    /**
+     * Writes the transactions created from {@code from} inclusive up to {@code to} exclusive, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public void export(long accountId, Instant from, Instant to, StatementExportFormat format, boolean gzip, OutputStream output) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(output, WRITE_BUFFER_SIZE) : output;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        RowWriter rowWriter = format == StatementExportFormat.NDJSON ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+
+        long start = System.nanoTime();
+        long[] rows = new long[1];
+        try {
+            rowWriter.begin();
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(EXPORT_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, accountId);
+                statement.setTimestamp(2, Timestamp.from(from != null ? from : Instant.EPOCH));
+                statement.setTimestamp(3, Timestamp.from(to != null ? to : Instant.now()));
+                return statement;
+            }, resultSet -> {
+                try {
+                    rowWriter.write(resultSet);
+                    rows[0]++;
+                } catch (IOException e) {
+                    // mostly the client went away, stops the cursor and releases the connection
+                    throw new UncheckedIOException(e);
+                }
+            });
+            rowWriter.end();
+        } catch (UncheckedIOException e) {
+            log.warn("Statement export of account {} aborted after {} rows", accountId, rows[0]);
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream compressed) {
+            compressed.finish();
+        }
+        log.info("Exported {} transactions of account {} in {} ms", rows[0], accountId, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private interface RowWriter {
+
+        default void begin() throws IOException {
+        }
+
+        void write(ResultSet row) throws SQLException, IOException;
+
+        default void end() throws IOException {
+        }
+
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            writer.write(Long.toString(row.getLong(1)));
+            writer.write(',');
+            writeField(row.getString(2));
+            writer.write(',');
+            writeField(row.getString(3));
+            writer.write(',');
+            writeField(row.getString(4));
+            writer.write(',');
+            writer.write(row.getBigDecimal(5).toPlainString());
+            writer.write(',');
+            writer.write(row.getTimestamp(6).toInstant().toString());
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // records are separated by the newline written after each of them
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getLong(1));
+            generator.writeStringField("transactionId", row.getString(2));
+            generator.writeStringField("referenceNumber", row.getString(3));
+            generator.writeStringField("transactionType", row.getString(4));
+            generator.writeNumberField("amount", row.getBigDecimal(5));
+            generator.writeStringField("createdDate", row.getTimestamp(6).toInstant().toString());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.flush();
+        }
+
+    }
+
+}
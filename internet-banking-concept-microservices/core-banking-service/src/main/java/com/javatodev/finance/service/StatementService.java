@@ -0,0 +1,95 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.exception.EntityNotFoundException;
+import com.javatodev.finance.exception.InvalidCursorException;
+import com.javatodev.finance.model.dto.response.AccountStatementResponse;
+import com.javatodev.finance.model.dto.response.StatementEntry;
+import com.javatodev.finance.model.projection.AccountIdentity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.TransactionRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Account statements paged by keyset: a page continues strictly after the {@code (createdDate, id)} of the last
+ * transaction of the previous page, so every page costs the same no matter how deep into the history it is.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatementService {
+
+    private final BankAccountRepository bankAccountRepository;
+    private final TransactionRepository transactionRepository;
+
+    @Value("${app.config.statement.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.config.statement.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Reads one page of the account's transactions, newest first, created from {@code from} inclusive up to
+     * {@code to} exclusive. {@code after} is the {@code next} cursor of the previous page.
+     */
+    @Transactional(readOnly = true)
+    public AccountStatementResponse readStatement(String accountNumber, Instant from, Instant to, String after, Integer size) {
+        AccountIdentity account = bankAccountRepository.findIdentityByNumber(accountNumber).orElseThrow(EntityNotFoundException::new);
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+
+        Instant beforeDate = to != null ? to : Instant.now();
+        long beforeId = Long.MIN_VALUE;
+        if (after != null) {
+            Cursor cursor = decode(after);
+            if (cursor.createdDate().isBefore(beforeDate)) {
+                beforeDate = cursor.createdDate();
+                beforeId = cursor.id();
+            }
+        }
+
+        // one extra row tells whether another page follows without a count query
+        List<StatementEntry> entries = transactionRepository.findStatementPage(account.getId(), from != null ? from : Instant.EPOCH,
+            beforeDate, beforeId, PageRequest.of(0, pageSize + 1));
+        String next = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            next = encode(entries.get(pageSize - 1));
+        }
+
+        return AccountStatementResponse.builder()
+            .accountNumber(accountNumber)
+            .transactions(entries)
+            .next(next)
+            .build();
+    }
+
+    private static String encode(StatementEntry entry) {
+        String cursor = entry.getCreatedDate().getEpochSecond() + "." + entry.getCreatedDate().getNano() + "." + entry.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Cursor decode(String after) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.US_ASCII).split("\\.");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected three cursor parts");
+            }
+            return new Cursor(Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid statement cursor " + after);
+        }
+    }
+
+    private record Cursor(Instant createdDate, long id) {
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.exception.ConcurrentUpdateException;
+import com.javatodev.finance.exception.GlobalErrorCode;
+import com.javatodev.finance.model.AccountLockingMode;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a transactional operation and, in optimistic locking mode, re-runs it in a fresh transaction when a
+ * concurrent balance update wins the version check. In every mode it also re-runs operations that timed out
+ * waiting for a row lock or were picked as a deadlock victim, the database rolled them back as a whole. Retries
+ * are bounded and use a small jittered backoff.
+ */
+@Slf4j
+@Component
+public class TransactionRetryExecutor {
+
+    @Value("${app.config.transaction.locking-mode:OPTIMISTIC}")
+    private AccountLockingMode lockingMode;
+
+    @Value("${app.config.transaction.optimistic-retries:3}")
+    private int maxRetries;
+
+    @Value("${app.config.transaction.retry-backoff-millis:10}")
+    private long backoffMillis;
+
+    public <T> T execute(Supplier<T> operation) {
+        int attempt = 0;
+        while (true) {
+            try {
+                return operation.get();
+            } catch (OptimisticLockingFailureException e) {
+                attempt++;
+                if (lockingMode != AccountLockingMode.OPTIMISTIC || attempt > maxRetries) {
+                    log.warn("Giving up after {} concurrent update conflicts", attempt);
+                    throw new ConcurrentUpdateException("Account was updated concurrently. Please retry.", GlobalErrorCode.CONCURRENT_UPDATE);
+                }
+                log.debug("Concurrent update detected, retrying attempt {}", attempt);
+                backoff(attempt);
+            } catch (PessimisticLockingFailureException e) {
+                attempt++;
+                if (attempt > maxRetries) {
+                    log.warn("Giving up after {} lock timeouts or deadlocks", attempt, e);
+                    throw new ConcurrentUpdateException("Account is locked by a concurrent update. Please retry.", GlobalErrorCode.CONCURRENT_UPDATE);
+                }
+                log.debug("Lock timeout or deadlock detected, retrying attempt {}", attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying a concurrent update.", GlobalErrorCode.CONCURRENT_UPDATE);
+        }
+    }
+
+}
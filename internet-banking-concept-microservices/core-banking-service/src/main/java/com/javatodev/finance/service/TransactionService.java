@@ -3,22 +3,42 @@ package com.javatodev.finance.service;
 import com.javatodev.finance.exception.EntityNotFoundException;
 import com.javatodev.finance.exception.GlobalErrorCode;
 import com.javatodev.finance.exception.InsufficientFundsException;
+import com.javatodev.finance.exception.SimpleBankingGlobalException;
+import com.javatodev.finance.model.AccountLockingMode;
+import com.javatodev.finance.model.TransactionStatus;
 import com.javatodev.finance.model.TransactionType;
-import com.javatodev.finance.model.dto.BankAccount;
 import com.javatodev.finance.model.dto.UtilityAccount;
+import com.javatodev.finance.model.dto.request.BatchFundTransferRequest;
 import com.javatodev.finance.model.dto.request.FundTransferRequest;
 import com.javatodev.finance.model.dto.request.UtilityPaymentRequest;
+import com.javatodev.finance.model.dto.response.BatchFundTransferResponse;
+import com.javatodev.finance.model.dto.response.FundTransferItemResponse;
 import com.javatodev.finance.model.dto.response.FundTransferResponse;
 import com.javatodev.finance.model.dto.response.UtilityPaymentResponse;
 import com.javatodev.finance.model.entity.BankAccountEntity;
 import com.javatodev.finance.model.entity.TransactionEntity;
+import com.javatodev.finance.model.projection.AccountIdentity;
 import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.LedgerJournalRepository;
 import com.javatodev.finance.repository.TransactionRepository;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -29,18 +49,18 @@ import lombok.RequiredArgsConstructor;
 public class TransactionService {
 
     private final AccountService accountService;
+    private final BalanceSummaryService balanceSummaryService;
     private final BankAccountRepository bankAccountRepository;
     private final TransactionRepository transactionRepository;
+    private final LedgerJournalRepository ledgerJournalRepository;
+    private final Optional<HotAccountBalances> hotAccountBalances;
 
-    public FundTransferResponse fundTransfer(FundTransferRequest fundTransferRequest) {
-
-        BankAccount fromBankAccount = accountService.readBankAccount(fundTransferRequest.getFromAccount());
-        BankAccount toBankAccount = accountService.readBankAccount(fundTransferRequest.getToAccount());
+    @Value("${app.config.transaction.locking-mode:OPTIMISTIC}")
+    private AccountLockingMode lockingMode;
 
-        //validating account balances
-        validateBalance(fromBankAccount, fundTransferRequest.getAmount());
+    public FundTransferResponse fundTransfer(FundTransferRequest fundTransferRequest) {
 
-        String transactionId = internalFundTransfer(fromBankAccount, toBankAccount, fundTransferRequest.getAmount());
+        String transactionId = internalFundTransfer(fundTransferRequest.getFromAccount(), fundTransferRequest.getToAccount(), fundTransferRequest.getAmount());
         return FundTransferResponse.builder().message("Transaction successfully completed").transactionId(transactionId).build();
 
     }
@@ -48,20 +68,34 @@ public class TransactionService {
     public UtilityPaymentResponse utilPayment(UtilityPaymentRequest utilityPaymentRequest) {
 
         String transactionId = UUID.randomUUID().toString();
+        accountService.evictBankAccounts(List.of(utilityPaymentRequest.getAccount()));
+
+        if (lockingMode == AccountLockingMode.ATOMIC || isHot(utilityPaymentRequest.getAccount())) {
+            accountService.readUtilityAccount(utilityPaymentRequest.getProviderId());
+            AccountIdentity account = readAccountIdentities(utilityPaymentRequest.getAccount()).get(utilityPaymentRequest.getAccount());
+            debit(account, collect(account), utilityPaymentRequest.getAmount());
+            transactionRepository.save(TransactionEntity.builder().transactionType(TransactionType.UTILITY_PAYMENT)
+                .account(bankAccountRepository.getReferenceById(account.getId()))
+                .transactionId(transactionId)
+                .referenceNumber(utilityPaymentRequest.getReferenceNumber())
+                .amount(utilityPaymentRequest.getAmount().negate()).build());
+            return UtilityPaymentResponse.builder().message("Utility payment successfully completed")
+                .transactionId(transactionId).build();
+        }
 
-        BankAccount fromBankAccount = accountService.readBankAccount(utilityPaymentRequest.getAccount());
+        BankAccountEntity fromAccount = readAccount(utilityPaymentRequest.getAccount());
 
         //validating account balances
-        validateBalance(fromBankAccount, utilityPaymentRequest.getAmount());
+        validateBalance(fromAccount, utilityPaymentRequest.getAmount());
 
         UtilityAccount utilityAccount = accountService.readUtilityAccount(utilityPaymentRequest.getProviderId());
 
-        BankAccountEntity fromAccount = bankAccountRepository.findByNumber(fromBankAccount.getNumber()).get();
-
         //we can call third party API to process UTIL payment from payment provider from here.
 
+        BalanceSnapshot balances = BalanceSnapshot.of(fromAccount);
         fromAccount.setActualBalance(fromAccount.getActualBalance().subtract(utilityPaymentRequest.getAmount()));
         fromAccount.setAvailableBalance(fromAccount.getActualBalance().subtract(utilityPaymentRequest.getAmount()));
+        recordBalanceChange(balances);
 
         transactionRepository.save(TransactionEntity.builder().transactionType(TransactionType.UTILITY_PAYMENT)
             .account(fromAccount)
@@ -74,19 +108,185 @@ public class TransactionService {
 
     }
 
-    private void validateBalance(BankAccount bankAccount, BigDecimal amount) {
+    public BatchFundTransferResponse batchFundTransfer(BatchFundTransferRequest batchFundTransferRequest) {
+
+        List<FundTransferRequest> transfers = batchFundTransferRequest.getTransfers();
+        List<FundTransferItemResponse> results = new ArrayList<>(transfers.size());
+
+        // every account of the batch is read once, balance changes are coalesced on the entities and flushed as one update per account
+        Set<String> accountNumbers = new TreeSet<>();
+        transfers.forEach(transfer -> accountNumbers.add(transfer.getFromAccount()));
+        // hot accounts that only receive are not read at all, their credits are summed and go to a balance slot
+        Set<String> slotCreditedNumbers = new TreeSet<>();
+        transfers.forEach(transfer -> {
+            if (!accountNumbers.contains(transfer.getToAccount()) && isHot(transfer.getToAccount())) {
+                slotCreditedNumbers.add(transfer.getToAccount());
+            } else {
+                accountNumbers.add(transfer.getToAccount());
+            }
+        });
+
+        // slots are locked before the account rows, in account id order: the slots of the hot accounts the batch reads
+        // are emptied into their rows, the hot accounts that only receive get a slot reserved for their credits
+        Map<String, AccountIdentity> slotCreditedAccounts = readAccountIdentities(slotCreditedNumbers);
+        Map<String, BigDecimal> swept = new HashMap<>();
+        Map<String, Integer> reservedSlots = new HashMap<>();
+        hotAccountBalances.ifPresent(balances -> {
+            List<AccountIdentity> hotAccounts = new ArrayList<>(slotCreditedAccounts.values());
+            hotAccounts.addAll(readAccountIdentities(accountNumbers.stream().filter(this::isHot).collect(Collectors.toSet())).values());
+            hotAccounts.sort(Comparator.comparing(AccountIdentity::getId));
+            hotAccounts.forEach(account -> {
+                if (slotCreditedAccounts.containsKey(account.getNumber())) {
+                    reservedSlots.put(account.getNumber(), balances.reserveSlot(account));
+                } else {
+                    swept.put(account.getNumber(), balances.collect(account));
+                }
+            });
+        });
+
+        Map<String, BankAccountEntity> accounts = readAccounts(accountNumbers);
+        Map<String, BigDecimal> slotCredits = new TreeMap<>();
+        List<BalanceSnapshot> balances = accounts.values().stream().map(BalanceSnapshot::of).toList();
+        // taken after the snapshots, the summary learns about the swept amounts along with the batch's own changes
+        swept.forEach((accountNumber, amount) -> {
+            BankAccountEntity account = accounts.get(accountNumber);
+            account.setActualBalance(account.getActualBalance().add(amount));
+            account.setAvailableBalance(account.getAvailableBalance().add(amount));
+        });
+
+        List<TransactionEntity> transactions = new ArrayList<>(transfers.size() * 2);
+        Set<String> changedAccounts = new TreeSet<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            FundTransferRequest transfer = transfers.get(i);
+            try {
+                BankAccountEntity fromAccount = accounts.get(transfer.getFromAccount());
+                BankAccountEntity toAccount = accounts.get(transfer.getToAccount());
+                AccountIdentity slotCreditedAccount = slotCreditedAccounts.get(transfer.getToAccount());
+                if (fromAccount == null || (toAccount == null && slotCreditedAccount == null)) {
+                    throw new EntityNotFoundException();
+                }
+
+                validateBalance(fromAccount, transfer.getAmount());
+
+                String transactionId = transactionIdOf(transfer);
+                fromAccount.setActualBalance(fromAccount.getActualBalance().subtract(transfer.getAmount()));
+                fromAccount.setAvailableBalance(fromAccount.getAvailableBalance().subtract(transfer.getAmount()));
+                if (toAccount != null) {
+                    toAccount.setActualBalance(toAccount.getActualBalance().add(transfer.getAmount()));
+                    toAccount.setAvailableBalance(toAccount.getAvailableBalance().add(transfer.getAmount()));
+                } else {
+                    slotCredits.merge(transfer.getToAccount(), transfer.getAmount(), BigDecimal::add);
+                }
+
+                transactions.add(TransactionEntity.builder().transactionType(TransactionType.FUND_TRANSFER)
+                    .referenceNumber(transfer.getToAccount())
+                    .transactionId(transactionId)
+                    .account(fromAccount).amount(transfer.getAmount().negate()).build());
+                transactions.add(TransactionEntity.builder().transactionType(TransactionType.FUND_TRANSFER)
+                    .referenceNumber(transfer.getToAccount())
+                    .transactionId(transactionId)
+                    .account(toAccount != null ? toAccount : bankAccountRepository.getReferenceById(slotCreditedAccount.getId()))
+                    .amount(transfer.getAmount()).build());
+
+                changedAccounts.add(fromAccount.getNumber());
+                changedAccounts.add(transfer.getToAccount());
+                results.add(successItem(i, transactionId));
+            } catch (SimpleBankingGlobalException e) {
+                results.add(failedItem(i, e));
+            }
+        }
+
+        transactionRepository.saveAll(transactions);
+        slotCredits.forEach((accountNumber, amount) ->
+            credit(slotCreditedAccounts.get(accountNumber), reservedSlots.get(accountNumber), amount));
+        balances.forEach(this::recordBalanceChange);
+        accountService.evictBankAccounts(changedAccounts);
+        return batchResponse(results);
+
+    }
+
+    static String transactionIdOf(FundTransferRequest transfer) {
+        return transfer.getTransactionId() != null ? transfer.getTransactionId() : UUID.randomUUID().toString();
+    }
+
+    /**
+     * Those of the given transaction ids that were booked, or accepted by the sharded ledger and not applied yet.
+     */
+    public List<String> readExistingTransactionIds(Collection<String> transactionIds) {
+        // the journal goes first, an entry applied meanwhile is found among the transactions
+        Set<String> existing = new TreeSet<>(ledgerJournalRepository.findTransactionIdsIn(transactionIds));
+        existing.addAll(transactionRepository.findTransactionIdsIn(transactionIds));
+        return List.copyOf(existing);
+    }
+
+    static FundTransferItemResponse successItem(int index, String transactionId) {
+        return FundTransferItemResponse.builder().index(index).status(TransactionStatus.SUCCESS)
+            .transactionId(transactionId).message("Transaction successfully completed").build();
+    }
+
+    static FundTransferItemResponse failedItem(int index, SimpleBankingGlobalException e) {
+        return FundTransferItemResponse.builder().index(index).status(TransactionStatus.FAILED)
+            .code(e.getCode()).message(e.getMessage()).build();
+    }
+
+    static BatchFundTransferResponse batchResponse(List<FundTransferItemResponse> results) {
+        int succeeded = (int) results.stream().filter(result -> result.getStatus() == TransactionStatus.SUCCESS).count();
+        return BatchFundTransferResponse.builder().succeeded(succeeded).failed(results.size() - succeeded).results(results).build();
+    }
+
+    private void validateBalance(BankAccountEntity bankAccount, BigDecimal amount) {
         if (bankAccount.getActualBalance().compareTo(BigDecimal.ZERO) < 0 || bankAccount.getActualBalance().compareTo(amount) < 0) {
             throw new InsufficientFundsException("Insufficient funds in the account " + bankAccount.getNumber(), GlobalErrorCode.INSUFFICIENT_FUNDS);
         }
     }
 
-    public String internalFundTransfer(BankAccount fromBankAccount, BankAccount toBankAccount, BigDecimal amount) {
+    public String internalFundTransfer(String fromAccount, String toAccount, BigDecimal amount) {
 
         String transactionId = UUID.randomUUID().toString();
+        accountService.evictBankAccounts(List.of(fromAccount, toAccount));
+
+        // a credit to a hot account must neither read nor lock its row, the atomic path never does
+        if (lockingMode == AccountLockingMode.ATOMIC || isHot(fromAccount) || isHot(toAccount)) {
+            Map<String, AccountIdentity> accountIds = readAccountIdentities(fromAccount, toAccount);
+            AccountIdentity from = accountIds.get(fromAccount);
+            AccountIdentity to = accountIds.get(toAccount);
+            // slots are locked before the account rows and both in account id order, so neither two opposite transfers
+            // nor a transfer and the hot account consolidator can deadlock
+            BigDecimal swept;
+            Integer slot;
+            if (from.getId() < to.getId()) {
+                swept = collect(from);
+                slot = reserveSlot(to);
+                debit(from, swept, amount);
+                credit(to, slot, amount);
+            } else {
+                slot = reserveSlot(to);
+                swept = collect(from);
+                credit(to, slot, amount);
+                debit(from, swept, amount);
+            }
+
+            transactionRepository.saveAll(List.of(
+                TransactionEntity.builder().transactionType(TransactionType.FUND_TRANSFER)
+                    .referenceNumber(toAccount)
+                    .transactionId(transactionId)
+                    .account(bankAccountRepository.getReferenceById(from.getId())).amount(amount.negate()).build(),
+                TransactionEntity.builder().transactionType(TransactionType.FUND_TRANSFER)
+                    .referenceNumber(toAccount)
+                    .transactionId(transactionId)
+                    .account(bankAccountRepository.getReferenceById(to.getId())).amount(amount).build()));
+            return transactionId;
+        }
 
-        BankAccountEntity fromBankAccountEntity = bankAccountRepository.findByNumber(fromBankAccount.getNumber()).orElseThrow(EntityNotFoundException::new);
-        BankAccountEntity toBankAccountEntity = bankAccountRepository.findByNumber(toBankAccount.getNumber()).orElseThrow(EntityNotFoundException::new);
+        Map<String, BankAccountEntity> accounts = readAccounts(fromAccount, toAccount);
+        BankAccountEntity fromBankAccountEntity = accounts.get(fromAccount);
+        BankAccountEntity toBankAccountEntity = accounts.get(toAccount);
 
+        //validating account balances
+        validateBalance(fromBankAccountEntity, amount);
+
+        BalanceSnapshot fromBalances = BalanceSnapshot.of(fromBankAccountEntity);
+        BalanceSnapshot toBalances = BalanceSnapshot.of(toBankAccountEntity);
         fromBankAccountEntity.setActualBalance(fromBankAccountEntity.getActualBalance().subtract(amount));
         fromBankAccountEntity.setAvailableBalance(fromBankAccountEntity.getActualBalance().subtract(amount));
         bankAccountRepository.save(fromBankAccountEntity);
@@ -105,8 +305,118 @@ public class TransactionService {
             .transactionId(transactionId)
             .account(toBankAccountEntity).amount(amount).build());
 
+        recordBalanceChange(fromBalances);
+        recordBalanceChange(toBalances);
         return transactionId;
 
     }
 
+    /**
+     * Debits the account with a guarded update, after adding what was collected from its balance slots to the row.
+     */
+    private void debit(AccountIdentity account, BigDecimal swept, BigDecimal amount) {
+        // a debit checks the account row only, the balance waiting in the slots has to be moved there first
+        if (swept.signum() != 0) {
+            bankAccountRepository.credit(account.getId(), swept);
+        }
+        // the guarded update only touches the row when the balance covers the amount
+        if (bankAccountRepository.debit(account.getId(), amount) == 0) {
+            throw new InsufficientFundsException("Insufficient funds in the account " + account.getNumber(), GlobalErrorCode.INSUFFICIENT_FUNDS);
+        }
+        balanceSummaryService.recordChange(account.getUserId(), swept.subtract(amount), swept.subtract(amount));
+    }
+
+    /**
+     * Credits the account row, or the given balance slot of a hot account. Slot credits stay out of the balance summary
+     * until they are swept into the row, so the merchant's summary row is not a lock every credit waits for.
+     */
+    private void credit(AccountIdentity account, Integer slot, BigDecimal amount) {
+        if (slot != null) {
+            hotAccountBalances.get().credit(account, slot, amount);
+        } else {
+            bankAccountRepository.credit(account.getId(), amount);
+            balanceSummaryService.recordChange(account.getUserId(), amount, amount);
+        }
+    }
+
+    private boolean isHot(String accountNumber) {
+        return hotAccountBalances.map(balances -> balances.isHot(accountNumber)).orElse(false);
+    }
+
+    private BigDecimal collect(AccountIdentity account) {
+        return hotAccountBalances.map(balances -> balances.collect(account)).orElse(BigDecimal.ZERO);
+    }
+
+    private Integer reserveSlot(AccountIdentity account) {
+        return hotAccountBalances.filter(balances -> balances.isHot(account.getNumber()))
+            .map(balances -> balances.reserveSlot(account)).orElse(null);
+    }
+
+    private void recordBalanceChange(BalanceSnapshot balances) {
+        BankAccountEntity account = balances.account();
+        // the id of a lazy user proxy is read without loading the user
+        balanceSummaryService.recordChange(account.getUser() != null ? account.getUser().getId() : null,
+            account.getActualBalance().subtract(balances.actualBalance()),
+            account.getAvailableBalance().subtract(balances.availableBalance()));
+    }
+
+    private Map<String, AccountIdentity> readAccountIdentities(Set<String> accountNumbers) {
+        if (accountNumbers.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, AccountIdentity> accounts = new HashMap<>();
+        bankAccountRepository.findIdentitiesByNumberIn(accountNumbers).forEach(identity -> accounts.put(identity.getNumber(), identity));
+        return accounts;
+    }
+
+    private Map<String, AccountIdentity> readAccountIdentities(String... accountNumbers) {
+        Map<String, AccountIdentity> accountIds = new HashMap<>();
+        bankAccountRepository.findIdentitiesByNumberIn(Arrays.asList(accountNumbers))
+            .forEach(identity -> accountIds.put(identity.getNumber(), identity));
+        for (String accountNumber : accountNumbers) {
+            if (!accountIds.containsKey(accountNumber)) {
+                throw new EntityNotFoundException();
+            }
+        }
+        return accountIds;
+    }
+
+    private Map<String, BankAccountEntity> readAccounts(Collection<String> accountNumbers) {
+        // locked in account id order, like the guarded updates and the flushed entity updates
+        List<BankAccountEntity> entities = lockingMode == AccountLockingMode.PESSIMISTIC
+            ? bankAccountRepository.findByNumberInForUpdate(accountNumbers)
+            : bankAccountRepository.findByNumberIn(accountNumbers);
+        Map<String, BankAccountEntity> accounts = new HashMap<>(entities.size() * 2);
+        entities.forEach(entity -> accounts.put(entity.getNumber(), entity));
+        return accounts;
+    }
+
+    private Map<String, BankAccountEntity> readAccounts(String... accountNumbers) {
+        Map<String, BankAccountEntity> accounts = readAccounts(Arrays.asList(accountNumbers));
+        for (String accountNumber : accountNumbers) {
+            if (!accounts.containsKey(accountNumber)) {
+                throw new EntityNotFoundException();
+            }
+        }
+        return accounts;
+    }
+
+    private BankAccountEntity readAccount(String accountNumber) {
+        Optional<BankAccountEntity> account = lockingMode == AccountLockingMode.PESSIMISTIC
+            ? bankAccountRepository.findByNumberForUpdate(accountNumber)
+            : bankAccountRepository.findByNumber(accountNumber);
+        return account.orElseThrow(EntityNotFoundException::new);
+    }
+
+    /**
+     * Balances of an account before a posting, the difference afterwards goes into the user's balance summary.
+     */
+    private record BalanceSnapshot(BankAccountEntity account, BigDecimal actualBalance, BigDecimal availableBalance) {
+
+        static BalanceSnapshot of(BankAccountEntity account) {
+            return new BalanceSnapshot(account, account.getActualBalance(), account.getAvailableBalance());
+        }
+
+    }
+
 }
@@ -1,15 +1,22 @@
 package com.javatodev.finance.service;
 
 import com.javatodev.finance.exception.EntityNotFoundException;
+import com.javatodev.finance.model.dto.BankAccount;
 import com.javatodev.finance.model.dto.User;
-import com.javatodev.finance.model.entity.UserEntity;
-import com.javatodev.finance.model.mapper.UserMapper;
+import com.javatodev.finance.model.dto.response.CursorPage;
+import com.javatodev.finance.model.projection.UserAccountRow;
 import com.javatodev.finance.repository.UserRepository;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import lombok.RequiredArgsConstructor;
 
@@ -17,16 +24,64 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class UserService {
 
-    private UserMapper userMapper = new UserMapper();
-
     private final UserRepository userRepository;
+    private final Optional<HotAccountBalances> hotAccountBalances;
 
+    @Transactional(readOnly = true)
     public User readUser(String identification) {
-        UserEntity userEntity = userRepository.findByIdentificationNumber(identification).orElseThrow(EntityNotFoundException::new);
-        return userMapper.convertToDto(userEntity);
+        List<User> users = toUsers(userRepository.findUserAccountRows(identification), List.of());
+        if (users.isEmpty()) {
+            throw new EntityNotFoundException();
+        }
+        return users.get(0);
     }
 
+    @Transactional(readOnly = true)
     public List<User> readUsers(Pageable pageable) {
-        return userMapper.convertToDtoList(userRepository.findAll(pageable).getContent());
+        // a slice reads one row more instead of counting the whole table
+        List<Long> userIds = userRepository.findIds(pageable).getContent();
+        return readUsers(userIds);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<User> readUsers(String after, int size) {
+        List<Long> userIds = userRepository.findIdsAfter(CursorPage.afterId(after), PageRequest.of(0, size + 1));
+        return CursorPage.of(readUsers(userIds), size, User::getId);
+    }
+
+    private List<User> readUsers(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return toUsers(userRepository.findUserAccountRowsByUserIdIn(userIds), userIds);
+    }
+
+    /**
+     * Folds the joined rows into users in the given id order, or in row order when no order is given.
+     */
+    private List<User> toUsers(List<UserAccountRow> rows, List<Long> order) {
+        Map<Long, User> users = new LinkedHashMap<>();
+        order.forEach(userId -> users.put(userId, null));
+        for (UserAccountRow row : rows) {
+            User user = users.get(row.userId());
+            if (user == null) {
+                user = new User();
+                user.setId(row.userId());
+                user.setFirstName(row.firstName());
+                user.setLastName(row.lastName());
+                user.setEmail(row.email());
+                user.setIdentificationNumber(row.identificationNumber());
+                user.setBankAccounts(new ArrayList<>());
+                users.put(row.userId(), user);
+            }
+            if (row.accountId() != null) {
+                user.getBankAccounts().add(new BankAccount(row.accountId(), row.number(), row.type(), row.status(),
+                    row.availableBalance(), row.actualBalance()));
+            }
+        }
+        List<User> result = users.values().stream().filter(user -> user != null).toList();
+        // same transaction as the rows above, the slots are read from the same snapshot
+        hotAccountBalances.ifPresent(balances -> result.forEach(user -> balances.overlay(user.getBankAccounts())));
+        return result;
     }
 }
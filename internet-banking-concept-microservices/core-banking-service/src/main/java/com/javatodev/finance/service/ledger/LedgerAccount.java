@@ -0,0 +1,33 @@
+package com.javatodev.finance.service.ledger;
+
+import java.math.BigDecimal;
+
+import lombok.Getter;
+
+/**
+ * In-memory balance state of a single account owned by one {@link LedgerShard}.
+ * Only the owning shard thread mutates it, other threads may read the published balances.
+ */
+@Getter
+public class LedgerAccount {
+
+    private final Long id;
+    private final String number;
+    private final Long userId;
+    private volatile BigDecimal actualBalance;
+    private volatile BigDecimal availableBalance;
+
+    LedgerAccount(Long id, String number, Long userId, BigDecimal actualBalance, BigDecimal availableBalance) {
+        this.id = id;
+        this.number = number;
+        this.userId = userId;
+        this.actualBalance = actualBalance;
+        this.availableBalance = availableBalance;
+    }
+
+    void apply(BigDecimal amount) {
+        actualBalance = actualBalance.add(amount);
+        availableBalance = availableBalance.add(amount);
+    }
+
+}
@@ -0,0 +1,259 @@
+package com.javatodev.finance.service.ledger;
+
+import com.javatodev.finance.model.LedgerEntryStatus;
+import com.javatodev.finance.model.entity.LedgerJournalEntryEntity;
+import com.javatodev.finance.model.entity.TransactionEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.LedgerJournalRepository;
+import com.javatodev.finance.repository.TransactionRepository;
+import com.javatodev.finance.service.BalanceSummaryService;
+
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Journal of the sharded ledger. Every transfer is written to {@code banking_core_ledger_journal}, both legs in one
+ * row, before it is acknowledged. A single writer thread then applies the entries in batches: the transaction rows,
+ * one relative balance update per touched account and the balance summaries, and removes the entries, all in one
+ * transaction. Entries left over by a crash are applied on the next start, before the shards take any transfer.
+ * <p>
+ * A batch that fails on something a retry cannot fix is split up, the entries failing on their own are marked
+ * {@code FAILED} and kept for reconciliation instead of blocking the journal.
+ */
+@Slf4j
+public class LedgerJournal {
+
+    private static final long RETRY_BACKOFF_MILLIS = 500;
+    private static final int MAX_FAILURE_REASON_LENGTH = 1024;
+
+    private final BlockingQueue<LedgerJournalEntryEntity> queue = new LinkedBlockingQueue<>();
+    private final BankAccountRepository bankAccountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerJournalRepository ledgerJournalRepository;
+    private final BalanceSummaryService balanceSummaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerLease lease;
+    private final int batchSize;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    LedgerJournal(BankAccountRepository bankAccountRepository, TransactionRepository transactionRepository,
+                  LedgerJournalRepository ledgerJournalRepository, BalanceSummaryService balanceSummaryService,
+                  TransactionTemplate transactionTemplate, LedgerLease lease, int batchSize) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerJournalRepository = ledgerJournalRepository;
+        this.balanceSummaryService = balanceSummaryService;
+        this.transactionTemplate = transactionTemplate;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.writer = new Thread(this::drain, "ledger-journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Applies the entries a previous run left behind and starts the writer.
+     */
+    void start() {
+        List<LedgerJournalEntryEntity> pending = ledgerJournalRepository.findByStatusOrderById(LedgerEntryStatus.PENDING);
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} ledger journal entries", pending.size());
+        }
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            if (!apply(new ArrayList<>(pending.subList(from, Math.min(from + batchSize, pending.size()))))) {
+                throw new IllegalStateException("Ledger lease lost while replaying the journal");
+            }
+        }
+        writer.start();
+    }
+
+    /**
+     * Writes the entry in a transaction of its own. Once this returns the transfer survives a crash.
+     */
+    void record(LedgerJournalEntryEntity entry) {
+        entry.setStatus(LedgerEntryStatus.PENDING);
+        transactionTemplate.executeWithoutResult(status -> ledgerJournalRepository.save(entry));
+    }
+
+    /**
+     * Hands a recorded entry to the writer.
+     */
+    void submit(LedgerJournalEntryEntity entry) {
+        queue.add(entry);
+    }
+
+    void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Ledger journal stopped with {} entries left, they are applied on the next start", queue.size());
+        }
+    }
+
+    private void drain() {
+        List<LedgerJournalEntryEntity> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LedgerJournalEntryEntity first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (lease.isDue()) {
+                        extendLease();
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!apply(batch)) {
+                    log.error("Ledger journal stopped, its entries are left to the instance owning the ledger now");
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applies the batch, retrying until it is done or the journal stops. Returns false once the lease is lost.
+     */
+    private boolean apply(List<LedgerJournalEntryEntity> batch) {
+        boolean isolate = false;
+        while (!batch.isEmpty()) {
+            try {
+                if (isolate) {
+                    applyEach(batch);
+                } else {
+                    persist(batch);
+                    batch.clear();
+                }
+            } catch (LeaseLostException e) {
+                return false;
+            } catch (RuntimeException e) {
+                if (!isolate && isPoison(e)) {
+                    log.warn("Failed to persist {} ledger journal entries, applying them one by one", batch.size(), e);
+                    isolate = true;
+                    continue;
+                }
+                if (!running || Thread.currentThread().isInterrupted()) {
+                    log.error("Failed to persist {} ledger journal entries, leaving them for the next start", batch.size(), e);
+                    batch.clear();
+                    return true;
+                }
+                log.error("Failed to persist {} ledger journal entries, retrying", batch.size(), e);
+                sleepQuietly();
+            }
+        }
+        return true;
+    }
+
+    private void applyEach(List<LedgerJournalEntryEntity> batch) {
+        Iterator<LedgerJournalEntryEntity> entries = batch.iterator();
+        while (entries.hasNext()) {
+            LedgerJournalEntryEntity entry = entries.next();
+            try {
+                persist(List.of(entry));
+            } catch (RuntimeException e) {
+                if (!isPoison(e)) {
+                    throw e;
+                }
+                deadLetter(entry, e);
+            }
+            entries.remove();
+        }
+    }
+
+    private void persist(List<LedgerJournalEntryEntity> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!lease.extend()) {
+                throw new LeaseLostException();
+            }
+
+            List<TransactionEntity> transactions = new ArrayList<>(batch.size() * 2);
+            // net change per account, applied in account id order like every other balance update
+            Map<Long, BigDecimal> changes = new TreeMap<>();
+            for (LedgerJournalEntryEntity entry : batch) {
+                transactions.add(transaction(entry, entry.getDebitAccountId(), entry.getAmount().negate()));
+                changes.merge(entry.getDebitAccountId(), entry.getAmount().negate(), BigDecimal::add);
+                balanceSummaryService.recordChange(entry.getDebitUserId(), entry.getAmount().negate(), entry.getAmount().negate());
+                if (entry.getCreditAccountId() != null) {
+                    transactions.add(transaction(entry, entry.getCreditAccountId(), entry.getAmount()));
+                    changes.merge(entry.getCreditAccountId(), entry.getAmount(), BigDecimal::add);
+                    balanceSummaryService.recordChange(entry.getCreditUserId(), entry.getAmount(), entry.getAmount());
+                }
+            }
+
+            // relative updates leave whatever else changed the rows meanwhile intact, the net change may be negative
+            changes.forEach((accountId, amount) -> {
+                if (amount.signum() != 0) {
+                    bankAccountRepository.credit(accountId, amount);
+                }
+            });
+            transactionRepository.saveAll(transactions);
+            ledgerJournalRepository.deleteAllByIdInBatch(batch.stream().map(LedgerJournalEntryEntity::getId).toList());
+        });
+    }
+
+    private TransactionEntity transaction(LedgerJournalEntryEntity entry, Long accountId, BigDecimal amount) {
+        return TransactionEntity.builder()
+            .transactionType(entry.getTransactionType())
+            .referenceNumber(entry.getReferenceNumber())
+            .transactionId(entry.getTransactionId())
+            .account(bankAccountRepository.getReferenceById(accountId))
+            .amount(amount).build();
+    }
+
+    private void deadLetter(LedgerJournalEntryEntity entry, RuntimeException e) {
+        log.error("Ledger journal entry {} of transaction {} cannot be applied, marked failed for reconciliation",
+            entry.getId(), entry.getTransactionId(), e);
+        String reason = String.valueOf(e.getMessage());
+        String truncated = reason.substring(0, Math.min(reason.length(), MAX_FAILURE_REASON_LENGTH));
+        transactionTemplate.executeWithoutResult(status -> ledgerJournalRepository.markFailed(entry.getId(), truncated));
+    }
+
+    private void extendLease() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> lease.extend());
+        } catch (RuntimeException e) {
+            log.warn("Failed to extend the ledger lease", e);
+        }
+    }
+
+    /**
+     * Failures that come back on every retry, like a constraint violation. Lost connections and lock timeouts are
+     * retried instead.
+     */
+    private static boolean isPoison(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof NonTransientDataAccessResourceException);
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.javatodev.finance.service.ledger;
+
+import com.javatodev.finance.model.entity.LedgerLeaseEntity;
+import com.javatodev.finance.repository.LedgerLeaseRepository;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exclusive ownership of the sharded ledger. The shards keep the authoritative balances in memory, so only one
+ * instance may run them: the one holding the {@code banking_core_ledger_lease} row. The lease is extended by the
+ * journal writer, inside every batch it applies, which fences a former owner out as soon as someone else took over.
+ * <p>
+ * Transfers are only accepted while the last extension is younger than half the lease duration, so an owner that
+ * can no longer reach the database stops well before another instance may take the lease.
+ */
+@Slf4j
+class LedgerLease {
+
+    static final String NAME = "ledger";
+
+    private final String owner = UUID.randomUUID().toString();
+    private final LedgerLeaseRepository ledgerLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration duration;
+
+    private volatile long validUntilNanos;
+    private volatile boolean lost;
+
+    LedgerLease(LedgerLeaseRepository ledgerLeaseRepository, TransactionTemplate transactionTemplate, Duration duration) {
+        this.ledgerLeaseRepository = ledgerLeaseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.duration = duration;
+    }
+
+    /**
+     * Takes the lease on startup, refusing to run the ledger while another instance holds it.
+     */
+    void acquire() {
+        createIfMissing();
+        if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> extend()))) {
+            throw new IllegalStateException("The sharded ledger is owned by another instance, it can only run on one");
+        }
+        log.info("Ledger lease {} acquired", owner);
+    }
+
+    /**
+     * Extends the lease within the caller's transaction. Returns false once another instance owns it, from then on
+     * this instance must not write anything on behalf of the ledger.
+     */
+    boolean extend() {
+        if (lost) {
+            return false;
+        }
+        long startedNanos = System.nanoTime();
+        Instant now = Instant.now();
+        if (ledgerLeaseRepository.acquire(NAME, owner, now, now.plus(duration)) == 0) {
+            lost = true;
+            log.error("Ledger lease {} was taken over by another instance", owner);
+            return false;
+        }
+        validUntilNanos = startedNanos + duration.toNanos() / 2;
+        return true;
+    }
+
+    boolean isDue() {
+        return validUntilNanos - System.nanoTime() < duration.toNanos() / 4;
+    }
+
+    boolean isValid() {
+        return !lost && validUntilNanos - System.nanoTime() > 0;
+    }
+
+    void release() {
+        if (!lost) {
+            transactionTemplate.executeWithoutResult(status -> ledgerLeaseRepository.release(NAME, owner));
+        }
+    }
+
+    private void createIfMissing() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!ledgerLeaseRepository.existsById(NAME)) {
+                    LedgerLeaseEntity lease = new LedgerLeaseEntity();
+                    lease.setName(NAME);
+                    ledgerLeaseRepository.save(lease);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another instance created it at the same time
+            log.debug("Ledger lease row already created");
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.javatodev.finance.service.ledger;
+
+import com.javatodev.finance.exception.EntityNotFoundException;
+import com.javatodev.finance.exception.GlobalErrorCode;
+import com.javatodev.finance.exception.InsufficientFundsException;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single writer partition of the ledger. Every balance change for the accounts hashed onto this shard
+ * runs on the shard thread, so no row locks are needed to keep the in-memory balances consistent.
+ */
+@Slf4j
+public class LedgerShard {
+
+    private final int index;
+    private final BankAccountRepository bankAccountRepository;
+    private final ExecutorService executor;
+    private final Map<String, LedgerAccount> accounts = new ConcurrentHashMap<>();
+
+    LedgerShard(int index, BankAccountRepository bankAccountRepository) {
+        this.index = index;
+        this.bankAccountRepository = bankAccountRepository;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-shard-" + index);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<LedgerAccount> load(String accountNumber) {
+        return CompletableFuture.supplyAsync(() -> resolve(accountNumber), executor);
+    }
+
+    /**
+     * Applies the amount to the in-memory balances, a debit only when the balance covers it. The journal entry is
+     * the caller's business.
+     */
+    public CompletableFuture<LedgerAccount> post(String accountNumber, BigDecimal amount) {
+        return CompletableFuture.supplyAsync(() -> {
+            LedgerAccount account = resolve(accountNumber);
+
+            if (amount.signum() < 0) {
+                validateBalance(account, amount.negate());
+            }
+
+            account.apply(amount);
+            return account;
+        }, executor);
+    }
+
+    public LedgerAccount peek(String accountNumber) {
+        return accounts.get(accountNumber);
+    }
+
+    void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Ledger shard {} did not drain within timeout", index);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private LedgerAccount resolve(String accountNumber) {
+        LedgerAccount account = accounts.get(accountNumber);
+        if (account == null) {
+            BankAccountEntity entity = bankAccountRepository.findByNumber(accountNumber).orElseThrow(EntityNotFoundException::new);
+            Long userId = entity.getUser() != null ? entity.getUser().getId() : null;
+            account = new LedgerAccount(entity.getId(), entity.getNumber(), userId, entity.getActualBalance(), entity.getAvailableBalance());
+            accounts.put(accountNumber, account);
+        }
+        return account;
+    }
+
+    private void validateBalance(LedgerAccount account, BigDecimal amount) {
+        if (account.getActualBalance().compareTo(BigDecimal.ZERO) < 0 || account.getActualBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException("Insufficient funds in the account " + account.getNumber(), GlobalErrorCode.INSUFFICIENT_FUNDS);
+        }
+    }
+
+}
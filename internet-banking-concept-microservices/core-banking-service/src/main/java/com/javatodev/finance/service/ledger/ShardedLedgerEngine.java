@@ -0,0 +1,190 @@
+package com.javatodev.finance.service.ledger;
+
+import com.javatodev.finance.exception.LedgerUnavailableException;
+import com.javatodev.finance.exception.SimpleBankingGlobalException;
+import com.javatodev.finance.model.TransactionType;
+import com.javatodev.finance.model.dto.BankAccount;
+import com.javatodev.finance.model.entity.LedgerJournalEntryEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.LedgerJournalRepository;
+import com.javatodev.finance.repository.LedgerLeaseRepository;
+import com.javatodev.finance.repository.TransactionRepository;
+import com.javatodev.finance.service.BalanceSummaryService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional ledger engine enabled with {@code app.config.ledger.mode=sharded}. Accounts are partitioned by
+ * account number hash onto single writer shards which apply debits and credits in memory. Each transfer is
+ * written to the {@link LedgerJournal} before it is acknowledged, which applies it to the accounts behind it.
+ * <p>
+ * The in-memory balances decide whether a debit goes through, so the engine only runs on the instance holding
+ * the {@link LedgerLease}, and every instance has to run in this mode. Startup fails while another instance
+ * holds the lease.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.config.ledger.mode", havingValue = "sharded")
+public class ShardedLedgerEngine {
+
+    private final BankAccountRepository bankAccountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerJournalRepository ledgerJournalRepository;
+    private final LedgerLeaseRepository ledgerLeaseRepository;
+    private final BalanceSummaryService balanceSummaryService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.config.ledger.shards:8}")
+    private int shardCount;
+
+    @Value("${app.config.ledger.journal-batch-size:500}")
+    private int journalBatchSize;
+
+    @Value("${app.config.ledger.lease-duration:30s}")
+    private Duration leaseDuration;
+
+    private LedgerShard[] shards;
+    private LedgerLease lease;
+    private LedgerJournal journal;
+
+    @PostConstruct
+    void start() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        lease = new LedgerLease(ledgerLeaseRepository, transactionTemplate, leaseDuration);
+        lease.acquire();
+        journal = new LedgerJournal(bankAccountRepository, transactionRepository, ledgerJournalRepository,
+            balanceSummaryService, transactionTemplate, lease, journalBatchSize);
+        journal.start();
+
+        shards = new LedgerShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LedgerShard(i, bankAccountRepository);
+        }
+        log.info("Sharded ledger engine started with {} shards", shardCount);
+    }
+
+    @PreDestroy
+    void stop() {
+        for (LedgerShard shard : shards) {
+            shard.shutdown();
+        }
+        journal.stop();
+        lease.release();
+    }
+
+    public String transfer(String fromAccount, String toAccount, BigDecimal amount) {
+        return transfer(UUID.randomUUID().toString(), fromAccount, toAccount, amount);
+    }
+
+    public String transfer(String transactionId, String fromAccount, String toAccount, BigDecimal amount) {
+        checkLease();
+
+        // make sure the credit side exists before any money leaves the debit side, the credit itself cannot fail afterwards
+        LedgerAccount creditAccount = await(shardOf(toAccount).load(toAccount));
+        LedgerAccount debitAccount = await(shardOf(fromAccount).post(fromAccount, amount.negate()));
+        LedgerJournalEntryEntity entry = LedgerJournalEntryEntity.builder()
+            .transactionId(transactionId)
+            .transactionType(TransactionType.FUND_TRANSFER)
+            .referenceNumber(toAccount)
+            .debitAccountId(debitAccount.getId())
+            .debitUserId(debitAccount.getUserId())
+            .creditAccountId(creditAccount.getId())
+            .creditUserId(creditAccount.getUserId())
+            .amount(amount).build();
+        record(entry, fromAccount);
+        // the credit is only spendable once the transfer is durable
+        await(shardOf(toAccount).post(toAccount, amount));
+        journal.submit(entry);
+
+        return transactionId;
+    }
+
+    public String payment(String fromAccount, BigDecimal amount, String referenceNumber) {
+        checkLease();
+        String transactionId = UUID.randomUUID().toString();
+
+        LedgerAccount debitAccount = await(shardOf(fromAccount).post(fromAccount, amount.negate()));
+        LedgerJournalEntryEntity entry = LedgerJournalEntryEntity.builder()
+            .transactionId(transactionId)
+            .transactionType(TransactionType.UTILITY_PAYMENT)
+            .referenceNumber(referenceNumber)
+            .debitAccountId(debitAccount.getId())
+            .debitUserId(debitAccount.getUserId())
+            .amount(amount).build();
+        record(entry, fromAccount);
+        journal.submit(entry);
+
+        return transactionId;
+    }
+
+    /**
+     * Overlays the in-memory balances on an account read from the database, since the journal may not have
+     * caught up with the shard yet. The given account may be a shared cached instance, so a copy is returned.
+     */
+    public BankAccount overlay(BankAccount bankAccount) {
+        LedgerAccount ledgerAccount = shardOf(bankAccount.getNumber()).peek(bankAccount.getNumber());
+        if (ledgerAccount == null) {
+            return bankAccount;
+        }
+
+        BankAccount overlaid = new BankAccount();
+        overlaid.setId(bankAccount.getId());
+        overlaid.setNumber(bankAccount.getNumber());
+        overlaid.setType(bankAccount.getType());
+        overlaid.setStatus(bankAccount.getStatus());
+        overlaid.setUser(bankAccount.getUser());
+        overlaid.setActualBalance(ledgerAccount.getActualBalance());
+        overlaid.setAvailableBalance(ledgerAccount.getAvailableBalance());
+        return overlaid;
+    }
+
+    private void checkLease() {
+        if (!lease.isValid()) {
+            throw new LedgerUnavailableException("Ledger is not available on this instance. Please retry.");
+        }
+    }
+
+    /**
+     * Writes the journal entry, giving the amount back to the debited account when that fails.
+     */
+    private void record(LedgerJournalEntryEntity entry, String debitAccount) {
+        try {
+            journal.record(entry);
+        } catch (RuntimeException e) {
+            await(shardOf(debitAccount).post(debitAccount, entry.getAmount()));
+            throw e;
+        }
+    }
+
+    private LedgerShard shardOf(String accountNumber) {
+        return shards[Math.floorMod(accountNumber.hashCode(), shards.length)];
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SimpleBankingGlobalException globalException) {
+                throw globalException;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,4 @@
+-- optimistic locking version for banking_core_account
+
+ALTER TABLE `banking_core_account`
+    ADD COLUMN `version` bigint(20) NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- banking_core_service.banking_core_id_sequence definition
+-- pooled id allocation for ledger rows, so hibernate can batch the inserts
+
+CREATE TABLE `banking_core_id_sequence` (
+    `sequence_name` varchar(255) NOT NULL,
+    `next_val`      bigint(20) DEFAULT NULL,
+    PRIMARY KEY (`sequence_name`)
+);
+
+-- the pooled optimizer hands out (next_val - 49 .. next_val), start above the rows written with AUTO_INCREMENT
+INSERT INTO banking_core_id_sequence (sequence_name, next_val)
+SELECT 'banking_core_transaction', COALESCE(MAX(id), 0) + 50
+FROM banking_core_transaction;
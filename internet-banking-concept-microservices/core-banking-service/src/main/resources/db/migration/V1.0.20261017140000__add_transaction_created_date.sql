@@ -0,0 +1,5 @@
+-- transactions are read per account, newest first, for statements
+
+ALTER TABLE `banking_core_transaction`
+    ADD COLUMN `created_date` datetime(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    ADD KEY `idx_banking_core_transaction_account_created` (`account_id`, `created_date`, `id`);
@@ -0,0 +1,17 @@
+-- banking_core_service.banking_core_user_balance_summary definition
+-- balance totals per user, maintained with every posting, so the dashboard reads a single row
+
+CREATE TABLE `banking_core_user_balance_summary` (
+    `user_id`                 bigint(20)     NOT NULL,
+    `account_count`           bigint(20)     NOT NULL DEFAULT 0,
+    `total_actual_balance`    decimal(19, 2) NOT NULL DEFAULT 0,
+    `total_available_balance` decimal(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (`user_id`),
+    CONSTRAINT `fk_banking_core_user_balance_summary_user` FOREIGN KEY (`user_id`) REFERENCES `banking_core_user` (`id`)
+);
+
+INSERT INTO banking_core_user_balance_summary (user_id, account_count, total_actual_balance, total_available_balance)
+SELECT u.id, COUNT(a.id), COALESCE(SUM(a.actual_balance), 0), COALESCE(SUM(a.available_balance), 0)
+FROM banking_core_user u
+    LEFT JOIN banking_core_account a ON a.user_id = u.id
+GROUP BY u.id;
@@ -0,0 +1,13 @@
+-- banking_core_service.banking_core_account_balance_slot definition
+-- credits to hot accounts are spread over these rows instead of all waiting for the account row
+
+CREATE TABLE `banking_core_account_balance_slot` (
+    `id`                bigint(20)     NOT NULL AUTO_INCREMENT,
+    `account_id`        bigint(20)     NOT NULL,
+    `slot`              int(11)        NOT NULL,
+    `actual_balance`    decimal(19, 2) NOT NULL DEFAULT 0,
+    `available_balance` decimal(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_banking_core_account_balance_slot` (`account_id`, `slot`),
+    CONSTRAINT `fk_banking_core_account_balance_slot_account` FOREIGN KEY (`account_id`) REFERENCES `banking_core_account` (`id`)
+);
@@ -0,0 +1,31 @@
+-- banking_core_service.banking_core_ledger_journal definition
+-- transfers accepted by the sharded ledger, written before they are acknowledged and removed once applied to the accounts
+
+CREATE TABLE `banking_core_ledger_journal` (
+    `id`                bigint(20)     NOT NULL AUTO_INCREMENT,
+    `transaction_id`    varchar(255)   NOT NULL,
+    `transaction_type`  varchar(255)   NOT NULL,
+    `reference_number`  varchar(255)   DEFAULT NULL,
+    `debit_account_id`  bigint(20)     NOT NULL,
+    `debit_user_id`     bigint(20)     DEFAULT NULL,
+    `credit_account_id` bigint(20)     DEFAULT NULL,
+    `credit_user_id`    bigint(20)     DEFAULT NULL,
+    `amount`            decimal(19, 2) NOT NULL,
+    `status`            varchar(32)    NOT NULL,
+    `failure_reason`    varchar(1024)  DEFAULT NULL,
+    `created_date`      datetime(6)    NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (`id`),
+    KEY `idx_banking_core_ledger_journal_status` (`status`, `id`)
+);
+
+-- banking_core_service.banking_core_ledger_lease definition
+-- only the instance holding the lease runs the sharded ledger
+
+CREATE TABLE `banking_core_ledger_lease` (
+    `name`       varchar(64)  NOT NULL,
+    `owner`      varchar(64)  DEFAULT NULL,
+    `expires_at` datetime(6)  DEFAULT NULL,
+    PRIMARY KEY (`name`)
+);
+
+INSERT INTO banking_core_ledger_lease (name) VALUES ('ledger');
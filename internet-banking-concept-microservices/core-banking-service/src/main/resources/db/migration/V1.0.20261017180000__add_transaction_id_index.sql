@@ -0,0 +1,7 @@
+-- callers look transfers up by the transaction id they assigned when they did not get the response
+
+ALTER TABLE `banking_core_transaction`
+    ADD KEY `idx_banking_core_transaction_transaction_id` (`transaction_id`);
+
+ALTER TABLE `banking_core_ledger_journal`
+    ADD KEY `idx_banking_core_ledger_journal_transaction_id` (`transaction_id`);
@@ -0,0 +1,54 @@
+package com.javatodev.finance;
+
+import com.javatodev.finance.model.AccountStatus;
+import com.javatodev.finance.model.AccountType;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.model.entity.UserEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Creates users and accounts for tests running against the in-memory database.
+ */
+public class TestAccounts {
+
+    private final UserRepository userRepository;
+    private final BankAccountRepository bankAccountRepository;
+
+    public TestAccounts(UserRepository userRepository, BankAccountRepository bankAccountRepository) {
+        this.userRepository = userRepository;
+        this.bankAccountRepository = bankAccountRepository;
+    }
+
+    public UserEntity user() {
+        UserEntity user = new UserEntity();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail("test@javatodev.com");
+        user.setIdentificationNumber(UUID.randomUUID().toString());
+        return userRepository.save(user);
+    }
+
+    public BankAccountEntity account(UserEntity user, String balance) {
+        BankAccountEntity account = new BankAccountEntity();
+        account.setNumber(UUID.randomUUID().toString());
+        account.setType(AccountType.SAVINGS_ACCOUNT);
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setActualBalance(new BigDecimal(balance));
+        account.setAvailableBalance(new BigDecimal(balance));
+        account.setUser(user);
+        return bankAccountRepository.save(account);
+    }
+
+    public BankAccountEntity account(String balance) {
+        return account(user(), balance);
+    }
+
+    public BigDecimal balance(BankAccountEntity account) {
+        return bankAccountRepository.findById(account.getId()).orElseThrow().getActualBalance();
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.javatodev.finance.configuration.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:read_your_writes;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "app.config.datasource.replica.enabled=true",
+    "app.config.datasource.replica.url=jdbc:h2:mem:read_your_writes_replica;DB_CLOSE_DELAY=-1"
+})
+class ReadYourWritesGuardTests {
+
+    @Autowired
+    private ReadYourWritesGuard guard;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void committedWriteKeepsTheCallerOnThePrimary() {
+        try (ReadYourWritesGuard.Scope scope = guard.bind(UUID.randomUUID().toString())) {
+            transaction(false).executeWithoutResult(status -> { });
+
+            assertThat(guard.readsFromPrimary()).isTrue();
+        }
+    }
+
+    @Test
+    void readsAndRolledBackWritesLeaveTheCallerOnTheReplica() {
+        try (ReadYourWritesGuard.Scope scope = guard.bind(UUID.randomUUID().toString())) {
+            transaction(true).executeWithoutResult(status -> { });
+            assertThatThrownBy(() -> transaction(false).executeWithoutResult(status -> {
+                throw new IllegalStateException("rejected");
+            })).isInstanceOf(IllegalStateException.class);
+            transaction(false).executeWithoutResult(status -> status.setRollbackOnly());
+
+            assertThat(guard.readsFromPrimary()).isFalse();
+        }
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate;
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.javatodev.finance.configuration.persistence;
+
+import com.javatodev.finance.Benchmarks;
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserRepository;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Account reads by {@code benchmark.threads} threads, each holding its connection for {@code benchmark.hold-millis}
+ * on top of the query like a networked database would, first on the configured pool of four connections and then on
+ * a pool of the size {@link ConnectionPoolTuner} recommended during the first run. Reports the throughput, the
+ * latency, the pool size and the recommendation of the last sample taken under load. Sized with
+ * {@code benchmark.reads}.
+ */
+@Tag(Benchmarks.TAG)
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:connection_pool_tuner_benchmark;DB_CLOSE_DELAY=-1",
+    "spring.datasource.hikari.maximum-pool-size=4",
+    "spring.datasource.hikari.minimum-idle=4",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "app.config.persistence.pool.sample-interval=1s",
+    "spring.cloud.config.enabled=false",
+    "logging.level.com.javatodev.finance=WARN"
+})
+class ConnectionPoolTunerBenchmarkTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void poolSizeRecommendedUnderLoad() throws Exception {
+        int threads = Benchmarks.setting("threads", 16);
+        int reads = Benchmarks.setting("reads", 3000);
+        int holdMillis = Benchmarks.setting("hold-millis", 10);
+        HikariConfigMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariConfigMXBean();
+        BankAccountEntity account = new TestAccounts(userRepository, bankAccountRepository).account("100.00");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        Runnable read = () -> transactionTemplate.executeWithoutResult(status -> {
+            bankAccountRepository.findByNumber(account.getNumber()).orElseThrow();
+            try {
+                Thread.sleep(holdMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        });
+
+        int configured = pool.getMaximumPoolSize();
+        int recommended = run("configured", threads, reads, pool, read);
+        assertThat(recommended).isGreaterThan(configured);
+
+        pool.setMinimumIdle(recommended);
+        pool.setMaximumPoolSize(recommended);
+        run("recommended", threads, reads, pool, read);
+    }
+
+    /**
+     * Runs the reads while a watcher keeps the tuner's recommendation, which only changes once per sample interval,
+     * and returns the last one published before the load stopped.
+     */
+    private int run(String pool, int threads, int reads, HikariConfigMXBean config, Runnable read) throws InterruptedException {
+        AtomicInteger recommended = new AtomicInteger();
+        Thread watcher = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                Gauge gauge = meterRegistry.find("hikaricp.connections.recommended").gauge();
+                if (gauge != null && gauge.value() > 0) {
+                    recommended.set((int) gauge.value());
+                }
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        Benchmarks.Load load;
+        try {
+            load = Benchmarks.load(threads, reads, index -> read.run());
+        } finally {
+            watcher.interrupt();
+            watcher.join();
+        }
+
+        Benchmarks.report("account reads " + pool + " pool " + threads + " threads", "%s  pool %d  recommended %d",
+            load, config.getMaximumPoolSize(), recommended.get());
+        assertThat(load.failures()).isZero();
+        return recommended.get();
+    }
+
+}
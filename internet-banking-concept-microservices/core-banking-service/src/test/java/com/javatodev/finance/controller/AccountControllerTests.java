@@ -0,0 +1,74 @@
+package com.javatodev.finance.controller;
+
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:account_controller;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "app.config.statement.export.timeout=2m"
+})
+class AccountControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void exportRunsWithItsOwnAsyncTimeout() throws Exception {
+        BankAccountEntity account = new TestAccounts(userRepository, bankAccountRepository).account("100.00");
+
+        MvcResult started = mockMvc.perform(get("/api/v1/account/{account_number}/transactions/export", account.getNumber())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, br"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(120_000L);
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(content().string("id,transaction_id,reference_number,transaction_type,amount,created_date\n"));
+    }
+
+    @Test
+    void gzipIsChosenByItsWeight() {
+        assertThat(AccountController.acceptsGzip("gzip")).isTrue();
+        assertThat(AccountController.acceptsGzip("br, GZIP;q=0.5")).isTrue();
+        assertThat(AccountController.acceptsGzip("deflate, *")).isTrue();
+        assertThat(AccountController.acceptsGzip("x-gzip; q=1.0")).isTrue();
+
+        assertThat(AccountController.acceptsGzip(null)).isFalse();
+        assertThat(AccountController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(AccountController.acceptsGzip("gzip;q=0.000, *")).isFalse();
+        assertThat(AccountController.acceptsGzip("*;q=0")).isFalse();
+        assertThat(AccountController.acceptsGzip("br, deflate")).isFalse();
+        assertThat(AccountController.acceptsGzip("gzip;q=abc")).isFalse();
+        assertThat(AccountController.acceptsGzip("identity")).isFalse();
+    }
+
+}
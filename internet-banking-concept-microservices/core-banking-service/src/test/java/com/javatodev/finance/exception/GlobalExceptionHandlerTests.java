@@ -0,0 +1,37 @@
+package com.javatodev.finance.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTests {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void concurrentUpdatesAreConflicts() {
+        ConcurrentUpdateException exception = new ConcurrentUpdateException("Account was updated concurrently. Please retry.", GlobalErrorCode.CONCURRENT_UPDATE);
+
+        assertThat(handler.handleConcurrentUpdateException(exception, Locale.ENGLISH).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void lockFailuresAndAnUnavailableLedgerAreRetryable() {
+        assertThat(handler.handleLockingFailure(new CannotAcquireLockException("Lock wait timeout exceeded"), Locale.ENGLISH).getStatusCode())
+            .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(handler.handleLedgerUnavailableException(new LedgerUnavailableException("Ledger is not available"), Locale.ENGLISH).getStatusCode())
+            .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void businessErrorsStayBadRequests() {
+        InsufficientFundsException exception = new InsufficientFundsException("Insufficient funds", GlobalErrorCode.INSUFFICIENT_FUNDS);
+
+        assertThat(handler.handleGlobalException(exception, Locale.ENGLISH).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+}
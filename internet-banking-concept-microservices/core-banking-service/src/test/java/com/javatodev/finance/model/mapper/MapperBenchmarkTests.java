@@ -0,0 +1,90 @@
+package com.javatodev.finance.model.mapper;
+
+import com.javatodev.finance.Benchmarks;
+import com.javatodev.finance.model.AccountStatus;
+import com.javatodev.finance.model.AccountType;
+import com.javatodev.finance.model.dto.BankAccount;
+import com.javatodev.finance.model.dto.User;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.model.entity.UserEntity;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entity to DTO mapping of an account and of a user with {@code benchmark.accounts} accounts, by the mappers and by
+ * {@link BeanUtils#copyProperties} with the two-pass list conversion the mappers replaced. Reports the time and the
+ * heap allocated per mapping. Sized with {@code benchmark.iterations}.
+ */
+@Tag(Benchmarks.TAG)
+class MapperBenchmarkTests {
+
+    // keeps the results reachable, so the mappings are not optimized away
+    private Object result;
+
+    @Test
+    void entityToDto() {
+        int iterations = Benchmarks.setting("iterations", 200000);
+        UserEntity user = user(Benchmarks.setting("accounts", 5));
+        BankAccountEntity account = user.getAccounts().get(0);
+        BankAccountMapper bankAccountMapper = new BankAccountMapper();
+        UserMapper userMapper = new UserMapper();
+
+        measure("bank account mapper", iterations, () -> bankAccountMapper.convertToDto(account));
+        measure("bank account BeanUtils", iterations, () -> copyAccount(account));
+        measure("user with " + user.getAccounts().size() + " accounts mapper", iterations, () -> userMapper.convertToDto(user));
+        measure("user with " + user.getAccounts().size() + " accounts BeanUtils", iterations, () -> copyUser(user));
+
+        assertThat(userMapper.convertToDto(user)).isEqualTo(copyUser(user));
+    }
+
+    private void measure(String benchmark, int iterations, Supplier<Object> mapping) {
+        Benchmarks.report(benchmark, "%s", Benchmarks.measure(iterations, iterations, () -> result = mapping.get()));
+    }
+
+    private static BankAccount copyAccount(BankAccountEntity entity) {
+        BankAccount dto = new BankAccount();
+        BeanUtils.copyProperties(entity, dto, "user");
+        return dto;
+    }
+
+    private static User copyUser(UserEntity entity) {
+        User dto = new User();
+        BeanUtils.copyProperties(entity, dto, "accounts");
+        List<BankAccount> accounts = entity.getAccounts().stream().map(MapperBenchmarkTests::copyAccount).collect(Collectors.toList());
+        dto.setBankAccounts(accounts.stream().collect(Collectors.toList()));
+        return dto;
+    }
+
+    private static UserEntity user(int accounts) {
+        UserEntity user = new UserEntity();
+        user.setId(42L);
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail("test@javatodev.com");
+        user.setIdentificationNumber("808080808V");
+        user.setAccounts(new ArrayList<>());
+        for (int i = 0; i < accounts; i++) {
+            BankAccountEntity account = new BankAccountEntity();
+            account.setId((long) i);
+            account.setNumber(String.valueOf(100015003000L + i));
+            account.setType(AccountType.SAVINGS_ACCOUNT);
+            account.setStatus(AccountStatus.ACTIVE);
+            account.setAvailableBalance(new BigDecimal("1000.00"));
+            account.setActualBalance(new BigDecimal("1000.00"));
+            account.setUser(user);
+            user.getAccounts().add(account);
+        }
+        return user;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.Benchmarks;
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.model.AccountLockingMode;
+import com.javatodev.finance.model.dto.request.FundTransferRequest;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contention of the locking modes: many concurrent transfers between a few hot accounts, each mode on fresh
+ * accounts. Sized with {@code benchmark.transfers}, {@code benchmark.threads} and {@code benchmark.hot-accounts}.
+ */
+@Tag(Benchmarks.TAG)
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:account_locking_benchmark;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=5000",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "logging.level.com.javatodev.finance=WARN"
+})
+class AccountLockingBenchmarkTests {
+
+    private static final String OPENING_BALANCE = "1000000.00";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRetryExecutor transactionRetryExecutor;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void transfersBetweenHotAccounts() throws Exception {
+        int transfers = Benchmarks.setting("transfers", 2000);
+        int threads = Benchmarks.setting("threads", 32);
+        int hotAccounts = Benchmarks.setting("hot-accounts", 4);
+        TestAccounts testAccounts = new TestAccounts(userRepository, bankAccountRepository);
+
+        for (AccountLockingMode mode : AccountLockingMode.values()) {
+            use(mode);
+            List<BankAccountEntity> accounts = new ArrayList<>();
+            for (int i = 0; i < hotAccounts; i++) {
+                accounts.add(testAccounts.account(OPENING_BALANCE));
+            }
+            List<FundTransferRequest> requests = requests(accounts, transfers);
+
+            Benchmarks.Load load = Benchmarks.load(threads, transfers,
+                index -> transactionRetryExecutor.execute(() -> transactionService.fundTransfer(requests.get(index))));
+
+            Benchmarks.report("locking " + mode + " " + threads + " threads, " + hotAccounts + " accounts", "%s", load);
+            BigDecimal total = accounts.stream().map(testAccounts::balance).reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertThat(total).as("money is neither lost nor created in %s mode", mode)
+                .isEqualByComparingTo(new BigDecimal(OPENING_BALANCE).multiply(BigDecimal.valueOf(hotAccounts)));
+        }
+    }
+
+    private void use(AccountLockingMode mode) {
+        ReflectionTestUtils.setField(AopTestUtils.<Object>getUltimateTargetObject(transactionService), "lockingMode", mode);
+        ReflectionTestUtils.setField(AopTestUtils.<Object>getUltimateTargetObject(transactionRetryExecutor), "lockingMode", mode);
+    }
+
+    private static List<FundTransferRequest> requests(List<BankAccountEntity> accounts, int transfers) {
+        Random random = new Random(42);
+        List<FundTransferRequest> requests = new ArrayList<>(transfers);
+        for (int i = 0; i < transfers; i++) {
+            int from = random.nextInt(accounts.size());
+            int to = (from + 1 + random.nextInt(accounts.size() - 1)) % accounts.size();
+            FundTransferRequest request = new FundTransferRequest();
+            request.setFromAccount(accounts.get(from).getNumber());
+            request.setToAccount(accounts.get(to).getNumber());
+            request.setAmount(new BigDecimal("1.00"));
+            requests.add(request);
+        }
+        return requests;
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.Benchmarks;
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.model.AccountLockingMode;
+import com.javatodev.finance.model.dto.request.FundTransferRequest;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of a single uncontended transfer on the entity path, which loads both accounts and writes them back, and
+ * on the atomic path, which debits and credits with guarded updates. Hibernate statistics count the statements each
+ * transfer sends. Sized with {@code benchmark.transfers}.
+ */
+@Tag(Benchmarks.TAG)
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:atomic_transfer_benchmark;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    // the batching of application.yml, which the test configuration replaces
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.order_updates=true",
+    "spring.cloud.config.enabled=false",
+    "logging.level.com.javatodev.finance=WARN",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class AtomicTransferBenchmarkTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRetryExecutor transactionRetryExecutor;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void singleTransferLatency() throws Exception {
+        int transfers = Benchmarks.setting("transfers", 2000);
+        TestAccounts testAccounts = new TestAccounts(userRepository, bankAccountRepository);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (AccountLockingMode mode : new AccountLockingMode[]{AccountLockingMode.OPTIMISTIC, AccountLockingMode.ATOMIC}) {
+            use(mode);
+            BankAccountEntity first = testAccounts.account("1000.00");
+            BankAccountEntity second = testAccounts.account("1000.00");
+            FundTransferRequest there = transfer(first, second);
+            FundTransferRequest back = transfer(second, first);
+
+            Benchmarks.load(1, transfers / 5, index -> transactionService.fundTransfer(index % 2 == 0 ? there : back));
+            statistics.clear();
+            Benchmarks.Load load = Benchmarks.load(1, transfers, index -> transactionService.fundTransfer(index % 2 == 0 ? there : back));
+            double statements = (double) statistics.getPrepareStatementCount() / transfers;
+
+            Benchmarks.report("transfer " + (mode == AccountLockingMode.ATOMIC ? "atomic updates" : "entity load and write"),
+                "%s  %.1f statements/transfer", load, statements);
+            assertThat(load.failures()).isZero();
+            assertThat(testAccounts.balance(first).add(testAccounts.balance(second))).isEqualByComparingTo("2000.00");
+        }
+    }
+
+    private void use(AccountLockingMode mode) {
+        ReflectionTestUtils.setField(AopTestUtils.<Object>getUltimateTargetObject(transactionService), "lockingMode", mode);
+        ReflectionTestUtils.setField(AopTestUtils.<Object>getUltimateTargetObject(transactionRetryExecutor), "lockingMode", mode);
+    }
+
+    private static FundTransferRequest transfer(BankAccountEntity from, BankAccountEntity to) {
+        FundTransferRequest request = new FundTransferRequest();
+        request.setFromAccount(from.getNumber());
+        request.setToAccount(to.getNumber());
+        request.setAmount(new BigDecimal("1.00"));
+        return request;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.exception.InsufficientFundsException;
+import com.javatodev.finance.model.dto.request.FundTransferRequest;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:atomic_transfer;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=5000",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "app.config.transaction.locking-mode=ATOMIC"
+})
+class AtomicTransferTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    private TestAccounts testAccounts;
+
+    @BeforeEach
+    void setUp() {
+        testAccounts = new TestAccounts(userRepository, bankAccountRepository);
+    }
+
+    @Test
+    void guardedDebitRejectsAnUncoveredAmountWithoutTouchingEitherAccount() {
+        BankAccountEntity from = testAccounts.account("10.00");
+        BankAccountEntity to = testAccounts.account("10.00");
+
+        assertThatThrownBy(() -> transactionService.fundTransfer(transfer(from, to, "10.01")))
+            .isInstanceOf(InsufficientFundsException.class);
+
+        assertThat(testAccounts.balance(from)).isEqualByComparingTo("10.00");
+        assertThat(testAccounts.balance(to)).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void guardedDebitAllowsTheWholeBalance() {
+        BankAccountEntity from = testAccounts.account("10.00");
+        BankAccountEntity to = testAccounts.account("0.00");
+
+        transactionService.fundTransfer(transfer(from, to, "10.00"));
+
+        assertThat(testAccounts.balance(from)).isEqualByComparingTo("0.00");
+        assertThat(testAccounts.balance(to)).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void oppositeTransfersDoNotDeadlock() throws Exception {
+        BankAccountEntity first = testAccounts.account("1000.00");
+        BankAccountEntity second = testAccounts.account("1000.00");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> transfers = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                FundTransferRequest request = i % 2 == 0 ? transfer(first, second, "1.00") : transfer(second, first, "1.00");
+                transfers.add(executor.submit(() -> transactionService.fundTransfer(request)));
+            }
+            for (Future<?> transfer : transfers) {
+                // a deadlock or lock timeout would surface here
+                transfer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(testAccounts.balance(first)).isEqualByComparingTo("1000.00");
+        assertThat(testAccounts.balance(second)).isEqualByComparingTo("1000.00");
+    }
+
+    private static FundTransferRequest transfer(BankAccountEntity from, BankAccountEntity to, String amount) {
+        FundTransferRequest request = new FundTransferRequest();
+        request.setFromAccount(from.getNumber());
+        request.setToAccount(to.getNumber());
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.model.dto.request.FundTransferRequest;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.model.entity.UserEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserBalanceSummaryRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:balance_summary;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=5000",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "app.config.transaction.locking-mode=ATOMIC",
+    // fewer connections than concurrent postings, creating a summary row must not need a second one
+    "spring.datasource.hikari.maximum-pool-size=4",
+    "spring.datasource.hikari.connection-timeout=5000"
+})
+class BalanceSummaryServiceTests {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BalanceSummaryService balanceSummaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private UserBalanceSummaryRepository userBalanceSummaryRepository;
+
+    private TestAccounts testAccounts;
+
+    @BeforeEach
+    void setUp() {
+        testAccounts = new TestAccounts(userRepository, bankAccountRepository);
+    }
+
+    @Test
+    void summaryIsReadFromTheAccountsUntilTheFirstPosting() {
+        UserEntity user = testAccounts.user();
+        testAccounts.account(user, "10.00");
+        testAccounts.account(user, "5.00");
+
+        assertThat(userBalanceSummaryRepository.existsById(user.getId())).isFalse();
+        assertThat(balanceSummaryService.readSummary(user.getId()).getTotalActualBalance()).isEqualByComparingTo("15.00");
+        assertThat(balanceSummaryService.readSummary(user.getId()).getAccountCount()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentFirstPostingsOfAUserCreateOneSummary() throws Exception {
+        for (int round = 0; round < 10; round++) {
+            UserEntity payer = testAccounts.user();
+            List<FundTransferRequest> transfers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                // different accounts on both sides, the transfers only meet on the payer's summary row
+                transfers.add(transfer(testAccounts.account(payer, "100.00"), testAccounts.account("0.00"), "10.00"));
+            }
+
+            runTogether(transfers);
+
+            assertThat(balanceSummaryService.readSummary(payer.getId()).getTotalActualBalance())
+                .isEqualByComparingTo(new BigDecimal("90.00").multiply(BigDecimal.valueOf(THREADS)));
+            assertThat(balanceSummaryService.readSummary(payer.getId()).getAccountCount()).isEqualTo(THREADS);
+        }
+    }
+
+    private void runTogether(List<FundTransferRequest> transfers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(transfers.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (FundTransferRequest transfer : transfers) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return transactionService.fundTransfer(transfer);
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                // a duplicate summary row would surface here
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static FundTransferRequest transfer(BankAccountEntity from, BankAccountEntity to, String amount) {
+        FundTransferRequest request = new FundTransferRequest();
+        request.setFromAccount(from.getNumber());
+        request.setToAccount(to.getNumber());
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.model.dto.request.FundTransferRequest;
+import com.javatodev.finance.model.dto.response.UserBalanceSummary;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.model.entity.UserEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:hot_accounts;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=5000",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "app.config.transaction.locking-mode=PESSIMISTIC",
+    "app.config.hot-accounts.enabled=true",
+    "app.config.hot-accounts.numbers=" + HotAccountBalancesTests.HOT_ACCOUNT,
+    "app.config.hot-accounts.slots=4",
+    "app.config.hot-accounts.consolidate-interval=20ms"
+})
+class HotAccountBalancesTests {
+
+    static final String HOT_ACCOUNT = "HOT-ACCOUNT-1";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private HotAccountBalances hotAccountBalances;
+
+    @Autowired
+    private BalanceSummaryService balanceSummaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    private TestAccounts testAccounts;
+    private BankAccountEntity hotAccount;
+
+    @BeforeEach
+    void setUp() {
+        testAccounts = new TestAccounts(userRepository, bankAccountRepository);
+        hotAccount = bankAccountRepository.findByNumber(HOT_ACCOUNT).orElseGet(() -> {
+            BankAccountEntity account = testAccounts.account("1000.00");
+            account.setNumber(HOT_ACCOUNT);
+            return bankAccountRepository.save(account);
+        });
+        // the consolidator creates the slots of accounts that did not exist on startup
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!hotAccountBalances.isHot(HOT_ACCOUNT)) {
+            assertThat(System.nanoTime()).as("hot account resolved in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void sweptCreditsEndUpInTheAccountRowAndTheSummary() {
+        BigDecimal before = totalBalance(hotAccount);
+        BankAccountEntity payer = testAccounts.account("100.00");
+
+        for (int i = 0; i < 10; i++) {
+            transactionService.fundTransfer(transfer(payer, hotAccount, "1.00"));
+        }
+
+        assertThat(totalBalance(hotAccount)).isEqualByComparingTo(before.add(new BigDecimal("10.00")));
+        assertThat(summaryOf(hotAccount).getTotalActualBalance()).isEqualByComparingTo(totalBalance(hotAccount));
+        awaitSwept(hotAccount);
+        assertThat(testAccounts.balance(hotAccount)).isEqualByComparingTo(before.add(new BigDecimal("10.00")));
+        assertThat(summaryOf(hotAccount).getTotalActualBalance()).isEqualByComparingTo(testAccounts.balance(hotAccount));
+    }
+
+    @Test
+    void debitOfAHotAccountCountsItsSlots() {
+        BankAccountEntity payer = testAccounts.account("100.00");
+        transactionService.fundTransfer(transfer(payer, hotAccount, "50.00"));
+        BigDecimal total = totalBalance(hotAccount);
+
+        transactionService.fundTransfer(transfer(hotAccount, payer, total.toPlainString()));
+
+        assertThat(totalBalance(hotAccount)).isEqualByComparingTo("0.00");
+        assertThat(summaryOf(hotAccount).getTotalActualBalance()).isEqualByComparingTo("0.00");
+        transactionService.fundTransfer(transfer(payer, hotAccount, total.toPlainString()));
+    }
+
+    @Test
+    void transfersInBothDirectionsDoNotDeadlockWithTheConsolidator() throws Exception {
+        BigDecimal before = totalBalance(hotAccount);
+        UserEntity user = testAccounts.user();
+        BankAccountEntity first = testAccounts.account(user, "1000.00");
+        BankAccountEntity second = testAccounts.account(user, "1000.00");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> transfers = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                FundTransferRequest request = switch (i % 3) {
+                    case 0 -> transfer(first, hotAccount, "1.00");
+                    case 1 -> transfer(hotAccount, second, "1.00");
+                    default -> transfer(second, first, "1.00");
+                };
+                transfers.add(executor.submit(() -> transactionService.fundTransfer(request)));
+            }
+            for (Future<?> transfer : transfers) {
+                // a deadlock or lock timeout would surface here
+                transfer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(totalBalance(hotAccount)).isEqualByComparingTo(before);
+        assertThat(testAccounts.balance(first)).isEqualByComparingTo("1000.00");
+        assertThat(testAccounts.balance(second)).isEqualByComparingTo("1000.00");
+        assertThat(summaryOf(first).getTotalActualBalance()).isEqualByComparingTo("2000.00");
+        assertThat(summaryOf(hotAccount).getTotalActualBalance()).isEqualByComparingTo(totalBalance(hotAccount));
+    }
+
+    private UserBalanceSummary summaryOf(BankAccountEntity account) {
+        return balanceSummaryService.readSummary(account.getUser().getId());
+    }
+
+    private BigDecimal totalBalance(BankAccountEntity account) {
+        // account row and slots in one statement, a sweep running meanwhile doesn't change the sum
+        return bankAccountRepository.findSlottedViewByNumber(account.getNumber()).orElseThrow().getActualBalance();
+    }
+
+    private void awaitSwept(BankAccountEntity account) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (totalBalance(account).compareTo(testAccounts.balance(account)) != 0) {
+            assertThat(System.nanoTime()).as("slots swept in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static FundTransferRequest transfer(BankAccountEntity from, BankAccountEntity to, String amount) {
+        FundTransferRequest request = new FundTransferRequest();
+        request.setFromAccount(from.getNumber());
+        request.setToAccount(to.getNumber());
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.Benchmarks;
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.model.TransactionType;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.model.entity.TransactionEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+
+/**
+ * Inserts of ledger rows in transactions of {@code benchmark.rows-per-transaction} rows: transaction rows with their
+ * pooled table ids, which Hibernate sends in JDBC batches, against the same rows with identity ids, which Hibernate
+ * has to insert one by one to read each id back. Sized with {@code benchmark.rows}.
+ * <p>
+ * The statement count is Hibernate's, the select and update that reserve each block of pooled ids run on the
+ * allocator's own connection and are not in it. In-memory H2 has no round trip to save, so the rows per second here
+ * favour identity ids; the statements per row are what a networked database pays for.
+ */
+@Tag(Benchmarks.TAG)
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:ledger_insert_benchmark;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    // the batching of application.yml, which the test configuration replaces
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.order_updates=true",
+    "spring.cloud.config.enabled=false",
+    "logging.level.com.javatodev.finance=WARN",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class LedgerInsertBenchmarkTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void ledgerRowInserts() throws Exception {
+        int rows = Benchmarks.setting("rows", 20000);
+        int rowsPerTransaction = Benchmarks.setting("rows-per-transaction", 50);
+        BankAccountEntity account = new TestAccounts(userRepository, bankAccountRepository).account("0.00");
+
+        measure("pooled ids, batched", rows, rowsPerTransaction, () -> TransactionEntity.builder()
+            .transactionType(TransactionType.FUND_TRANSFER).transactionId(UUID.randomUUID().toString())
+            .referenceNumber(account.getNumber()).amount(BigDecimal.ONE)
+            .account(entityManager.getReference(BankAccountEntity.class, account.getId())).build());
+        measure("identity ids, row by row", rows, rowsPerTransaction, () -> new IdentityTransactionRow(BigDecimal.ONE,
+            TransactionType.FUND_TRANSFER, account.getNumber(), UUID.randomUUID().toString(), account.getId()));
+    }
+
+    private void measure(String benchmark, int rows, int rowsPerTransaction, Supplier<Object> row) throws InterruptedException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Runnable transaction = () -> transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rowsPerTransaction; i++) {
+                entityManager.persist(row.get());
+            }
+        });
+
+        Benchmarks.load(1, rows / rowsPerTransaction / 5, index -> transaction.run());
+        statistics.clear();
+        Benchmarks.Load load = Benchmarks.load(1, rows / rowsPerTransaction, index -> transaction.run());
+
+        double statementsPerRow = (double) statistics.getPrepareStatementCount() / (load.operations() * rowsPerTransaction);
+        Benchmarks.report("ledger inserts " + benchmark, "%10.1f rows/s  %.2f statements/row  failed %d/%d transactions",
+            load.perSecond() * rowsPerTransaction, statementsPerRow, load.failures(), load.operations());
+    }
+
+    @Entity
+    @Table(name = "benchmark_identity_transaction")
+    static class IdentityTransactionRow {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        private BigDecimal amount;
+
+        @Enumerated(EnumType.STRING)
+        private TransactionType transactionType;
+
+        private String referenceNumber;
+
+        private String transactionId;
+
+        private Instant createdDate;
+
+        private Long accountId;
+
+        protected IdentityTransactionRow() {
+        }
+
+        IdentityTransactionRow(BigDecimal amount, TransactionType transactionType, String referenceNumber, String transactionId,
+                               Long accountId) {
+            this.amount = amount;
+            this.transactionType = transactionType;
+            this.referenceNumber = referenceNumber;
+            this.transactionId = transactionId;
+            this.createdDate = Instant.now();
+            this.accountId = accountId;
+        }
+
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.Benchmarks;
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.model.StatementExportFormat;
+import com.javatodev.finance.model.TransactionType;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Full statement exports of an account with {@code benchmark.rows} transactions and with ten times as many, as CSV
+ * and as NDJSON into a stream that only counts the bytes. Reports the rows per second and the heap: the peak of the
+ * heap used while the export runs, garbage included, and the peak of the live heap, what the export keeps alive,
+ * from a second export with full collections while it runs. Both are above the heap after a collection right before
+ * the export.
+ */
+@Tag(Benchmarks.TAG)
+@SpringBootTest(properties = {
+    // kept in direct buffers off the heap being measured, with a small page cache, and read row by row like a MySQL
+    // cursor fetch
+    "spring.datasource.url=jdbc:h2:nioMemFS:statement_export_benchmark;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1;CACHE_SIZE=1024",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "logging.level.com.javatodev.finance=WARN"
+})
+class StatementExportBenchmarkTests {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    @Autowired
+    private StatementExportService statementExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void fullHistoryExports() throws Exception {
+        int rows = Benchmarks.setting("rows", 100000);
+        TestAccounts testAccounts = new TestAccounts(userRepository, bankAccountRepository);
+        // the index of the migrations, create-drop leaves it out
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_banking_core_transaction_account_created "
+            + "ON banking_core_transaction (account_id, created_date, id)");
+
+        long nextId = 1;
+        for (int size : new int[]{rows, rows * 10}) {
+            BankAccountEntity account = testAccounts.account("0.00");
+            insertTransactions(account, nextId, size);
+            nextId += size;
+
+            for (StatementExportFormat format : StatementExportFormat.values()) {
+                statementExportService.export(account.getId(), null, null, format, false, OutputStream.nullOutputStream());
+                Export export = export(account.getId(), format, false);
+                Export live = export(account.getId(), format, true);
+
+                Benchmarks.report("export " + format + " of " + size + " rows", "%10.0f rows/s  %7.1f MB  peak heap +%.1f MB  live heap +%.1f MB",
+                    size / (export.elapsedNanos / 1e9), export.bytes / 1e6, export.peakHeap / 1e6, live.peakHeap / 1e6);
+                assertThat(export.bytes).isPositive();
+            }
+        }
+    }
+
+    /**
+     * Exports while a sampler reads the heap used every few milliseconds. With {@code collecting} the sampler runs a
+     * full collection before each read, so the reads are the live heap, and the time is not worth reporting.
+     */
+    private Export export(long accountId, StatementExportFormat format, boolean collecting) throws Exception {
+        CountingOutputStream output = new CountingOutputStream();
+        System.gc();
+        long baseline = MEMORY.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (collecting) {
+                    System.gc();
+                }
+                peak.accumulateAndGet(MEMORY.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(collecting ? 200 : 10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long start = System.nanoTime();
+        try {
+            statementExportService.export(accountId, null, null, format, false, output);
+        } finally {
+            sampler.interrupt();
+            sampler.join();
+        }
+        return new Export(System.nanoTime() - start, output.bytes, peak.get() - baseline);
+    }
+
+    private void insertTransactions(BankAccountEntity account, long firstId, int count) {
+        Instant created = Instant.parse("2020-01-01T00:00:00Z");
+        for (int offset = 0; offset < count; offset += INSERT_BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (int i = offset; i < Math.min(count, offset + INSERT_BATCH_SIZE); i++) {
+                batch.add(new Object[]{firstId + i, account.getId(), new BigDecimal("-12.50"), TransactionType.FUND_TRANSFER.name(),
+                    account.getNumber(), UUID.randomUUID().toString(), Timestamp.from(created.plusSeconds(i))});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO banking_core_transaction "
+                + "(id, account_id, amount, transaction_type, reference_number, transaction_id, created_date) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+        }
+    }
+
+    private record Export(long elapsedNanos, long bytes, long peakHeap) {
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+    }
+
+}
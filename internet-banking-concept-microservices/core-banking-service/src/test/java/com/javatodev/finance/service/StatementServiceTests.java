@@ -0,0 +1,104 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.exception.InvalidCursorException;
+import com.javatodev.finance.model.dto.response.AccountStatementResponse;
+import com.javatodev.finance.model.dto.response.StatementEntry;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:statement;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false"
+})
+class StatementServiceTests {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+    // outside the range the id generator hands out, and shared by the tests of the one database
+    private static final AtomicLong NEXT_ID = new AtomicLong(1_000_000);
+
+    @Autowired
+    private StatementService statementService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BankAccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        account = new TestAccounts(userRepository, bankAccountRepository).account("100.00");
+    }
+
+    @Test
+    void pagesCoverTheHistoryNewestFirstWithoutGapsOrRepeats() {
+        List<Long> expected = new ArrayList<>();
+        // three transactions share a timestamp, the id decides their order and where a page ends
+        for (int minute : new int[] {0, 1, 1, 1, 2, 3, 4}) {
+            expected.add(0, transaction(START.plusSeconds(60L * minute)));
+        }
+
+        List<Long> read = new ArrayList<>();
+        String after = null;
+        do {
+            AccountStatementResponse page = statementService.readStatement(account.getNumber(), null, null, after, 2);
+            assertThat(page.getTransactions()).hasSizeLessThanOrEqualTo(2);
+            page.getTransactions().stream().map(StatementEntry::getId).forEach(read::add);
+            after = page.getNext();
+        } while (after != null);
+
+        assertThat(read).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void pagesStayWithinTheRequestedWindow() {
+        transaction(START);
+        long inside = transaction(START.plusSeconds(60));
+        transaction(START.plusSeconds(120));
+
+        AccountStatementResponse page = statementService.readStatement(account.getNumber(), START.plusSeconds(30), START.plusSeconds(120), null, 10);
+
+        assertThat(page.getTransactions()).extracting(StatementEntry::getId).containsExactly(inside);
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> statementService.readStatement(account.getNumber(), null, null, "not-a-cursor", 10))
+            .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private long transaction(Instant createdDate) {
+        long id = NEXT_ID.getAndIncrement();
+        jdbcTemplate.update("insert into banking_core_transaction (id, amount, transaction_type, reference_number, transaction_id, created_date, account_id) "
+                + "values (?, ?, 'FUND_TRANSFER', ?, ?, ?, ?)",
+            id, new BigDecimal("1.00"), "ref-" + id, UUID.randomUUID().toString(), Timestamp.from(createdDate), account.getId());
+        return id;
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.exception.ConcurrentUpdateException;
+import com.javatodev.finance.model.AccountLockingMode;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionRetryExecutorTests {
+
+    @Test
+    void retriesVersionConflictsInOptimisticMode() {
+        TransactionRetryExecutor executor = executor(AccountLockingMode.OPTIMISTIC);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("version changed");
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void doesNotRetryVersionConflictsInOtherModes() {
+        TransactionRetryExecutor executor = executor(AccountLockingMode.PESSIMISTIC);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            calls.incrementAndGet();
+            throw new OptimisticLockingFailureException("version changed");
+        })).isInstanceOf(ConcurrentUpdateException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void retriesLockTimeoutsAndDeadlocksInEveryMode() {
+        for (AccountLockingMode lockingMode : AccountLockingMode.values()) {
+            TransactionRetryExecutor executor = executor(lockingMode);
+            AtomicInteger calls = new AtomicInteger();
+
+            String result = executor.execute(() -> {
+                if (calls.incrementAndGet() < 2) {
+                    throw new CannotAcquireLockException("Deadlock found when trying to get lock");
+                }
+                return "done";
+            });
+
+            assertThat(result).as(lockingMode.name()).isEqualTo("done");
+        }
+    }
+
+    @Test
+    void givesUpAfterTheRetryBudget() {
+        TransactionRetryExecutor executor = executor(AccountLockingMode.ATOMIC);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("Lock wait timeout exceeded");
+        })).isInstanceOf(ConcurrentUpdateException.class);
+        assertThat(calls).hasValue(4);
+    }
+
+    private static TransactionRetryExecutor executor(AccountLockingMode lockingMode) {
+        TransactionRetryExecutor executor = new TransactionRetryExecutor();
+        ReflectionTestUtils.setField(executor, "lockingMode", lockingMode);
+        ReflectionTestUtils.setField(executor, "maxRetries", 3);
+        ReflectionTestUtils.setField(executor, "backoffMillis", 1L);
+        return executor;
+    }
+
+}
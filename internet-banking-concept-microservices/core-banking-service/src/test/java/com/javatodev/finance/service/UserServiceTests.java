@@ -0,0 +1,81 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.exception.InvalidCursorException;
+import com.javatodev.finance.model.dto.User;
+import com.javatodev.finance.model.dto.response.CursorPage;
+import com.javatodev.finance.model.entity.UserEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.UserRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:user_keyset;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false"
+})
+class UserServiceTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void cursorPagesCoverEveryUserOnceWithTheirAccounts() {
+        TestAccounts testAccounts = new TestAccounts(userRepository, bankAccountRepository);
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            UserEntity user = testAccounts.user();
+            testAccounts.account(user, "10.00");
+            testAccounts.account(user, "20.00");
+            created.add(user.getId());
+        }
+
+        List<User> read = new ArrayList<>();
+        String after = "";
+        do {
+            CursorPage<User> page = userService.readUsers(after, 2);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+            read.addAll(page.getItems());
+            after = page.getNext();
+        } while (after != null);
+
+        assertThat(read).extracting(User::getId).containsSubsequence(created).doesNotHaveDuplicates().isSorted();
+        assertThat(read).filteredOn(user -> created.contains(user.getId())).allSatisfy(user -> assertThat(user.getBankAccounts()).hasSize(2));
+    }
+
+    @Test
+    void lastPageHasNoNextToken() {
+        CursorPage<User> page = userService.readUsers(token(Long.MAX_VALUE - 1), 2);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> userService.readUsers(token("not-an-id"), 2)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> userService.readUsers("%%%", 2)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static String token(Object after) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(after.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
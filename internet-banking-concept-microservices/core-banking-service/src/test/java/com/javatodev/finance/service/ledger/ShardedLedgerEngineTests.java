@@ -0,0 +1,167 @@
+package com.javatodev.finance.service.ledger;
+
+import com.javatodev.finance.TestAccounts;
+import com.javatodev.finance.exception.InsufficientFundsException;
+import com.javatodev.finance.model.LedgerEntryStatus;
+import com.javatodev.finance.model.TransactionType;
+import com.javatodev.finance.model.entity.BankAccountEntity;
+import com.javatodev.finance.model.entity.LedgerJournalEntryEntity;
+import com.javatodev.finance.repository.BankAccountRepository;
+import com.javatodev.finance.repository.LedgerJournalRepository;
+import com.javatodev.finance.repository.LedgerLeaseRepository;
+import com.javatodev.finance.repository.TransactionRepository;
+import com.javatodev.finance.repository.UserRepository;
+import com.javatodev.finance.service.LedgerTransactionService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:sharded_ledger;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "app.config.ledger.mode=sharded",
+    "app.config.ledger.shards=4"
+})
+class ShardedLedgerEngineTests {
+
+    @Autowired
+    private ShardedLedgerEngine engine;
+
+    @Autowired
+    private LedgerTransactionService ledgerTransactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerJournalRepository ledgerJournalRepository;
+
+    @Autowired
+    private LedgerLeaseRepository ledgerLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TestAccounts testAccounts;
+
+    @BeforeEach
+    void setUp() {
+        testAccounts = new TestAccounts(userRepository, bankAccountRepository);
+    }
+
+    @Test
+    void transferIsJournaledAndAppliedToBothAccounts() {
+        BankAccountEntity from = testAccounts.account("100.00");
+        BankAccountEntity to = testAccounts.account("10.00");
+        long transactions = transactionRepository.count();
+
+        engine.transfer(from.getNumber(), to.getNumber(), new BigDecimal("40.00"));
+
+        awaitJournalApplied();
+        assertThat(testAccounts.balance(from)).isEqualByComparingTo("60.00");
+        assertThat(testAccounts.balance(to)).isEqualByComparingTo("50.00");
+        assertThat(transactionRepository.count()).isEqualTo(transactions + 2);
+    }
+
+    @Test
+    void rejectedDebitLeavesNothingBehind() {
+        BankAccountEntity from = testAccounts.account("10.00");
+        BankAccountEntity to = testAccounts.account("10.00");
+
+        assertThatThrownBy(() -> engine.transfer(from.getNumber(), to.getNumber(), new BigDecimal("40.00")))
+            .isInstanceOf(InsufficientFundsException.class);
+
+        awaitJournalApplied();
+        assertThat(ledgerJournalRepository.findAll()).isEmpty();
+        assertThat(testAccounts.balance(from)).isEqualByComparingTo("10.00");
+        assertThat(testAccounts.balance(to)).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void balanceChangesMadeOutsideTheLedgerAreKept() {
+        BankAccountEntity from = testAccounts.account("100.00");
+        BankAccountEntity to = testAccounts.account("0.00");
+        engine.transfer(from.getNumber(), to.getNumber(), new BigDecimal("10.00"));
+        awaitJournalApplied();
+
+        // e.g. a hot account sweep, the shard already holds the account
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            bankAccountRepository.credit(to.getId(), new BigDecimal("5.00")));
+        engine.transfer(from.getNumber(), to.getNumber(), new BigDecimal("10.00"));
+        awaitJournalApplied();
+
+        assertThat(testAccounts.balance(to)).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void pendingEntriesAreReplayedOnStartAndPoisonEntriesDeadLettered() {
+        BankAccountEntity from = testAccounts.account("100.00");
+        BankAccountEntity to = testAccounts.account("0.00");
+        engine.stop();
+        try {
+            LedgerJournalEntryEntity acknowledged = pendingEntry(from.getId(), to.getId(), "30.00");
+            // no such account, the transaction row cannot be written
+            LedgerJournalEntryEntity poison = pendingEntry(from.getId(), Long.MAX_VALUE, "1.00");
+            ledgerJournalRepository.saveAll(List.of(acknowledged, poison));
+        } finally {
+            engine.start();
+        }
+
+        assertThat(testAccounts.balance(from)).isEqualByComparingTo("70.00");
+        assertThat(testAccounts.balance(to)).isEqualByComparingTo("30.00");
+        assertThat(ledgerJournalRepository.findAll()).singleElement()
+            .satisfies(entry -> assertThat(entry.getStatus()).isEqualTo(LedgerEntryStatus.FAILED));
+        ledgerJournalRepository.deleteAll();
+    }
+
+    @Test
+    void secondInstanceCannotTakeTheLedger() {
+        LedgerLease other = new LedgerLease(ledgerLeaseRepository, new TransactionTemplate(transactionManager), Duration.ofSeconds(30));
+
+        assertThatThrownBy(other::acquire).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void ledgerTransfersRunOutsideADatabaseTransaction() {
+        assertThat(AopUtils.isAopProxy(ledgerTransactionService)).isFalse();
+    }
+
+    private LedgerJournalEntryEntity pendingEntry(Long debitAccountId, Long creditAccountId, String amount) {
+        return LedgerJournalEntryEntity.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .transactionType(TransactionType.FUND_TRANSFER)
+            .debitAccountId(debitAccountId)
+            .creditAccountId(creditAccountId)
+            .amount(new BigDecimal(amount))
+            .status(LedgerEntryStatus.PENDING).build();
+    }
+
+    private void awaitJournalApplied() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!ledgerJournalRepository.findByStatusOrderById(LedgerEntryStatus.PENDING).isEmpty()) {
+            assertThat(System.nanoTime()).as("journal applied in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+}
@@ -1,16 +1,66 @@
 package com.javatodev.finance.configuration;
 
+import com.javatodev.finance.configuration.filter.ApiRequestContextHolder;
+import com.javatodev.finance.configuration.filter.AppAuthUserFilter;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 
 import feign.Logger;
+import feign.RequestInterceptor;
+import feign.codec.Encoder;
 
 @Configuration
 public class CustomFeignClientConfiguration {
 
+    @Value("${app.config.feign.logger-level:FULL}")
+    private Logger.Level loggerLevel;
+
     @Bean
     Logger.Level feignLoggerLevel() {
-        return Logger.Level.FULL;
+        return loggerLevel;
+    }
+
+    /**
+     * Sends request bodies to core banking as CBOR when {@code app.config.core-banking.encoding=cbor}, core
+     * banking picks the encoding from the content type and JSON stays the default.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.config.core-banking.encoding", havingValue = "cbor")
+    Encoder cborEncoder(ObjectFactory<HttpMessageConverters> messageConverters) {
+        SpringEncoder springEncoder = new SpringEncoder(messageConverters);
+        return (object, bodyType, template) -> {
+            template.removeHeader(HttpHeaders.CONTENT_TYPE);
+            template.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE);
+            springEncoder.encode(object, bodyType, template);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.config.core-banking.encoding", havingValue = "cbor")
+    RequestInterceptor cborAcceptInterceptor() {
+        return template -> template.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    /**
+     * Forwards the caller's auth id, core banking keeps a caller that just wrote on its primary database so the
+     * reads that follow see the write.
+     */
+    @Bean
+    RequestInterceptor authIdForwardingInterceptor() {
+        return template -> {
+            String authId = ApiRequestContextHolder.getContext().getAuthId();
+            if (authId != null) {
+                template.header(AppAuthUserFilter.HTTP_HEADER_AUTH_USER_ID, authId);
+            }
+        };
     }
 
 }
@@ -0,0 +1,152 @@
+package com.javatodev.finance.configuration.persistence;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Derives the pool size the service actually needs from the Hikari metrics Spring Boot already publishes
+ * ({@code hikaricp.connections.active}, {@code idle}, {@code pending}, and the {@code acquire} and {@code usage}
+ * timers). Every sample interval the time connections were held is divided by the elapsed time, which by
+ * Little's law is the number of connections busy on average. That is scaled by the headroom factor and the
+ * threads still waiting for a connection are added on top.
+ * <p>
+ * The result is published as {@code hikaricp.connections.recommended}. With {@code auto-resize} the pool maximum
+ * follows it, growing right away and shrinking by at most half per sample. Otherwise a clearly mis-sized pool is
+ * only logged.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnClass(HikariDataSource.class)
+public class ConnectionPoolTuner {
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.config.persistence.pool.sample-interval:30s}")
+    private Duration sampleInterval;
+
+    @Value("${app.config.persistence.pool.headroom:1.5}")
+    private double headroom;
+
+    @Value("${app.config.persistence.pool.min-size:2}")
+    private int minSize;
+
+    @Value("${app.config.persistence.pool.max-size:50}")
+    private int maxSize;
+
+    @Value("${app.config.persistence.pool.auto-resize:false}")
+    private boolean autoResize;
+
+    private HikariDataSource hikari;
+    private ScheduledExecutorService executor;
+    private volatile int recommended;
+    private boolean gaugeRegistered;
+    private long lastSampleNanos;
+    private double lastUsageNanos = -1;
+
+    @PostConstruct
+    void start() throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            log.info("Data source is not a Hikari pool, connection pool tuning disabled");
+            return;
+        }
+        hikari = dataSource.unwrap(HikariDataSource.class);
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-tuner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::sample, sampleInterval.toMillis(), sampleInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void sample() {
+        try {
+            // the pool and its meters only exist once the first connection was requested
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", String.valueOf(hikari.getPoolName())).timer();
+            if (pool == null || usage == null) {
+                return;
+            }
+            registerGauge();
+
+            long now = System.nanoTime();
+            double usageNanos = usage.totalTime(TimeUnit.NANOSECONDS);
+            if (lastUsageNanos < 0) {
+                lastSampleNanos = now;
+                lastUsageNanos = usageNanos;
+                return;
+            }
+            double busy = (usageNanos - lastUsageNanos) / Math.max(1, now - lastSampleNanos);
+            lastSampleNanos = now;
+            lastUsageNanos = usageNanos;
+
+            int needed = (int) Math.ceil(busy * headroom) + pool.getThreadsAwaitingConnection();
+            recommended = Math.max(minSize, Math.min(maxSize, needed));
+            adjust(hikari.getHikariConfigMXBean());
+        } catch (Exception e) {
+            // never let an exception cancel the scheduled task
+            log.warn("Connection pool sample failed", e);
+        }
+    }
+
+    private void adjust(HikariConfigMXBean config) {
+        int current = config.getMaximumPoolSize();
+        if (recommended <= current && recommended > current / 2) {
+            return;
+        }
+        if (!autoResize) {
+            log.info("Connection pool {} has {} connections, measured load suggests {}", hikari.getPoolName(), current, recommended);
+            return;
+        }
+
+        // one quiet interval must not drain the pool, it shrinks by half at most per sample
+        int size = recommended > current ? recommended : Math.max(recommended, current / 2);
+        log.info("Resizing connection pool {} from {} to {} connections", hikari.getPoolName(), current, size);
+        if (config.getMinimumIdle() == current || config.getMinimumIdle() > size) {
+            // a fixed size pool stays fixed size
+            config.setMinimumIdle(size);
+        }
+        config.setMaximumPoolSize(size);
+    }
+
+    private void registerGauge() {
+        if (gaugeRegistered) {
+            return;
+        }
+        Gauge.builder("hikaricp.connections.recommended", this, tuner -> tuner.recommended)
+            .description("Pool size suggested by the measured connection usage")
+            .tag("pool", hikari.getPoolName())
+            .register(meterRegistry);
+        gaugeRegistered = true;
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.javatodev.finance.configuration.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes the prepared statement counters of the MySQL server, so the effect of the Connector/J statement
+ * cache ({@code cachePrepStmts} with {@code useServerPrepStmts}) can be watched. With the cache working, the
+ * statements are prepared once per connection and only executed afterwards, which shows as
+ * {@code mysql.statements.cache.hit.ratio} close to 1.
+ * <p>
+ * The counters are server wide, they include every client of the same MySQL server. They are read at most once
+ * per refresh interval, however often the metrics are scraped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatementCacheMetrics implements MeterBinder {
+
+    private static final String STATUS_QUERY = "SHOW GLOBAL STATUS WHERE Variable_name IN " +
+        "('Com_stmt_prepare', 'Com_stmt_execute', 'Com_stmt_reprepare', 'Prepared_stmt_count')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Value("${app.config.persistence.statement-metrics.refresh-interval:15s}")
+    private Duration refreshInterval;
+
+    private Map<String, Long> status = Map.of();
+    private long refreshedAt;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!datasourceUrl.startsWith("jdbc:mysql:")) {
+            return;
+        }
+
+        FunctionCounter.builder("mysql.statements.prepared", this, metrics -> metrics.read("Com_stmt_prepare"))
+            .description("Statements prepared on the server").register(registry);
+        FunctionCounter.builder("mysql.statements.executed", this, metrics -> metrics.read("Com_stmt_execute"))
+            .description("Prepared statements executed on the server").register(registry);
+        FunctionCounter.builder("mysql.statements.reprepared", this, metrics -> metrics.read("Com_stmt_reprepare"))
+            .description("Prepared statements the server had to prepare again after a metadata change").register(registry);
+        Gauge.builder("mysql.statements.open", this, metrics -> metrics.read("Prepared_stmt_count"))
+            .description("Prepared statements currently open on the server").register(registry);
+        Gauge.builder("mysql.statements.cache.hit.ratio", this, StatementCacheMetrics::hitRatio)
+            .description("Share of prepared statement executions that did not need a prepare").register(registry);
+    }
+
+    private double hitRatio() {
+        double executed = read("Com_stmt_execute");
+        return executed > 0 ? Math.max(0, 1 - read("Com_stmt_prepare") / executed) : Double.NaN;
+    }
+
+    private synchronized double read(String variable) {
+        long now = System.nanoTime();
+        if (status.isEmpty() || now - refreshedAt > refreshInterval.toNanos()) {
+            refreshedAt = now;
+            try {
+                Map<String, Long> values = new HashMap<>();
+                jdbcTemplate.query(STATUS_QUERY, row -> {
+                    values.put(row.getString(1), row.getLong(2));
+                });
+                status = values;
+            } catch (Exception e) {
+                log.debug("Failed to read MySQL statement status", e);
+            }
+        }
+        return status.getOrDefault(variable, 0L);
+    }
+
+}
@@ -1,16 +1,25 @@
 package com.javatodev.finance.controller;
 
 import com.javatodev.finance.model.dto.request.FundTransferRequest;
+import com.javatodev.finance.model.dto.response.FundTransferStatusResponse;
 import com.javatodev.finance.service.FundTransferService;
+import com.javatodev.finance.service.idempotency.IdempotencyService;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.net.URI;
+import java.util.List;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,16 +30,43 @@ import lombok.extern.slf4j.Slf4j;
 public class FundTransferController {
 
     private final FundTransferService fundTransferService;
+    private final IdempotencyService idempotencyService;
+
+    @Value("${app.config.fund-transfer.async.enabled:false}")
+    private boolean asyncEnabled;
 
     @PostMapping
-    public ResponseEntity sendFundTransfer(@RequestBody FundTransferRequest fundTransferRequest) {
+    public ResponseEntity sendFundTransfer(@RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                           @RequestBody FundTransferRequest fundTransferRequest) {
         log.info("Got fund transfer request from API {}", fundTransferRequest.toString());
-        return ResponseEntity.ok(fundTransferService.fundTransfer(fundTransferRequest));
+        return idempotencyService.execute(idempotencyKey, fundTransferRequest, () -> {
+            if (asyncEnabled) {
+                FundTransferStatusResponse response = fundTransferService.submitFundTransfer(fundTransferRequest);
+                return ResponseEntity.accepted().location(URI.create("/api/v1/transfer/" + response.getTrackingId())).body(response);
+            }
+            return ResponseEntity.ok(fundTransferService.fundTransfer(fundTransferRequest));
+        });
+    }
+
+    @GetMapping("/{tracking_id}")
+    public ResponseEntity readFundTransferStatus(@PathVariable("tracking_id") String trackingId) {
+        log.info("Reading fund transfer status for {}", trackingId);
+        return ResponseEntity.ok(fundTransferService.readFundTransferStatus(trackingId));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity sendBatchFundTransfer(@RequestBody List<FundTransferRequest> fundTransferRequests) {
+        log.info("Got batch of {} fund transfer requests from API", fundTransferRequests.size());
+        return ResponseEntity.ok(fundTransferService.batchFundTransfer(fundTransferRequests));
     }
 
     @GetMapping
-    public ResponseEntity readFundTransfers(Pageable pageable) {
+    public ResponseEntity readFundTransfers(@RequestParam(value = "after", required = false) String after, Pageable pageable) {
         log.info("Reading fund transfers from core");
+        // with an after token, even an empty one, the transfers are paged by keyset
+        if (after != null) {
+            return ResponseEntity.ok(fundTransferService.readAllTransfers(after, pageable.getPageSize()));
+        }
         return ResponseEntity.ok(fundTransferService.readAllTransfers(pageable));
     }
 }
@@ -0,0 +1,12 @@
+package com.javatodev.finance.exception;
+
+public class GlobalErrorCode {
+    public static final String ERROR_ENTITY_NOT_FOUND = "FUND-TRANSFER-SERVICE-1000";
+    public static final String IDEMPOTENCY_KEY_REUSED = "FUND-TRANSFER-SERVICE-1001";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS = "FUND-TRANSFER-SERVICE-1002";
+    public static final String IDEMPOTENCY_KEY_INVALID = "FUND-TRANSFER-SERVICE-1003";
+    public static final String CORE_BANKING_UNAVAILABLE = "FUND-TRANSFER-SERVICE-1004";
+    public static final String INVALID_CURSOR = "FUND-TRANSFER-SERVICE-1005";
+    public static final String IDEMPOTENCY_KEY_OUTCOME_UNKNOWN = "FUND-TRANSFER-SERVICE-1006";
+    public static final String CORE_BANKING_REJECTED = "FUND-TRANSFER-SERVICE-1007";
+}
@@ -7,6 +7,7 @@ import lombok.Data;
 @Data
 public class FundTransfer extends AuditAware {
     private Long id;
+    private String trackingId;
     private String transactionReference;
     private String status;
     private String fromAccount;
@@ -0,0 +1,14 @@
+package com.javatodev.finance.model.dto.request;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAccountRequest {
+    private List<String> accountNumbers;
+}
@@ -10,4 +10,6 @@ public class FundTransferRequest {
     private String toAccount;
     private BigDecimal amount;
     private String authID;
+    // id core banking books the transfer under, lets the outbox look it up when the response was lost
+    private String transactionId;
 }
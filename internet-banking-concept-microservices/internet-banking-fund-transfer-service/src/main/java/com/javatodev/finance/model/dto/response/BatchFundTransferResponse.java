@@ -0,0 +1,12 @@
+package com.javatodev.finance.model.dto.response;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchFundTransferResponse {
+    private int succeeded;
+    private int failed;
+    private List<FundTransferItemResponse> results;
+}
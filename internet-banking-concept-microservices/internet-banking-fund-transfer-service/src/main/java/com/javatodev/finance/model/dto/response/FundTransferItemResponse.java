@@ -0,0 +1,15 @@
+package com.javatodev.finance.model.dto.response;
+
+import com.javatodev.finance.model.TransactionStatus;
+
+import lombok.Data;
+
+@Data
+public class FundTransferItemResponse {
+    private int index;
+    private String trackingId;
+    private TransactionStatus status;
+    private String transactionId;
+    private String code;
+    private String message;
+}
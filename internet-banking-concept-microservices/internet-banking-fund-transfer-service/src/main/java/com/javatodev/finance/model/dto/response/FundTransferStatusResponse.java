@@ -0,0 +1,15 @@
+package com.javatodev.finance.model.dto.response;
+
+import com.javatodev.finance.model.TransactionStatus;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class FundTransferStatusResponse {
+    private String trackingId;
+    private TransactionStatus status;
+    private String transactionReference;
+    private String message;
+}
@@ -1,8 +1,12 @@
 package com.javatodev.finance.model.entity;
 
+import com.javatodev.finance.configuration.persistence.PooledTableIdGenerator;
 import com.javatodev.finance.model.TransactionStatus;
 import com.javatodev.finance.model.dto.AuditAware;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import java.math.BigDecimal;
 
 import jakarta.persistence.*;
@@ -16,9 +20,18 @@ import lombok.Setter;
 public class FundTransferEntity extends AuditAware {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "fund_transfer_id_generator")
+    @GenericGenerator(name = "fund_transfer_id_generator", type = PooledTableIdGenerator.class, parameters = {
+        @Parameter(name = "table_name", value = "fund_transfer_id_sequence"),
+        @Parameter(name = "segment_column_name", value = "sequence_name"),
+        @Parameter(name = "value_column_name", value = "next_val"),
+        @Parameter(name = "segment_value", value = "fund_transfer"),
+        @Parameter(name = "increment_size", value = "50"),
+        @Parameter(name = "optimizer", value = "pooled")
+    })
     private Long id;
 
+    private String trackingId;
     private String transactionReference;
     private String fromAccount;
     private String toAccount;
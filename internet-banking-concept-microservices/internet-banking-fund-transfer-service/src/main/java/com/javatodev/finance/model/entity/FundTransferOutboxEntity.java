@@ -0,0 +1,36 @@
+package com.javatodev.finance.model.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Pending hand-over of a fund transfer to core banking, written in the same transaction as the transfer.
+ * A row stays until the dispatcher has a definite outcome from core banking for it.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "fund_transfer_outbox")
+public class FundTransferOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "fund_transfer_id")
+    private FundTransferEntity fundTransfer;
+
+    private int attempts;
+
+    // set once the transfer may have reached core banking without a confirmed outcome
+    private boolean inDoubt;
+
+    private Instant availableAt;
+
+    private Instant createdDate;
+
+}
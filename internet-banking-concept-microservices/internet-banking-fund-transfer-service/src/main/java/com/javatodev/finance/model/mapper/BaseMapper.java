@@ -1,36 +1,57 @@
 package com.javatodev.finance.model.mapper;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+/**
+ * Mappers copy field by field in plain code, no reflection. The collection variants size their result up front
+ * and convert in a single pass.
+ */
 public abstract class BaseMapper<E, D> {
     public abstract E convertToEntity(D dto, Object... args);
 
     public abstract D convertToDto(E entity, Object... args);
 
     public Collection<E> convertToEntity(Collection<D> dto, Object... args) {
-        return dto.stream().map(d -> convertToEntity(d, args)).collect(Collectors.toList());
+        return convertToEntityList(dto, args);
     }
 
     public Collection<D> convertToDto(Collection<E> entity, Object... args) {
-        return entity.stream().map(e -> convertToDto(e, args)).collect(Collectors.toList());
+        return convertToDtoList(entity, args);
     }
 
     public List<E> convertToEntityList(Collection<D> dto, Object... args) {
-        return convertToEntity(dto, args).stream().collect(Collectors.toList());
+        List<E> entities = new ArrayList<>(dto.size());
+        for (D d : dto) {
+            entities.add(convertToEntity(d, args));
+        }
+        return entities;
     }
 
     public List<D> convertToDtoList(Collection<E> entity, Object... args) {
-        return convertToDto(entity, args).stream().collect(Collectors.toList());
+        List<D> dtos = new ArrayList<>(entity.size());
+        for (E e : entity) {
+            dtos.add(convertToDto(e, args));
+        }
+        return dtos;
     }
 
     public Set<E> convertToEntitySet(Collection<D> dto, Object... args) {
-        return convertToEntity(dto, args).stream().collect(Collectors.toSet());
+        Set<E> entities = HashSet.newHashSet(dto.size());
+        for (D d : dto) {
+            entities.add(convertToEntity(d, args));
+        }
+        return entities;
     }
 
     public Set<D> convertToDtoSet(Collection<E> entity, Object... args) {
-        return convertToDto(entity, args).stream().collect(Collectors.toSet());
+        Set<D> dtos = HashSet.newHashSet(entity.size());
+        for (E e : entity) {
+            dtos.add(convertToDto(e, args));
+        }
+        return dtos;
     }
 }
@@ -1,16 +1,24 @@
 package com.javatodev.finance.model.mapper;
 
+import com.javatodev.finance.model.TransactionStatus;
+import com.javatodev.finance.model.dto.AuditAware;
 import com.javatodev.finance.model.dto.FundTransfer;
+import com.javatodev.finance.model.dto.request.FundTransferRequest;
 import com.javatodev.finance.model.entity.FundTransferEntity;
 
-import org.springframework.beans.BeanUtils;
-
 public class FundTransferMapper extends BaseMapper<FundTransferEntity, FundTransfer> {
     @Override
     public FundTransferEntity convertToEntity(FundTransfer dto, Object... args) {
         FundTransferEntity entity = new FundTransferEntity();
         if (dto != null) {
-            BeanUtils.copyProperties(dto, entity);
+            entity.setId(dto.getId());
+            entity.setTrackingId(dto.getTrackingId());
+            entity.setTransactionReference(dto.getTransactionReference());
+            entity.setFromAccount(dto.getFromAccount());
+            entity.setToAccount(dto.getToAccount());
+            entity.setAmount(dto.getAmount());
+            entity.setStatus(dto.getStatus() != null ? TransactionStatus.valueOf(dto.getStatus()) : null);
+            copyAudit(dto, entity);
         }
         return entity;
     }
@@ -19,8 +27,34 @@ public class FundTransferMapper extends BaseMapper<FundTransferEntity, FundTrans
     public FundTransfer convertToDto(FundTransferEntity entity, Object... args) {
         FundTransfer dto = new FundTransfer();
         if (entity != null) {
-            BeanUtils.copyProperties(entity, dto);
+            dto.setId(entity.getId());
+            dto.setTrackingId(entity.getTrackingId());
+            dto.setTransactionReference(entity.getTransactionReference());
+            dto.setFromAccount(entity.getFromAccount());
+            dto.setToAccount(entity.getToAccount());
+            dto.setAmount(entity.getAmount());
+            dto.setStatus(entity.getStatus() != null ? entity.getStatus().name() : null);
+            copyAudit(entity, dto);
         }
         return dto;
     }
+
+    /**
+     * A new transfer for the given request, without status or tracking id.
+     */
+    public FundTransferEntity convertRequestToEntity(FundTransferRequest request) {
+        FundTransferEntity entity = new FundTransferEntity();
+        entity.setFromAccount(request.getFromAccount());
+        entity.setToAccount(request.getToAccount());
+        entity.setAmount(request.getAmount());
+        return entity;
+    }
+
+    private static void copyAudit(AuditAware source, AuditAware target) {
+        target.setCreatedDate(source.getCreatedDate());
+        target.setCreatedBy(source.getCreatedBy());
+        target.setModifiedDate(source.getModifiedDate());
+        target.setModifiedBy(source.getModifiedBy());
+        target.setVersion(source.getVersion());
+    }
 }
@@ -0,0 +1,27 @@
+package com.javatodev.finance.model.repository;
+
+import com.javatodev.finance.model.entity.FundTransferOutboxEntity;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
+import java.util.List;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface FundTransferOutboxRepository extends JpaRepository<FundTransferOutboxEntity, Long> {
+
+    /**
+     * Locks due outbox rows, skipping rows another dispatcher holds, so concurrent dispatchers never claim the same row.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from FundTransferOutboxEntity o join fetch o.fundTransfer where o.availableAt <= :now order by o.id")
+    List<FundTransferOutboxEntity> findDueForUpdate(Instant now, Pageable pageable);
+
+}
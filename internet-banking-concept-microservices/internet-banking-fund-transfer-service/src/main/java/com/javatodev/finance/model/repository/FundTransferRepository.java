@@ -2,7 +2,22 @@ package com.javatodev.finance.model.repository;
 
 import com.javatodev.finance.model.entity.FundTransferEntity;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface FundTransferRepository extends JpaRepository<FundTransferEntity, Long> {
+
+    Optional<FundTransferEntity> findByTrackingId(String trackingId);
+
+    Slice<FundTransferEntity> findAllBy(Pageable pageable);
+
+    @Query("select t from FundTransferEntity t where t.id > :afterId order by t.id")
+    List<FundTransferEntity> findAllAfter(@Param("afterId") long afterId, Pageable pageable);
+
 }
@@ -0,0 +1,80 @@
+package com.javatodev.finance.model.repository;
+
+import com.javatodev.finance.model.entity.IdempotencyKeyEntity;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+
+import jakarta.transaction.Transactional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    /**
+     * Claims a key with a plain insert, a concurrent claim of the same key fails on the primary key instead of
+     * being merged into the existing row.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO idempotency_key (idempotency_key, request_hash, status, owner, created_date, expires_at) " +
+        "VALUES (:key, :requestHash, 'IN_PROGRESS', :owner, :createdDate, :expiresAt)")
+    int claim(String key, String requestHash, String owner, Instant createdDate, Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyKeyEntity k set k.expiresAt = :expiresAt where k.key = :key and k.owner = :owner " +
+        "and k.status = com.javatodev.finance.model.IdempotencyKeyStatus.IN_PROGRESS")
+    int extend(String key, String owner, Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyKeyEntity k set k.status = com.javatodev.finance.model.IdempotencyKeyStatus.COMPLETED, " +
+        "k.responseStatus = :responseStatus, k.responseBody = :responseBody, k.responseLocation = :responseLocation, " +
+        "k.expiresAt = :expiresAt where k.key = :key and k.owner = :owner " +
+        "and k.status = com.javatodev.finance.model.IdempotencyKeyStatus.IN_PROGRESS")
+    int complete(String key, String owner, int responseStatus, String responseBody, String responseLocation, Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyKeyEntity k set k.status = com.javatodev.finance.model.IdempotencyKeyStatus.FAILED, " +
+        "k.expiresAt = :expiresAt where k.key = :key and k.owner = :owner " +
+        "and k.status = com.javatodev.finance.model.IdempotencyKeyStatus.IN_PROGRESS")
+    int fail(String key, String owner, Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.key = :key and k.owner = :owner " +
+        "and k.status = com.javatodev.finance.model.IdempotencyKeyStatus.IN_PROGRESS")
+    int release(String key, String owner);
+
+    /**
+     * Marks claims whose owner stopped extending them as failed, the request may or may not have been executed.
+     */
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyKeyEntity k set k.status = com.javatodev.finance.model.IdempotencyKeyStatus.FAILED, " +
+        "k.expiresAt = :expiresAt where k.expiresAt < :now and k.status = com.javatodev.finance.model.IdempotencyKeyStatus.IN_PROGRESS")
+    int abandonExpired(Instant now, Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyKeyEntity k set k.status = com.javatodev.finance.model.IdempotencyKeyStatus.FAILED, " +
+        "k.expiresAt = :expiresAt where k.key = :key and k.expiresAt < :now " +
+        "and k.status = com.javatodev.finance.model.IdempotencyKeyStatus.IN_PROGRESS")
+    int abandonExpired(String key, Instant now, Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.key = :key and k.expiresAt < :now " +
+        "and k.status <> com.javatodev.finance.model.IdempotencyKeyStatus.IN_PROGRESS")
+    int releaseExpired(String key, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.expiresAt < :now " +
+        "and k.status <> com.javatodev.finance.model.IdempotencyKeyStatus.IN_PROGRESS")
+    int purgeExpired(Instant now);
+
+}
@@ -1,20 +1,39 @@
 package com.javatodev.finance.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javatodev.finance.exception.CoreBankingUnavailableException;
+import com.javatodev.finance.exception.EntityNotFoundException;
+import com.javatodev.finance.exception.GlobalErrorCode;
 import com.javatodev.finance.model.TransactionStatus;
 import com.javatodev.finance.model.dto.FundTransfer;
+import com.javatodev.finance.model.dto.request.BatchFundTransferRequest;
 import com.javatodev.finance.model.dto.request.FundTransferRequest;
+import com.javatodev.finance.model.dto.response.BatchFundTransferResponse;
+import com.javatodev.finance.model.dto.response.CursorPage;
+import com.javatodev.finance.model.dto.response.FundTransferItemResponse;
 import com.javatodev.finance.model.dto.response.FundTransferResponse;
+import com.javatodev.finance.model.dto.response.FundTransferStatusResponse;
 import com.javatodev.finance.model.entity.FundTransferEntity;
+import com.javatodev.finance.model.entity.FundTransferOutboxEntity;
 import com.javatodev.finance.model.mapper.FundTransferMapper;
+import com.javatodev.finance.model.repository.FundTransferOutboxRepository;
 import com.javatodev.finance.model.repository.FundTransferRepository;
 import com.javatodev.finance.service.rest.client.BankingCoreFeignClient;
+import com.javatodev.finance.service.rest.client.CoreBankingCallGuard;
 
-import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
+import feign.FeignException;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,19 +43,38 @@ import lombok.extern.slf4j.Slf4j;
 public class FundTransferService {
 
     private final FundTransferRepository fundTransferRepository;
+    private final FundTransferOutboxRepository fundTransferOutboxRepository;
     private final BankingCoreFeignClient bankingCoreFeignClient;
+    private final CoreBankingCallGuard coreBankingCallGuard;
+    private final ObjectMapper objectMapper;
 
     private FundTransferMapper mapper = new FundTransferMapper();
 
+    @Value("${app.config.fund-transfer.batch-chunk-size:1000}")
+    private int batchChunkSize;
+
+    @Value("${app.config.fund-transfer.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${app.config.fund-transfer.async.reconcile-delay:1m}")
+    private Duration reconcileDelay;
+
     public FundTransferResponse fundTransfer(FundTransferRequest request) {
         log.info("Sending fund transfer request {}" + request.toString());
 
-        FundTransferEntity entity = new FundTransferEntity();
-        BeanUtils.copyProperties(request, entity);
+        FundTransferEntity entity = mapper.convertRequestToEntity(request);
         entity.setStatus(TransactionStatus.PENDING);
         FundTransferEntity optFundTransfer = fundTransferRepository.save(entity);
 
-        FundTransferResponse fundTransferResponse = bankingCoreFeignClient.fundTransfer(request);
+        FundTransferResponse fundTransferResponse;
+        try {
+            fundTransferResponse = coreBankingCallGuard.call("fund-transfer", () -> bankingCoreFeignClient.fundTransfer(request));
+        } catch (CoreBankingUnavailableException e) {
+            // never sent to core banking, so the transfer definitely did not happen
+            optFundTransfer.setStatus(TransactionStatus.FAILED);
+            fundTransferRepository.save(optFundTransfer);
+            throw e;
+        }
         optFundTransfer.setTransactionReference(fundTransferResponse.getTransactionId());
         optFundTransfer.setStatus(TransactionStatus.SUCCESS);
         fundTransferRepository.save(optFundTransfer);
@@ -46,7 +84,167 @@ public class FundTransferService {
 
     }
 
+    /**
+     * Accepts a transfer for asynchronous settlement: the PENDING transfer and its outbox row are stored in one
+     * transaction and the outbox dispatcher hands it to core banking later.
+     */
+    @Transactional
+    public FundTransferStatusResponse submitFundTransfer(FundTransferRequest request) {
+        log.info("Accepting fund transfer request {} for asynchronous settlement", request.toString());
+
+        FundTransferEntity entity = mapper.convertRequestToEntity(request);
+        entity.setTrackingId(UUID.randomUUID().toString());
+        entity.setStatus(TransactionStatus.PENDING);
+        fundTransferRepository.save(entity);
+
+        FundTransferOutboxEntity outbox = new FundTransferOutboxEntity();
+        outbox.setFundTransfer(entity);
+        outbox.setAvailableAt(Instant.now());
+        outbox.setCreatedDate(outbox.getAvailableAt());
+        fundTransferOutboxRepository.save(outbox);
+
+        return statusResponse(entity);
+    }
+
+    public FundTransferStatusResponse readFundTransferStatus(String trackingId) {
+        return statusResponse(fundTransferRepository.findByTrackingId(trackingId).orElseThrow(EntityNotFoundException::new));
+    }
+
+    private FundTransferStatusResponse statusResponse(FundTransferEntity entity) {
+        String message = switch (entity.getStatus()) {
+            case PENDING, PROCESSING -> "Fund transfer accepted, waiting for core banking";
+            case SUCCESS -> "Fund Transfer Successfully Completed";
+            case FAILED -> "Fund transfer failed";
+        };
+        return FundTransferStatusResponse.builder().trackingId(entity.getTrackingId()).status(entity.getStatus())
+            .transactionReference(entity.getTransactionReference()).message(message).build();
+    }
+
+    /**
+     * Sends the transfers to core banking in chunks, each transfer under its tracking id as the transaction id. A
+     * chunk core banking certainly did not run fails its transfers with the error code. The transfers of a chunk
+     * with an unknown outcome stay PENDING, with the asynchronous mode enabled they go to the outbox, which looks
+     * them up by transaction id and completes or sends them.
+     */
+    public BatchFundTransferResponse batchFundTransfer(List<FundTransferRequest> requests) {
+        log.info("Sending batch of {} fund transfers", requests.size());
+
+        List<FundTransferEntity> entities = new ArrayList<>(requests.size());
+        for (FundTransferRequest request : requests) {
+            FundTransferEntity entity = mapper.convertRequestToEntity(request);
+            entity.setTrackingId(UUID.randomUUID().toString());
+            entity.setStatus(TransactionStatus.PENDING);
+            entities.add(entity);
+            request.setTransactionId(entity.getTrackingId());
+        }
+        fundTransferRepository.saveAll(entities);
+
+        List<FundTransferItemResponse> results = new ArrayList<>(requests.size());
+        List<FundTransferEntity> unknown = new ArrayList<>();
+        for (int offset = 0; offset < requests.size(); offset += batchChunkSize) {
+            List<FundTransferRequest> chunk = requests.subList(offset, Math.min(offset + batchChunkSize, requests.size()));
+            try {
+                BatchFundTransferResponse chunkResponse = coreBankingCallGuard.call("fund-transfer-batch",
+                    () -> bankingCoreFeignClient.batchFundTransfer(new BatchFundTransferRequest(chunk)));
+                for (FundTransferItemResponse item : chunkResponse.getResults()) {
+                    item.setIndex(offset + item.getIndex());
+                    FundTransferEntity entity = entities.get(item.getIndex());
+                    entity.setStatus(item.getStatus());
+                    entity.setTransactionReference(item.getTransactionId());
+                    item.setTrackingId(entity.getTrackingId());
+                    results.add(item);
+                }
+            } catch (CoreBankingUnavailableException e) {
+                log.warn("Batch chunk starting at {} not sent: {}", offset, e.getMessage());
+                failChunk(entities, offset, chunk.size(), GlobalErrorCode.CORE_BANKING_UNAVAILABLE, e.getMessage(), results);
+            } catch (FeignException e) {
+                if (CoreBankingCallGuard.isNotExecuted(e)) {
+                    log.warn("Batch chunk starting at {} not run by core banking", offset, e);
+                    failChunk(entities, offset, chunk.size(), errorCode(e), "Fund transfer not run by core banking, please retry", results);
+                } else {
+                    unknownChunk(entities, offset, chunk.size(), e, unknown, results);
+                }
+            } catch (Exception e) {
+                unknownChunk(entities, offset, chunk.size(), e, unknown, results);
+            }
+        }
+        fundTransferRepository.saveAll(entities);
+        if (asyncEnabled && !unknown.isEmpty()) {
+            reconcileLater(unknown);
+        }
+
+        BatchFundTransferResponse response = new BatchFundTransferResponse();
+        response.setResults(results);
+        response.setSucceeded((int) results.stream().filter(item -> item.getStatus() == TransactionStatus.SUCCESS).count());
+        response.setFailed((int) results.stream().filter(item -> item.getStatus() == TransactionStatus.FAILED).count());
+        return response;
+    }
+
+    private static void failChunk(List<FundTransferEntity> entities, int offset, int size, String code, String message,
+                                  List<FundTransferItemResponse> results) {
+        for (int i = offset; i < offset + size; i++) {
+            entities.get(i).setStatus(TransactionStatus.FAILED);
+            results.add(item(entities.get(i), i, TransactionStatus.FAILED, code, message));
+        }
+    }
+
+    private static void unknownChunk(List<FundTransferEntity> entities, int offset, int size, Exception e,
+                                     List<FundTransferEntity> unknown, List<FundTransferItemResponse> results) {
+        // outcome in core is unknown, these transfers stay PENDING until they are reconciled
+        log.error("Batch chunk starting at {} failed in core banking", offset, e);
+        for (int i = offset; i < offset + size; i++) {
+            unknown.add(entities.get(i));
+            results.add(item(entities.get(i), i, TransactionStatus.PENDING, null, "Fund transfer could not be confirmed by core banking"));
+        }
+    }
+
+    private static FundTransferItemResponse item(FundTransferEntity entity, int index, TransactionStatus status, String code, String message) {
+        FundTransferItemResponse item = new FundTransferItemResponse();
+        item.setIndex(index);
+        item.setTrackingId(entity.getTrackingId());
+        item.setStatus(status);
+        item.setCode(code);
+        item.setMessage(message);
+        return item;
+    }
+
+    /**
+     * Error code core banking answered with, or a generic one when the body carries none.
+     */
+    private String errorCode(FeignException e) {
+        try {
+            String code = objectMapper.readTree(e.contentUTF8()).path("code").asText(null);
+            if (code != null) {
+                return code;
+            }
+        } catch (Exception ignored) {
+            // not a json error body, a refused connection has none at all
+        }
+        return e.status() == 503 || e.status() < 0 ? GlobalErrorCode.CORE_BANKING_UNAVAILABLE : GlobalErrorCode.CORE_BANKING_REJECTED;
+    }
+
+    /**
+     * Hands transfers with an unknown outcome to the outbox as in doubt, so they are looked up before anything is sent.
+     */
+    private void reconcileLater(List<FundTransferEntity> transfers) {
+        Instant availableAt = Instant.now().plus(reconcileDelay);
+        fundTransferOutboxRepository.saveAll(transfers.stream().map(transfer -> {
+            FundTransferOutboxEntity outbox = new FundTransferOutboxEntity();
+            outbox.setFundTransfer(transfer);
+            outbox.setInDoubt(true);
+            outbox.setAvailableAt(availableAt);
+            outbox.setCreatedDate(Instant.now());
+            return outbox;
+        }).toList());
+    }
+
     public List<FundTransfer> readAllTransfers(Pageable pageable) {
-        return mapper.convertToDtoList(fundTransferRepository.findAll(pageable).getContent());
+        // a slice reads one row more instead of counting the whole table
+        return mapper.convertToDtoList(fundTransferRepository.findAllBy(pageable).getContent());
+    }
+
+    public CursorPage<FundTransfer> readAllTransfers(String after, int size) {
+        List<FundTransferEntity> entities = fundTransferRepository.findAllAfter(CursorPage.afterId(after), PageRequest.of(0, size + 1));
+        return CursorPage.of(entities, size, FundTransferEntity::getId).map(mapper::convertToDtoList);
     }
 }
@@ -0,0 +1,24 @@
+package com.javatodev.finance.service.idempotency;
+
+import com.javatodev.finance.model.entity.IdempotencyKeyEntity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Response stored for an idempotency key, the body is kept as the JSON that was sent to the first caller.
+ */
+@Getter
+@AllArgsConstructor
+public class IdempotentResponse {
+
+    private final String requestHash;
+    private final int status;
+    private final String body;
+    private final String location;
+
+    static IdempotentResponse of(IdempotencyKeyEntity entity) {
+        return new IdempotentResponse(entity.getRequestHash(), entity.getResponseStatus(), entity.getResponseBody(), entity.getResponseLocation());
+    }
+
+}
@@ -0,0 +1,295 @@
+package com.javatodev.finance.service.outbox;
+
+import com.javatodev.finance.exception.CoreBankingUnavailableException;
+import com.javatodev.finance.model.TransactionStatus;
+import com.javatodev.finance.model.dto.request.BatchFundTransferRequest;
+import com.javatodev.finance.model.dto.request.BatchTransactionLookupRequest;
+import com.javatodev.finance.model.dto.request.FundTransferRequest;
+import com.javatodev.finance.model.dto.response.BatchFundTransferResponse;
+import com.javatodev.finance.model.dto.response.FundTransferItemResponse;
+import com.javatodev.finance.model.entity.FundTransferEntity;
+import com.javatodev.finance.model.entity.FundTransferOutboxEntity;
+import com.javatodev.finance.model.repository.FundTransferOutboxRepository;
+import com.javatodev.finance.model.repository.FundTransferRepository;
+import com.javatodev.finance.service.rest.client.BankingCoreFeignClient;
+import com.javatodev.finance.service.rest.client.CoreBankingCallGuard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import feign.FeignException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the fund transfer outbox to core banking in batches when the asynchronous mode is enabled with
+ * {@code app.config.fund-transfer.async.enabled}. Rows are claimed with {@code SKIP LOCKED} and leased, so
+ * dispatcher threads and service instances never send the same row concurrently, and no database connection
+ * is held while core banking works.
+ * <p>
+ * Every transfer is sent with its tracking id as the core banking transaction id. Only a batch that certainly
+ * did not run is sent again: one the guard held back, which does not count as an attempt, or one core banking
+ * refused to connect or answered with a conflict or unavailable status. Any other failure leaves the outcome
+ * unknown, the rows are marked in doubt and looked up by transaction id after {@code reconcile-delay}. Transfers
+ * found there are completed, the others are sent again. A row that runs out of attempts fails its transfer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.config.fund-transfer.async.enabled", havingValue = "true")
+public class FundTransferOutboxDispatcher {
+
+    private final FundTransferOutboxRepository fundTransferOutboxRepository;
+    private final FundTransferRepository fundTransferRepository;
+    private final BankingCoreFeignClient bankingCoreFeignClient;
+    private final CoreBankingCallGuard coreBankingCallGuard;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.config.fund-transfer.async.dispatcher-threads:4}")
+    private int dispatcherThreads;
+
+    @Value("${app.config.fund-transfer.async.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.config.fund-transfer.async.poll-interval:200ms}")
+    private Duration pollInterval;
+
+    @Value("${app.config.fund-transfer.async.lease:5m}")
+    private Duration lease;
+
+    @Value("${app.config.fund-transfer.async.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.config.fund-transfer.async.retry-backoff:1s}")
+    private Duration retryBackoff;
+
+    @Value("${app.config.fund-transfer.async.reconcile-delay:1m}")
+    private Duration reconcileDelay;
+
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "fund-transfer-outbox-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < dispatcherThreads; i++) {
+            executor.scheduleWithFixedDelay(this::dispatch, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        log.info("Fund transfer outbox dispatcher started with {} threads", dispatcherThreads);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Fund transfer outbox dispatcher did not finish within timeout, leased rows are picked up after the lease");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch() {
+        try {
+            Claim claim;
+            while (!executor.isShutdown() && !(claim = claim()).isEmpty()) {
+                List<FundTransferOutboxEntity> unsent = new ArrayList<>(claim.unsent());
+                if (!claim.inDoubt().isEmpty()) {
+                    unsent.addAll(reconcile(claim.inDoubt()));
+                }
+                if (!unsent.isEmpty()) {
+                    send(unsent);
+                }
+            }
+        } catch (Exception e) {
+            // never let an exception cancel the scheduled task
+            log.error("Fund transfer outbox dispatch failed", e);
+        }
+    }
+
+    private Claim claim() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<FundTransferOutboxEntity> due = fundTransferOutboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            Map<Boolean, List<FundTransferOutboxEntity>> byDoubt = due.stream()
+                .collect(Collectors.partitioningBy(FundTransferOutboxEntity::isInDoubt));
+            // in doubt from here on, should this dispatcher stop while core banking works the row is looked up after the lease
+            due.forEach(row -> {
+                row.setInDoubt(true);
+                row.setAvailableAt(now.plus(lease));
+            });
+            return new Claim(byDoubt.get(true), byDoubt.get(false));
+        });
+    }
+
+    /**
+     * Completes the in doubt rows core banking booked and returns the others, which certainly did not run.
+     */
+    private List<FundTransferOutboxEntity> reconcile(List<FundTransferOutboxEntity> rows) {
+        List<String> transactionIds = rows.stream().map(row -> row.getFundTransfer().getTrackingId()).toList();
+        Set<String> booked;
+        try {
+            booked = new HashSet<>(coreBankingCallGuard.call("transaction-lookup",
+                () -> bankingCoreFeignClient.lookupTransactions(new BatchTransactionLookupRequest(transactionIds))));
+        } catch (CoreBankingUnavailableException e) {
+            log.warn("Lookup of {} outbox transfers held back: {}", rows.size(), e.getMessage());
+            reschedule(rows, false, true);
+            return List.of();
+        } catch (Exception e) {
+            log.warn("Lookup of {} outbox transfers failed, retrying", rows.size(), e);
+            reschedule(rows, true, true);
+            return List.of();
+        }
+
+        Map<Boolean, List<FundTransferOutboxEntity>> byBooked = rows.stream()
+            .collect(Collectors.partitioningBy(row -> booked.contains(row.getFundTransfer().getTrackingId())));
+        if (!byBooked.get(true).isEmpty()) {
+            log.info("{} in doubt outbox transfers were booked by core banking", byBooked.get(true).size());
+            finish(byBooked.get(true), transfer -> {
+                transfer.setStatus(TransactionStatus.SUCCESS);
+                transfer.setTransactionReference(transfer.getTrackingId());
+            });
+        }
+        return byBooked.get(false);
+    }
+
+    private void send(List<FundTransferOutboxEntity> rows) {
+        List<FundTransferRequest> transfers = rows.stream().map(row -> {
+            FundTransferEntity transfer = row.getFundTransfer();
+            FundTransferRequest request = new FundTransferRequest();
+            request.setFromAccount(transfer.getFromAccount());
+            request.setToAccount(transfer.getToAccount());
+            request.setAmount(transfer.getAmount());
+            request.setTransactionId(transfer.getTrackingId());
+            return request;
+        }).toList();
+
+        BatchFundTransferResponse response;
+        try {
+            response = coreBankingCallGuard.call("fund-transfer-batch",
+                () -> bankingCoreFeignClient.batchFundTransfer(new BatchFundTransferRequest(transfers)));
+        } catch (CoreBankingUnavailableException e) {
+            log.warn("Outbox batch of {} transfers held back: {}", rows.size(), e.getMessage());
+            reschedule(rows, false, false);
+            return;
+        } catch (FeignException e) {
+            if (!CoreBankingCallGuard.isNotExecuted(e)) {
+                inDoubt(rows, e);
+            } else if (e.status() >= 400 && e.status() < 500 && e.status() != 409) {
+                log.error("Core banking rejected a batch of {} outbox transfers", rows.size(), e);
+                finish(rows, transfer -> transfer.setStatus(TransactionStatus.FAILED));
+            } else {
+                // refused connection, or a lock conflict core banking rolled back
+                log.warn("Core banking did not run a batch of {} outbox transfers, retrying", rows.size(), e);
+                reschedule(rows, true, false);
+            }
+            return;
+        } catch (Exception e) {
+            inDoubt(rows, e);
+            return;
+        }
+
+        complete(rows, response.getResults());
+    }
+
+    private void inDoubt(List<FundTransferOutboxEntity> rows, Exception e) {
+        // the batch may or may not have been applied in core banking, sending it again could debit twice
+        log.warn("Outcome of {} outbox transfers unknown, looking them up after {}", rows.size(), reconcileDelay, e);
+        reschedule(rows, true, true);
+    }
+
+    private void complete(List<FundTransferOutboxEntity> rows, List<FundTransferItemResponse> results) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, FundTransferEntity> transfers = transfersOf(rows);
+            for (FundTransferItemResponse item : results) {
+                FundTransferEntity transfer = transfers.get(rows.get(item.getIndex()).getFundTransfer().getId());
+                transfer.setStatus(item.getStatus());
+                transfer.setTransactionReference(item.getTransactionId());
+            }
+            fundTransferOutboxRepository.deleteAllByIdInBatch(rows.stream().map(FundTransferOutboxEntity::getId).toList());
+        });
+    }
+
+    private void finish(List<FundTransferOutboxEntity> rows, Consumer<FundTransferEntity> outcome) {
+        transactionTemplate.executeWithoutResult(status -> {
+            transfersOf(rows).values().forEach(outcome);
+            fundTransferOutboxRepository.deleteAllByIdInBatch(rows.stream().map(FundTransferOutboxEntity::getId).toList());
+        });
+    }
+
+    /**
+     * Makes the rows due again after a backoff, or after the reconcile delay when they are in doubt. An attempt that
+     * counts and is the last one fails the transfer.
+     */
+    private void reschedule(List<FundTransferOutboxEntity> rows, boolean countAttempt, boolean inDoubt) {
+        List<String> abandoned = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, FundTransferEntity> transfers = transfersOf(rows);
+            Instant now = Instant.now();
+            for (FundTransferOutboxEntity row : fundTransferOutboxRepository.findAllById(rows.stream().map(FundTransferOutboxEntity::getId).toList())) {
+                if (countAttempt) {
+                    row.setAttempts(row.getAttempts() + 1);
+                }
+                if (countAttempt && row.getAttempts() >= maxAttempts) {
+                    FundTransferEntity transfer = transfers.get(row.getFundTransfer().getId());
+                    transfer.setStatus(TransactionStatus.FAILED);
+                    if (inDoubt) {
+                        abandoned.add(transfer.getTrackingId());
+                    }
+                    fundTransferOutboxRepository.delete(row);
+                } else {
+                    Duration backoff = retryBackoff.multipliedBy(1L << Math.min(Math.max(row.getAttempts() - 1, 0), 10));
+                    row.setInDoubt(inDoubt);
+                    row.setAvailableAt(now.plus(inDoubt && backoff.compareTo(reconcileDelay) < 0 ? reconcileDelay : backoff));
+                }
+            }
+        });
+        if (!abandoned.isEmpty()) {
+            log.error("Gave up on {} outbox transfers whose outcome in core banking is unknown, marked FAILED for reconciliation: {}",
+                abandoned.size(), abandoned);
+        }
+    }
+
+    private Map<Long, FundTransferEntity> transfersOf(List<FundTransferOutboxEntity> rows) {
+        return fundTransferRepository.findAllById(rows.stream().map(row -> row.getFundTransfer().getId()).toList())
+            .stream().collect(Collectors.toMap(FundTransferEntity::getId, Function.identity()));
+    }
+
+    private record Claim(List<FundTransferOutboxEntity> inDoubt, List<FundTransferOutboxEntity> unsent) {
+
+        boolean isEmpty() {
+            return inDoubt.isEmpty() && unsent.isEmpty();
+        }
+
+    }
+
+}
@@ -1,8 +1,12 @@
 package com.javatodev.finance.service.rest.client;
 
 import com.javatodev.finance.configuration.CustomFeignClientConfiguration;
+import com.javatodev.finance.model.dto.request.BatchAccountRequest;
+import com.javatodev.finance.model.dto.request.BatchFundTransferRequest;
+import com.javatodev.finance.model.dto.request.BatchTransactionLookupRequest;
 import com.javatodev.finance.model.dto.request.FundTransferRequest;
 import com.javatodev.finance.model.dto.response.AccountResponse;
+import com.javatodev.finance.model.dto.response.BatchFundTransferResponse;
 import com.javatodev.finance.model.dto.response.FundTransferResponse;
 
 import org.springframework.cloud.openfeign.FeignClient;
@@ -11,13 +15,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
-@FeignClient(value = "core-banking-service", configuration = CustomFeignClientConfiguration.class)
+import java.util.List;
+
+@FeignClient(value = "core-banking-service", configuration = CustomFeignClientConfiguration.class, primary = false)
 public interface BankingCoreFeignClient {
 
     @RequestMapping(path = "/api/v1/account/bank-account/{account_number}", method = RequestMethod.GET)
     AccountResponse readAccount(@PathVariable("account_number") String accountNumber);
 
+    @RequestMapping(path = "/api/v1/account/bank-account/_batch", method = RequestMethod.POST)
+    List<AccountResponse> readAccounts(@RequestBody BatchAccountRequest batchAccountRequest);
+
     @RequestMapping(path = "/api/v1/transaction/fund-transfer", method = RequestMethod.POST)
     FundTransferResponse fundTransfer(@RequestBody FundTransferRequest fundTransferRequest);
 
+    @RequestMapping(path = "/api/v1/transaction/fund-transfer/batch", method = RequestMethod.POST)
+    BatchFundTransferResponse batchFundTransfer(@RequestBody BatchFundTransferRequest batchFundTransferRequest);
+
+    @RequestMapping(path = "/api/v1/transaction/_lookup", method = RequestMethod.POST)
+    List<String> lookupTransactions(@RequestBody BatchTransactionLookupRequest batchTransactionLookupRequest);
+
 }
@@ -0,0 +1,30 @@
+-- banking_core_fund_transfer_service.fund_transfer definition
+
+CREATE TABLE IF NOT EXISTS `fund_transfer` (
+    `id`                    bigint(20) NOT NULL AUTO_INCREMENT,
+    `amount`                decimal(19, 2) DEFAULT NULL,
+    `from_account`          varchar(255)   DEFAULT NULL,
+    `status`                varchar(255)   DEFAULT NULL,
+    `to_account`            varchar(255)   DEFAULT NULL,
+    `transaction_reference` varchar(255)   DEFAULT NULL,
+    `created_by`            varchar(255)   DEFAULT NULL,
+    `created_date`          datetime(6)    DEFAULT NULL,
+    `modified_by`           varchar(255)   DEFAULT NULL,
+    `modified_date`         datetime(6)    DEFAULT NULL,
+    `version`               bigint(20)     NOT NULL,
+    PRIMARY KEY (`id`)
+);
+
+-- banking_core_fund_transfer_service.fund_transfer_id_sequence definition
+-- pooled id allocation for fund transfers, so hibernate can batch the inserts
+
+CREATE TABLE `fund_transfer_id_sequence` (
+    `sequence_name` varchar(255) NOT NULL,
+    `next_val`      bigint(20) DEFAULT NULL,
+    PRIMARY KEY (`sequence_name`)
+);
+
+-- the pooled optimizer hands out (next_val - 49 .. next_val), start above the rows written with AUTO_INCREMENT
+INSERT INTO fund_transfer_id_sequence (sequence_name, next_val)
+SELECT 'fund_transfer', COALESCE(MAX(id), 0) + 50
+FROM fund_transfer;
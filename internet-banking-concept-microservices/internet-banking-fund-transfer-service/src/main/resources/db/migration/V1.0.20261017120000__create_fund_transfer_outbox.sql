@@ -0,0 +1,18 @@
+-- tracking id handed out to clients of the asynchronous fund transfer api
+
+ALTER TABLE `fund_transfer`
+    ADD COLUMN `tracking_id` varchar(36) DEFAULT NULL,
+    ADD UNIQUE KEY `uk_fund_transfer_tracking_id` (`tracking_id`);
+
+-- banking_core_fund_transfer_service.fund_transfer_outbox definition
+
+CREATE TABLE `fund_transfer_outbox` (
+    `id`               bigint(20)  NOT NULL AUTO_INCREMENT,
+    `fund_transfer_id` bigint(20)  NOT NULL,
+    `attempts`         int(11)     NOT NULL DEFAULT 0,
+    `available_at`     datetime(6) NOT NULL,
+    `created_date`     datetime(6) NOT NULL,
+    PRIMARY KEY (`id`),
+    KEY `idx_fund_transfer_outbox_available_at` (`available_at`),
+    CONSTRAINT `fk_fund_transfer_outbox_fund_transfer` FOREIGN KEY (`fund_transfer_id`) REFERENCES `fund_transfer` (`id`)
+);
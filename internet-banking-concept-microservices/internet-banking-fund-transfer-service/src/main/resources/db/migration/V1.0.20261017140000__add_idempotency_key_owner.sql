@@ -0,0 +1,4 @@
+-- token of the request holding an IN_PROGRESS key, only that request may record the outcome
+
+ALTER TABLE `idempotency_key`
+    ADD COLUMN `owner` varchar(36) DEFAULT NULL;
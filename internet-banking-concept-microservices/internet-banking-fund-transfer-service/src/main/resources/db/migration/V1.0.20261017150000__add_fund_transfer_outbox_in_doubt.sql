@@ -0,0 +1,4 @@
+-- outbox rows that may have reached core banking are looked up by transaction id before they are sent again
+
+ALTER TABLE `fund_transfer_outbox`
+    ADD COLUMN `in_doubt` bit(1) NOT NULL DEFAULT b'0';
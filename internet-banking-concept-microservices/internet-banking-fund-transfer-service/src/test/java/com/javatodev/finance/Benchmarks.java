@@ -0,0 +1,131 @@
+package com.javatodev.finance;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Measurements for the benchmarks, the tests tagged {@value #TAG} that only run with {@code gradle benchmark}.
+ * Their sizes are read from {@code benchmark.*} system properties, so a run can be scaled up from the command
+ * line, for example {@code gradle benchmark -Dbenchmark.transfers=10000}.
+ */
+public final class Benchmarks {
+
+    public static final String TAG = "benchmark";
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Benchmarks() {
+    }
+
+    public static int setting(String name, int defaultValue) {
+        return Integer.getInteger("benchmark." + name, defaultValue);
+    }
+
+    /**
+     * Calls the operation {@code warmup} times, then measures the time and the heap allocated by the calling
+     * thread per call over {@code iterations} calls.
+     */
+    public static Measurement measure(int warmup, int iterations, Runnable operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Measurement((double) elapsed / iterations, (double) allocated / iterations);
+    }
+
+    /**
+     * Runs {@code operations} calls on {@code threads} platform threads, each call gets its index. Calls that
+     * throw are counted as failures and left out of the latencies.
+     */
+    public static Load load(int threads, int operations, IntConsumer operation) throws InterruptedException {
+        return load(Executors.newFixedThreadPool(threads), threads, operations, operation);
+    }
+
+    /**
+     * Like {@link #load(int, int, IntConsumer)}, with {@code concurrency} virtual threads making the calls, for
+     * loads with more concurrent calls than platform threads are worth starting.
+     */
+    public static Load loadOnVirtualThreads(int concurrency, int operations, IntConsumer operation) throws InterruptedException {
+        return load(Executors.newVirtualThreadPerTaskExecutor(), concurrency, operations, operation);
+    }
+
+    private static Load load(ExecutorService executor, int threads, int operations, IntConsumer operation) throws InterruptedException {
+        long[] latencies = new long[operations];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < operations) {
+                    long begin = System.nanoTime();
+                    try {
+                        operation.accept(index);
+                        latencies[index] = System.nanoTime() - begin;
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                        latencies[index] = -1;
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("Benchmark load did not finish in time");
+        }
+        return Load.of(operations, failures.get(), System.nanoTime() - start, latencies);
+    }
+
+    public static void report(String benchmark, String format, Object... args) {
+        System.out.printf(Locale.ROOT, "[benchmark] %-48s %s%n", benchmark, String.format(Locale.ROOT, format, args));
+    }
+
+    public record Measurement(double nanosPerOp, double bytesPerOp) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%10.1f ns/op %10.1f B/op", nanosPerOp, bytesPerOp);
+        }
+
+    }
+
+    public record Load(int operations, int failures, long elapsedNanos, long p50Nanos, long p99Nanos) {
+
+        static Load of(int operations, int failures, long elapsedNanos, long[] latencies) {
+            long[] succeeded = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+            if (succeeded.length == 0) {
+                return new Load(operations, failures, elapsedNanos, 0, 0);
+            }
+            return new Load(operations, failures, elapsedNanos, succeeded[(succeeded.length - 1) / 2],
+                succeeded[(int) Math.ceil(succeeded.length * 0.99) - 1]);
+        }
+
+        public double perSecond() {
+            return (operations - failures) / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%9.1f ops/s  p50 %7.2f ms  p99 %7.2f ms  failed %d/%d", perSecond(),
+                p50Nanos / 1e6, p99Nanos / 1e6, failures, operations);
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.javatodev.finance;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Requests that block on I/O for {@code benchmark.io-millis}, at {@code benchmark.connections} concurrent
+ * connections, against the service with thread-per-request on Tomcat's pool and with virtual threads. Reports the
+ * throughput, the peak of live platform threads and the peak heap used, sampled while the load runs. The client
+ * runs on virtual threads in the same JVM, so the platform threads counted are the server's. Sized with
+ * {@code benchmark.requests}.
+ */
+@Tag(Benchmarks.TAG)
+class VirtualThreadLoadBenchmarkTests {
+
+    static final String PROFILE = "virtual-thread-benchmark";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Test
+    void blockingRequestsAtHighConcurrency() throws Exception {
+        int connections = Benchmarks.setting("connections", 5000);
+        int requests = Benchmarks.setting("requests", 20000);
+        int ioMillis = Benchmarks.setting("io-millis", 50);
+
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtualThreads, ioMillis);
+                 HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                    + ((WebServerApplicationContext) context).getWebServer().getPort() + "/benchmark/blocking")).build();
+
+                Benchmarks.loadOnVirtualThreads(connections, connections, index -> send(client, request));
+                System.gc();
+                THREADS.resetPeakThreadCount();
+                AtomicLong peakHeap = new AtomicLong();
+                Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        peakHeap.accumulateAndGet(MEMORY.getHeapMemoryUsage().getUsed(), Math::max);
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                });
+                Benchmarks.Load load = Benchmarks.loadOnVirtualThreads(connections, requests, index -> send(client, request));
+                sampler.interrupt();
+                sampler.join();
+
+                Benchmarks.report((virtualThreads ? "virtual threads " : "thread per request ") + connections + " connections",
+                    "%s  %d platform threads  %.0f MB heap", load, THREADS.getPeakThreadCount(), peakHeap.get() / 1e6);
+                assertThat(load.failures()).isLessThan(requests);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads, int ioMillis) {
+        return new SpringApplicationBuilder(InternetBankingFundTransferServiceApplication.class, BlockingEndpoint.class)
+            .profiles(PROFILE)
+            .properties(
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "benchmark.io-millis=" + ioMillis,
+                "spring.datasource.url=jdbc:h2:mem:virtual_thread_benchmark;DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.cloud.config.enabled=false",
+                "logging.level.com.javatodev.finance=WARN")
+            .run();
+    }
+
+    private static void send(HttpClient client, HttpRequest request) {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Status " + response.statusCode());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stands in for a handler waiting on the database or on core banking. Registered as a source of the benchmark's
+     * application, the profile keeps the scans of the other test contexts from picking it up.
+     */
+    @Profile(PROFILE)
+    @RestController
+    static class BlockingEndpoint {
+
+        @Value("${benchmark.io-millis}")
+        private long ioMillis;
+
+        @GetMapping("/benchmark/blocking")
+        String blocking() throws InterruptedException {
+            Thread.sleep(ioMillis);
+            return "ok";
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.javatodev.finance.model.mapper;
+
+import com.javatodev.finance.Benchmarks;
+import com.javatodev.finance.model.TransactionStatus;
+import com.javatodev.finance.model.dto.FundTransfer;
+import com.javatodev.finance.model.entity.FundTransferEntity;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entity to DTO mapping of a fund transfer by the mapper and by {@link BeanUtils#copyProperties}, which the mapper
+ * replaced. Reports the time and the heap allocated per mapping. Sized with {@code benchmark.iterations}.
+ */
+@Tag(Benchmarks.TAG)
+class MapperBenchmarkTests {
+
+    // keeps the results reachable, so the mappings are not optimized away
+    private Object result;
+
+    @Test
+    void entityToDto() {
+        int iterations = Benchmarks.setting("iterations", 200000);
+        FundTransferEntity transfer = transfer();
+        FundTransferMapper fundTransferMapper = new FundTransferMapper();
+
+        measure("fund transfer mapper", iterations, () -> fundTransferMapper.convertToDto(transfer));
+        measure("fund transfer BeanUtils", iterations, () -> copyTransfer(transfer));
+
+        // BeanUtils skips the status, the enum does not fit the string of the DTO
+        assertThat(fundTransferMapper.convertToDto(transfer)).usingRecursiveComparison().ignoringFields("status")
+            .isEqualTo(copyTransfer(transfer));
+    }
+
+    private void measure(String benchmark, int iterations, Supplier<Object> mapping) {
+        Benchmarks.report(benchmark, "%s", Benchmarks.measure(iterations, iterations, () -> result = mapping.get()));
+    }
+
+    private static FundTransfer copyTransfer(FundTransferEntity entity) {
+        FundTransfer dto = new FundTransfer();
+        BeanUtils.copyProperties(entity, dto);
+        return dto;
+    }
+
+    private static FundTransferEntity transfer() {
+        FundTransferEntity transfer = new FundTransferEntity();
+        transfer.setId(42L);
+        transfer.setTrackingId("7c9e6679-7425-40de-944b-e07fc1f90ae7");
+        transfer.setTransactionReference("c5b8f6a2-7d4e-4b1a-9f3c-2e6d8a0b1c4f");
+        transfer.setFromAccount("100015003000");
+        transfer.setToAccount("100015003001");
+        transfer.setAmount(new BigDecimal("250.75"));
+        transfer.setStatus(TransactionStatus.SUCCESS);
+        transfer.setCreatedDate(Instant.parse("2026-10-17T08:00:00Z"));
+        transfer.setCreatedBy("42");
+        transfer.setModifiedDate(Instant.parse("2026-10-17T08:00:01Z"));
+        transfer.setModifiedBy("42");
+        transfer.setVersion(1);
+        return transfer;
+    }
+
+}
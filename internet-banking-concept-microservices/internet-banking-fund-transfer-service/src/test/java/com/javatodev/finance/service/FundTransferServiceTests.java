@@ -0,0 +1,128 @@
+package com.javatodev.finance.service;
+
+import com.javatodev.finance.exception.CoreBankingUnavailableException;
+import com.javatodev.finance.exception.GlobalErrorCode;
+import com.javatodev.finance.model.TransactionStatus;
+import com.javatodev.finance.model.dto.request.FundTransferRequest;
+import com.javatodev.finance.model.dto.response.BatchFundTransferResponse;
+import com.javatodev.finance.model.dto.response.FundTransferItemResponse;
+import com.javatodev.finance.model.entity.FundTransferOutboxEntity;
+import com.javatodev.finance.model.repository.FundTransferOutboxRepository;
+import com.javatodev.finance.model.repository.FundTransferRepository;
+import com.javatodev.finance.service.rest.client.BankingCoreFeignClient;
+import com.javatodev.finance.service.rest.client.CoreBankingCallGuard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:fund_transfer_batch;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "app.config.fund-transfer.async.enabled=true",
+    "app.config.fund-transfer.async.reconcile-delay=1h"
+})
+class FundTransferServiceTests {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST, "/api/v1/transaction/fund-transfer/batch",
+        Map.of(), null, null, null);
+
+    @Autowired
+    private FundTransferService fundTransferService;
+
+    @Autowired
+    private FundTransferRepository fundTransferRepository;
+
+    @Autowired
+    private FundTransferOutboxRepository fundTransferOutboxRepository;
+
+    @MockBean
+    private BankingCoreFeignClient bankingCoreFeignClient;
+
+    @MockBean
+    private CoreBankingCallGuard coreBankingCallGuard;
+
+    @BeforeEach
+    void setUp() {
+        when(coreBankingCallGuard.call(anyString(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    @Test
+    void chunkHeldBackByTheGuardFailsWithItsCode() {
+        doThrow(new CoreBankingUnavailableException("Core banking is unavailable")).when(coreBankingCallGuard).call(anyString(), any());
+
+        BatchFundTransferResponse response = fundTransferService.batchFundTransfer(transfers(2));
+
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(FundTransferItemResponse::getCode)
+            .containsOnly(GlobalErrorCode.CORE_BANKING_UNAVAILABLE);
+        assertStatus(response, TransactionStatus.FAILED);
+    }
+
+    @Test
+    void chunkRejectedByCoreBankingFailsWithTheCodeItAnswered() {
+        when(bankingCoreFeignClient.batchFundTransfer(any())).thenThrow(FeignException.errorStatus("batchFundTransfer",
+            Response.builder().status(400).request(REQUEST).headers(Map.of())
+                .body("{\"code\":\"BANKING-CORE-SERVICE-1000\",\"message\":\"Invalid request\"}", StandardCharsets.UTF_8).build()));
+
+        BatchFundTransferResponse response = fundTransferService.batchFundTransfer(transfers(2));
+
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(FundTransferItemResponse::getCode).containsOnly("BANKING-CORE-SERVICE-1000");
+        assertStatus(response, TransactionStatus.FAILED);
+    }
+
+    @Test
+    void chunkWithAnUnknownOutcomeGoesToTheOutboxInDoubt() {
+        when(bankingCoreFeignClient.batchFundTransfer(any())).thenThrow(new RetryableException(-1, "Read timed out",
+            Request.HttpMethod.POST, new SocketTimeoutException("Read timed out"), (Long) null, REQUEST));
+
+        BatchFundTransferResponse response = fundTransferService.batchFundTransfer(transfers(2));
+
+        assertThat(response.getResults()).extracting(FundTransferItemResponse::getStatus).containsOnly(TransactionStatus.PENDING);
+        assertStatus(response, TransactionStatus.PENDING);
+        List<String> trackingIds = response.getResults().stream().map(FundTransferItemResponse::getTrackingId).toList();
+        assertThat(fundTransferOutboxRepository.findAll()).filteredOn(row -> trackingIds.contains(fundTransferRepository
+                .findById(row.getFundTransfer().getId()).orElseThrow().getTrackingId()))
+            .hasSize(2).allMatch(FundTransferOutboxEntity::isInDoubt);
+    }
+
+    private void assertStatus(BatchFundTransferResponse response, TransactionStatus status) {
+        for (FundTransferItemResponse item : response.getResults()) {
+            assertThat(fundTransferRepository.findByTrackingId(item.getTrackingId()).orElseThrow().getStatus()).isEqualTo(status);
+        }
+    }
+
+    private static List<FundTransferRequest> transfers(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            FundTransferRequest request = new FundTransferRequest();
+            request.setFromAccount("100015003000");
+            request.setToAccount("100015003001");
+            request.setAmount(new BigDecimal("10.00"));
+            return request;
+        }).toList();
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.javatodev.finance.service.outbox;
+
+import com.javatodev.finance.exception.CoreBankingUnavailableException;
+import com.javatodev.finance.model.TransactionStatus;
+import com.javatodev.finance.model.dto.request.BatchFundTransferRequest;
+import com.javatodev.finance.model.dto.request.BatchTransactionLookupRequest;
+import com.javatodev.finance.model.dto.request.FundTransferRequest;
+import com.javatodev.finance.model.dto.response.BatchFundTransferResponse;
+import com.javatodev.finance.model.dto.response.FundTransferItemResponse;
+import com.javatodev.finance.model.entity.FundTransferEntity;
+import com.javatodev.finance.model.repository.FundTransferRepository;
+import com.javatodev.finance.service.FundTransferService;
+import com.javatodev.finance.service.rest.client.BankingCoreFeignClient;
+import com.javatodev.finance.service.rest.client.CoreBankingCallGuard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:fund_transfer_outbox;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "app.config.fund-transfer.async.enabled=true",
+    "app.config.fund-transfer.async.dispatcher-threads=1",
+    "app.config.fund-transfer.async.poll-interval=20ms",
+    "app.config.fund-transfer.async.retry-backoff=20ms",
+    "app.config.fund-transfer.async.reconcile-delay=100ms",
+    "app.config.fund-transfer.async.max-attempts=3"
+})
+class FundTransferOutboxDispatcherTests {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST, "/api/v1/transaction/fund-transfer/batch",
+        Map.of(), null, null, null);
+
+    @Autowired
+    private FundTransferService fundTransferService;
+
+    @Autowired
+    private FundTransferRepository fundTransferRepository;
+
+    @MockBean
+    private BankingCoreFeignClient bankingCoreFeignClient;
+
+    @MockBean
+    private CoreBankingCallGuard coreBankingCallGuard;
+
+    @BeforeEach
+    void setUp() {
+        when(coreBankingCallGuard.call(anyString(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    @Test
+    void refusedBatchIsSentAgain() {
+        when(bankingCoreFeignClient.batchFundTransfer(any()))
+            .thenThrow(failure(new ConnectException("Connection refused")))
+            .thenAnswer(invocation -> booked(invocation.getArgument(0)));
+
+        FundTransferEntity transfer = awaitOutcome(submit());
+
+        assertThat(transfer.getStatus()).isEqualTo(TransactionStatus.SUCCESS);
+        verify(bankingCoreFeignClient, times(2)).batchFundTransfer(any());
+        verify(bankingCoreFeignClient, never()).lookupTransactions(any());
+    }
+
+    @Test
+    void batchWithALostResponseIsLookedUpInsteadOfSentAgain() {
+        when(bankingCoreFeignClient.batchFundTransfer(any())).thenThrow(failure(new SocketTimeoutException("Read timed out")));
+        when(bankingCoreFeignClient.lookupTransactions(any())).thenAnswer(invocation -> invocation.<BatchTransactionLookupRequest>getArgument(0).getTransactionIds());
+
+        String trackingId = submit();
+        FundTransferEntity transfer = awaitOutcome(trackingId);
+
+        assertThat(transfer.getStatus()).isEqualTo(TransactionStatus.SUCCESS);
+        assertThat(transfer.getTransactionReference()).isEqualTo(trackingId);
+        verify(bankingCoreFeignClient, times(1)).batchFundTransfer(any());
+    }
+
+    @Test
+    void batchCoreBankingDidNotBookIsSentAgainWithTheSameTransactionId() {
+        when(bankingCoreFeignClient.batchFundTransfer(any()))
+            .thenThrow(FeignException.errorStatus("batchFundTransfer", Response.builder().status(500).request(REQUEST)
+                .headers(Map.of()).body(new byte[0]).build()))
+            .thenAnswer(invocation -> booked(invocation.getArgument(0)));
+        when(bankingCoreFeignClient.lookupTransactions(any())).thenReturn(List.of());
+
+        String trackingId = submit();
+        FundTransferEntity transfer = awaitOutcome(trackingId);
+
+        assertThat(transfer.getStatus()).isEqualTo(TransactionStatus.SUCCESS);
+        ArgumentCaptor<BatchFundTransferRequest> sent = ArgumentCaptor.forClass(BatchFundTransferRequest.class);
+        verify(bankingCoreFeignClient, times(2)).batchFundTransfer(sent.capture());
+        assertThat(sent.getAllValues()).allSatisfy(batch ->
+            assertThat(batch.getTransfers()).extracting(FundTransferRequest::getTransactionId).containsExactly(trackingId));
+    }
+
+    @Test
+    void batchesHeldBackByTheGuardDoNotUseUpAttempts() {
+        AtomicInteger heldBack = new AtomicInteger();
+        doAnswer(invocation -> {
+            // many more rejections than attempts, as while the circuit breaker is open
+            if (heldBack.incrementAndGet() <= 10) {
+                throw new CoreBankingUnavailableException("Core banking is unavailable, please retry later");
+            }
+            return invocation.<Supplier<?>>getArgument(1).get();
+        }).when(coreBankingCallGuard).call(anyString(), any());
+        when(bankingCoreFeignClient.batchFundTransfer(any())).thenAnswer(invocation -> booked(invocation.getArgument(0)));
+
+        FundTransferEntity transfer = awaitOutcome(submit());
+
+        assertThat(transfer.getStatus()).isEqualTo(TransactionStatus.SUCCESS);
+        assertThat(heldBack).hasValueGreaterThan(10);
+    }
+
+    @Test
+    void transferWhoseOutcomeStaysUnknownFails() {
+        when(bankingCoreFeignClient.batchFundTransfer(any())).thenThrow(failure(new SocketTimeoutException("Read timed out")));
+        when(bankingCoreFeignClient.lookupTransactions(any())).thenThrow(failure(new SocketTimeoutException("Read timed out")));
+
+        FundTransferEntity transfer = awaitOutcome(submit());
+
+        assertThat(transfer.getStatus()).isEqualTo(TransactionStatus.FAILED);
+        verify(bankingCoreFeignClient, times(1)).batchFundTransfer(any());
+    }
+
+    private String submit() {
+        FundTransferRequest request = new FundTransferRequest();
+        request.setFromAccount("100015003000");
+        request.setToAccount("100015003001");
+        request.setAmount(new BigDecimal("10.00"));
+        return fundTransferService.submitFundTransfer(request).getTrackingId();
+    }
+
+    private FundTransferEntity awaitOutcome(String trackingId) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (true) {
+            FundTransferEntity transfer = fundTransferRepository.findByTrackingId(trackingId).orElseThrow();
+            if (transfer.getStatus() != TransactionStatus.PENDING) {
+                return transfer;
+            }
+            assertThat(System.nanoTime()).as("outbox transfer settled in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static RetryableException failure(Exception cause) {
+        return new RetryableException(-1, cause.getMessage(), Request.HttpMethod.POST, cause, (Long) null, REQUEST);
+    }
+
+    private static BatchFundTransferResponse booked(BatchFundTransferRequest batch) {
+        List<FundTransferItemResponse> results = new ArrayList<>();
+        for (int i = 0; i < batch.getTransfers().size(); i++) {
+            FundTransferItemResponse item = new FundTransferItemResponse();
+            item.setIndex(i);
+            item.setStatus(TransactionStatus.SUCCESS);
+            item.setTransactionId(batch.getTransfers().get(i).getTransactionId());
+            results.add(item);
+        }
+        BatchFundTransferResponse response = new BatchFundTransferResponse();
+        response.setSucceeded(results.size());
+        response.setResults(results);
+        return response;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.javatodev.finance.service.rest.client;
+
+import com.javatodev.finance.configuration.filter.ApiRequestContext;
+import com.javatodev.finance.configuration.filter.ApiRequestContextHolder;
+import com.javatodev.finance.model.dto.request.BatchAccountRequest;
+import com.javatodev.finance.model.dto.response.AccountResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:core_banking_account_reader;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "app.config.core-banking.account-read.batch-window=200ms"
+})
+class CoreBankingAccountReaderTests {
+
+    @Autowired
+    private CoreBankingAccountReader coreBankingAccountReader;
+
+    @MockBean
+    private BankingCoreFeignClient bankingCoreFeignClient;
+
+    @MockBean
+    private CoreBankingCallGuard coreBankingCallGuard;
+
+    // account numbers core banking was asked for, by the auth id bound while asking
+    private final Map<String, List<String>> requestedBy = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(coreBankingCallGuard.call(anyString(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(bankingCoreFeignClient.readAccount(anyString())).thenAnswer(invocation -> {
+            String number = invocation.getArgument(0);
+            requestedBy.put(ApiRequestContextHolder.getContext().getAuthId(), List.of(number));
+            return account(number);
+        });
+        when(bankingCoreFeignClient.readAccounts(any())).thenAnswer(invocation -> {
+            List<String> numbers = invocation.<BatchAccountRequest>getArgument(0).getAccountNumbers();
+            requestedBy.put(ApiRequestContextHolder.getContext().getAuthId(), numbers);
+            return numbers.stream().map(CoreBankingAccountReaderTests::account).toList();
+        });
+    }
+
+    @Test
+    void lookupsRunWithTheContextOfTheCallerTheyServe() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<AccountResponse> first = executor.submit(() -> readAs("alice", "100015003000"));
+            Future<AccountResponse> second = executor.submit(() -> readAs("alice", "100015003001"));
+            Future<AccountResponse> third = executor.submit(() -> readAs("bob", "100015003000"));
+
+            assertThat(first.get().getNumber()).isEqualTo(100015003000L);
+            assertThat(second.get().getNumber()).isEqualTo(100015003001L);
+            assertThat(third.get().getNumber()).isEqualTo(100015003000L);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(requestedBy).containsOnlyKeys("alice", "bob");
+        assertThat(requestedBy.get("alice")).containsExactlyInAnyOrder("100015003000", "100015003001");
+        assertThat(requestedBy.get("bob")).containsExactly("100015003000");
+    }
+
+    @Test
+    void contextOutsideARequestIsReadOnly() {
+        assertThat(ApiRequestContextHolder.getContext().getAuthId()).isNull();
+        assertThatThrownBy(() -> ApiRequestContextHolder.getContext().setAuthId("alice")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private AccountResponse readAs(String authId, String accountNumber) {
+        ApiRequestContext context = new ApiRequestContext();
+        context.setAuthId(authId);
+        try (ApiRequestContextHolder.Scope scope = ApiRequestContextHolder.bind(context)) {
+            return coreBankingAccountReader.readAccount(accountNumber);
+        }
+    }
+
+    private static AccountResponse account(String number) {
+        AccountResponse account = new AccountResponse();
+        account.setNumber(Long.valueOf(number));
+        return account;
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.javatodev.finance.service.rest.client;
+
+import com.javatodev.finance.Benchmarks;
+import com.javatodev.finance.InternetBankingFundTransferServiceApplication;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Account reads through the Feign client and through the WebClient client against a stub of core banking that
+ * answers after {@code benchmark.core-millis}, with {@code benchmark.concurrency} virtual threads calling. Reports
+ * the throughput, latency and the peak of live platform threads. The stub is the JDK's HTTP server, which speaks
+ * HTTP/1.1 only, so the WebClient runs without h2c and with a connection per concurrent call, like Feign. Sized
+ * with {@code benchmark.calls}.
+ */
+@Tag(Benchmarks.TAG)
+class CoreBankingClientBenchmarkTests {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void accountReads() throws Exception {
+        int concurrency = Benchmarks.setting("concurrency", 200);
+        int calls = Benchmarks.setting("calls", 20000);
+        int coreMillis = Benchmarks.setting("core-millis", 20);
+
+        HttpServer coreBanking = coreBankingStub(coreMillis);
+        try {
+            for (String client : new String[]{"feign", "webclient"}) {
+                try (ConfigurableApplicationContext context = start(client, coreBanking.getAddress().getPort(), concurrency)) {
+                    BankingCoreFeignClient bankingCoreClient = context.getBean(BankingCoreFeignClient.class);
+
+                    Benchmarks.loadOnVirtualThreads(concurrency, calls / 5, index -> bankingCoreClient.readAccount(String.valueOf(index)));
+                    THREADS.resetPeakThreadCount();
+                    Benchmarks.Load load = Benchmarks.loadOnVirtualThreads(concurrency, calls,
+                        index -> bankingCoreClient.readAccount(String.valueOf(index)));
+
+                    Benchmarks.report("core banking " + client + " " + concurrency + " concurrent calls", "%s  %d platform threads",
+                        load, THREADS.getPeakThreadCount());
+                    assertThat(load.failures()).isLessThan(calls);
+                }
+            }
+        } finally {
+            coreBanking.stop(0);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String client, int coreBankingPort, int concurrency) {
+        return new SpringApplicationBuilder(InternetBankingFundTransferServiceApplication.class)
+            .properties(
+                "server.port=0",
+                "app.config.core-banking.client=" + client,
+                "app.config.core-banking.webclient.http2=false",
+                "app.config.core-banking.webclient.max-connections=" + concurrency,
+                "spring.cloud.discovery.client.simple.instances.core-banking-service[0].uri=http://localhost:" + coreBankingPort,
+                "eureka.client.enabled=false",
+                "spring.datasource.url=jdbc:h2:mem:core_banking_client_benchmark;DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.cloud.config.enabled=false",
+                "logging.level.com.javatodev.finance=WARN")
+            .run();
+    }
+
+    private static HttpServer coreBankingStub(int coreMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/v1/account/bank-account/", exchange -> {
+            String number = exchange.getRequestURI().getPath().substring("/api/v1/account/bank-account/".length());
+            try {
+                Thread.sleep(coreMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "{\"id\":1,\"number\":" + number
+                + ",\"type\":\"SAVINGS_ACCOUNT\",\"status\":\"ACTIVE\",\"actualBalance\":100.00,\"availableBalance\":100.00}");
+        });
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.javatodev.finance.service.rest.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javatodev.finance.Benchmarks;
+import com.javatodev.finance.model.dto.request.BatchFundTransferRequest;
+import com.javatodev.finance.model.dto.request.FundTransferRequest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Encoding and decoding of the bodies sent to core banking as JSON and as CBOR, with mappers built the way Spring
+ * builds them for its converters: a single transfer and a batch of {@code benchmark.batch-size} transfers. Reports
+ * the time and the heap allocated per call and the encoded size. Sized with {@code benchmark.iterations}.
+ */
+@Tag(Benchmarks.TAG)
+class CoreBankingEncodingBenchmarkTests {
+
+    @Test
+    void transferBodies() {
+        int iterations = Benchmarks.setting("iterations", 100000);
+        int batchSize = Benchmarks.setting("batch-size", 100);
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+
+        List<FundTransferRequest> transfers = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            transfers.add(transfer(i));
+        }
+        measure("single transfer", FundTransferRequest.class, transfer(0), json, cbor, iterations);
+        measure("batch of " + batchSize, BatchFundTransferRequest.class, new BatchFundTransferRequest(transfers), json, cbor,
+            Math.max(1, iterations / 10));
+    }
+
+    private static <T> void measure(String payload, Class<T> type, T body, ObjectMapper json, ObjectMapper cbor, int iterations) {
+        for (String format : new String[]{"json", "cbor"}) {
+            ObjectMapper mapper = format.equals("json") ? json : cbor;
+            byte[] encoded = write(mapper, body);
+
+            Benchmarks.Measurement encoding = Benchmarks.measure(iterations, iterations, () -> write(mapper, body));
+            Benchmarks.Measurement decoding = Benchmarks.measure(iterations, iterations, () -> read(mapper, encoded, type));
+
+            Benchmarks.report(format + " encode " + payload, "%s  %d bytes", encoding, encoded.length);
+            Benchmarks.report(format + " decode " + payload, "%s", decoding);
+            assertThat(read(mapper, encoded, type)).isEqualTo(body);
+        }
+    }
+
+    private static byte[] write(ObjectMapper mapper, Object body) {
+        try {
+            return mapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> T read(ObjectMapper mapper, byte[] encoded, Class<T> type) {
+        try {
+            return mapper.readValue(encoded, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FundTransferRequest transfer(int index) {
+        FundTransferRequest request = new FundTransferRequest();
+        request.setFromAccount(String.valueOf(100015003000L + index));
+        request.setToAccount(String.valueOf(100015003001L + index));
+        request.setAmount(new BigDecimal("250.75"));
+        request.setAuthID("c5b8f6a2-7d4e-4b1a-9f3c-2e6d8a0b1c4f");
+        request.setTransactionId(UUID.nameUUIDFromBytes(new byte[]{(byte) index}).toString());
+        return request;
+    }
+
+}
@@ -1,5 +1,9 @@
 package com.javatodev.finance.configuration.feign;
 
+import com.javatodev.finance.configuration.filter.ApiRequestContextHolder;
+import com.javatodev.finance.configuration.filter.AppAuthUserFilter;
+
+import feign.RequestInterceptor;
 import feign.codec.ErrorDecoder;
 import org.springframework.cloud.openfeign.FeignClientProperties;
 import org.springframework.context.annotation.Bean;
@@ -13,4 +17,17 @@ public class CustomFeignClientConfiguration extends FeignClientProperties.FeignC
         return new CustomFeignErrorDecoder();
     }
 
+    /**
+     * Passes the caller's auth id on, so core banking reads from its primary right after this caller wrote.
+     */
+    @Bean
+    RequestInterceptor authIdForwardingInterceptor() {
+        return template -> {
+            String authId = ApiRequestContextHolder.getContext().getAuthId();
+            if (authId != null) {
+                template.header(AppAuthUserFilter.HTTP_HEADER_AUTH_USER_ID, authId);
+            }
+        };
+    }
+
 }
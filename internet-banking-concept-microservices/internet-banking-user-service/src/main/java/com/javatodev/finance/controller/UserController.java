@@ -9,8 +9,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,8 +33,12 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> readUsers(Pageable pageable) {
+    public ResponseEntity<?> readUsers(@RequestParam(value = "after", required = false) String after, Pageable pageable) {
         log.info("Reading all users from API");
+        // with an after token, even an empty one, the users are paged by keyset
+        if (after != null) {
+            return ResponseEntity.ok(userService.readUsers(after, pageable.getPageSize()));
+        }
         return ResponseEntity.ok(userService.readUsers(pageable));
     }
 
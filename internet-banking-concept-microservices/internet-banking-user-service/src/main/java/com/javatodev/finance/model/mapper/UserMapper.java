@@ -1,15 +1,19 @@
 package com.javatodev.finance.model.mapper;
 
+import com.javatodev.finance.model.dto.AuditAware;
 import com.javatodev.finance.model.dto.User;
 import com.javatodev.finance.model.entity.UserEntity;
-import org.springframework.beans.BeanUtils;
 
 public class UserMapper extends BaseMapper<UserEntity, User>{
     @Override
     public UserEntity convertToEntity(User dto, Object... args) {
         UserEntity userEntity = new UserEntity();
         if (dto != null) {
-            BeanUtils.copyProperties(dto, userEntity);
+            userEntity.setId(dto.getId());
+            userEntity.setAuthId(dto.getAuthId());
+            userEntity.setIdentification(dto.getIdentification());
+            userEntity.setStatus(dto.getStatus());
+            copyAudit(dto, userEntity);
         }
         return userEntity;
     }
@@ -18,8 +22,20 @@ public class UserMapper extends BaseMapper<UserEntity, User>{
     public User convertToDto(UserEntity entity, Object... args) {
         User user = new User();
         if (entity != null) {
-            BeanUtils.copyProperties(entity, user);
+            user.setId(entity.getId());
+            user.setAuthId(entity.getAuthId());
+            user.setIdentification(entity.getIdentification());
+            user.setStatus(entity.getStatus());
+            copyAudit(entity, user);
         }
         return user;
     }
+
+    private static void copyAudit(AuditAware source, AuditAware target) {
+        target.setCreatedDate(source.getCreatedDate());
+        target.setCreatedBy(source.getCreatedBy());
+        target.setModifiedDate(source.getModifiedDate());
+        target.setModifiedBy(source.getModifiedBy());
+        target.setVersion(source.getVersion());
+    }
 }
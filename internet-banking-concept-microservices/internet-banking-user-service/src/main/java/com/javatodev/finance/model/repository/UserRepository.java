@@ -1,7 +1,19 @@
 package com.javatodev.finance.model.repository;
 
 import com.javatodev.finance.model.entity.UserEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
+
+    Slice<UserEntity> findAllBy(Pageable pageable);
+
+    @Query("select u from UserEntity u where u.id > :afterId order by u.id")
+    List<UserEntity> findAllAfter(@Param("afterId") long afterId, Pageable pageable);
+
 }
@@ -0,0 +1,111 @@
+package com.javatodev.finance.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.javatodev.finance.exception.SimpleBankingGlobalException;
+
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves the Keycloak identities of a whole page of users at once. Snapshots are kept in a TTL bound cache
+ * and the misses of a page are fetched concurrently on virtual threads, so the latency of a page is close
+ * to a single admin API round trip instead of one per row.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeycloakIdentityResolver {
+
+    private final KeycloakUserService keycloakUserService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.config.keycloak.identity-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.config.keycloak.identity-cache.ttl:5m}")
+    private Duration ttl;
+
+    // keep in line with the connection pool of the admin client, more requests would only queue on it
+    @Value("${app.config.keycloak.identity-cache.lookup-concurrency:10}")
+    private int lookupConcurrency;
+
+    private Cache<String, UserRepresentation> identities;
+    private Semaphore lookupPermits;
+
+    @PostConstruct
+    void init() {
+        identities = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, identities, "keycloak-identities");
+        lookupPermits = new Semaphore(lookupConcurrency);
+    }
+
+    /**
+     * Returns the identity snapshot of every given auth id. The returned representations are shared and must
+     * not be modified, read them through {@link KeycloakUserService} when they are going to be updated.
+     */
+    public Map<String, UserRepresentation> resolve(Collection<String> authIds) {
+        Set<String> uniqueIds = new LinkedHashSet<>(authIds);
+        Map<String, UserRepresentation> resolved = new HashMap<>(identities.getAllPresent(uniqueIds));
+        uniqueIds.removeAll(resolved.keySet());
+
+        if (uniqueIds.isEmpty()) {
+            return resolved;
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<String, Future<UserRepresentation>> lookups = new LinkedHashMap<>();
+            uniqueIds.forEach(authId -> lookups.put(authId, executor.submit(() -> lookup(authId))));
+            lookups.forEach((authId, lookup) -> resolved.put(authId, await(lookup)));
+        }
+        return resolved;
+    }
+
+    public void invalidate(String authId) {
+        identities.invalidate(authId);
+    }
+
+    private UserRepresentation lookup(String authId) throws InterruptedException {
+        lookupPermits.acquire();
+        try {
+            UserRepresentation userRepresentation = keycloakUserService.readUser(authId);
+            identities.put(authId, userRepresentation);
+            return userRepresentation;
+        } finally {
+            lookupPermits.release();
+        }
+    }
+
+    private UserRepresentation await(Future<UserRepresentation> lookup) {
+        try {
+            return lookup.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resolving user identities", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SimpleBankingGlobalException globalException) {
+                throw globalException;
+            }
+            throw new IllegalStateException("Failed to resolve user identity", e.getCause());
+        }
+    }
+
+}
@@ -7,26 +7,31 @@ import com.javatodev.finance.model.dto.UserUpdateRequest;
 import com.javatodev.finance.model.entity.UserEntity;
 import com.javatodev.finance.model.mapper.UserMapper;
 import com.javatodev.finance.model.repository.UserRepository;
+import com.javatodev.finance.model.rest.response.CursorPage;
 import com.javatodev.finance.model.rest.response.UserResponse;
 import com.javatodev.finance.service.rest.BankingCoreRestClient;
+import com.javatodev.finance.service.rest.CoreBankingCallGuard;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.keycloak.representations.idm.CredentialRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService {
     private final KeycloakUserService keycloakUserService;
+    private final KeycloakIdentityResolver keycloakIdentityResolver;
     private final UserRepository userRepository;
     private final BankingCoreRestClient bankingCoreRestClient;
+    private final CoreBankingCallGuard coreBankingCallGuard;
 
     private UserMapper userMapper = new UserMapper();
 
@@ -37,7 +42,7 @@ public class UserService {
             throw new UserAlreadyRegisteredException("This email already registered as a user. Please check and retry.", GlobalErrorCode.ERROR_EMAIL_REGISTERED);
         }
 
-        UserResponse userResponse = bankingCoreRestClient.readUser(user.getIdentification());
+        UserResponse userResponse = coreBankingCallGuard.call("read-user", () -> bankingCoreRestClient.readUser(user.getIdentification()));
 
         if (userResponse.getId() != null) {
 
@@ -78,10 +83,20 @@ public class UserService {
     }
 
     public List<User> readUsers(Pageable pageable) {
-        Page<UserEntity> allUsersInDb = userRepository.findAll(pageable);
-        List<User> users = userMapper.convertToDtoList(allUsersInDb.getContent());
+        // a slice reads one row more instead of counting the whole table
+        return withIdentities(userRepository.findAllBy(pageable).getContent());
+    }
+
+    public CursorPage<User> readUsers(String after, int size) {
+        List<UserEntity> entities = userRepository.findAllAfter(CursorPage.afterId(after), PageRequest.of(0, size + 1));
+        return CursorPage.of(entities, size, UserEntity::getId).map(this::withIdentities);
+    }
+
+    private List<User> withIdentities(List<UserEntity> entities) {
+        List<User> users = userMapper.convertToDtoList(entities);
+        Map<String, UserRepresentation> identities = keycloakIdentityResolver.resolve(users.stream().map(User::getAuthId).toList());
         users.forEach(user -> {
-            UserRepresentation userRepresentation = keycloakUserService.readUser(user.getAuthId());
+            UserRepresentation userRepresentation = identities.get(user.getAuthId());
             user.setId(user.getId());
             user.setEmail(userRepresentation.getEmail());
             user.setIdentification(user.getIdentification());
@@ -101,6 +116,7 @@ public class UserService {
             userRepresentation.setEnabled(true);
             userRepresentation.setEmailVerified(true);
             keycloakUserService.updateUser(userRepresentation);
+            keycloakIdentityResolver.invalidate(userEntity.getAuthId());
         }
 
         userEntity.setStatus(userUpdateRequest.getStatus());
@@ -0,0 +1,116 @@
+package com.javatodev.finance.service.rest;
+
+import com.javatodev.finance.exception.CoreBankingUnavailableException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Protects this service from a slow or failing core banking. Every endpoint gets its own adaptive concurrency
+ * limit, a bulkhead and a circuit breaker, named {@code core-banking-<endpoint>} and configured under
+ * {@code resilience4j.*}. A call that is not admitted fails right away with
+ * {@link CoreBankingUnavailableException} instead of waiting for a thread or connection.
+ * <p>
+ * Breaker and bulkhead state is published by resilience4j through actuator, the limits as
+ * {@code core.banking.limit}, {@code core.banking.inflight} and {@code core.banking.rejected}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CoreBankingCallGuard {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.config.core-banking.limiter.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.config.core-banking.limiter.min-limit:4}")
+    private int minLimit;
+
+    @Value("${app.config.core-banking.limiter.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${app.config.core-banking.limiter.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${app.config.core-banking.limiter.latency-threshold:500ms}")
+    private Duration latencyThreshold;
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the core banking call under the guards of the endpoint. Failures of the call itself are rethrown
+     * unchanged.
+     */
+    public <T> T call(String endpointName, Supplier<T> call) {
+        Endpoint endpoint = endpoints.computeIfAbsent(endpointName, this::endpoint);
+        if (!endpoint.limiter.tryAcquire()) {
+            endpoint.rejectedByLimit.increment();
+            throw new CoreBankingUnavailableException("Core banking is at its concurrency limit for " + endpointName + ", please retry later");
+        }
+
+        Supplier<T> guarded = Bulkhead.decorateSupplier(endpoint.bulkhead, CircuitBreaker.decorateSupplier(endpoint.circuitBreaker, call));
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = guarded.get();
+        } catch (CallNotPermittedException e) {
+            endpoint.limiter.cancel();
+            endpoint.rejectedByCircuit.increment();
+            throw new CoreBankingUnavailableException("Core banking is unavailable for " + endpointName + ", please retry later");
+        } catch (BulkheadFullException e) {
+            endpoint.limiter.cancel();
+            endpoint.rejectedByBulkhead.increment();
+            throw new CoreBankingUnavailableException("Too many concurrent core banking calls for " + endpointName + ", please retry later");
+        } catch (RuntimeException | Error e) {
+            endpoint.limiter.release(System.nanoTime() - start, isOverload(e));
+            throw e;
+        }
+        endpoint.limiter.release(System.nanoTime() - start, false);
+        return result;
+    }
+
+    private static boolean isOverload(Throwable e) {
+        // 4xx answers are business errors of a healthy core banking, timeouts and 5xx mean it is struggling
+        return e instanceof FeignException feignException && (feignException.status() < 0 || feignException.status() >= 500);
+    }
+
+    private Endpoint endpoint(String endpointName) {
+        String name = "core-banking-" + endpointName;
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold.toNanos());
+        Gauge.builder("core.banking.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).tag("endpoint", endpointName).register(meterRegistry);
+        Gauge.builder("core.banking.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight).tag("endpoint", endpointName).register(meterRegistry);
+        log.info("Guarding core banking endpoint {} with an initial concurrency limit of {}", endpointName, limiter.getLimit());
+        return new Endpoint(limiter, bulkheadRegistry.bulkhead(name), circuitBreakerRegistry.circuitBreaker(name),
+            rejected(endpointName, "limit"), rejected(endpointName, "bulkhead"), rejected(endpointName, "circuit"));
+    }
+
+    private Counter rejected(String endpointName, String reason) {
+        return Counter.builder("core.banking.rejected").tag("endpoint", endpointName).tag("reason", reason).register(meterRegistry);
+    }
+
+    private record Endpoint(AdaptiveConcurrencyLimiter limiter, Bulkhead bulkhead, CircuitBreaker circuitBreaker,
+                            Counter rejectedByLimit, Counter rejectedByBulkhead, Counter rejectedByCircuit) {
+    }
+
+}
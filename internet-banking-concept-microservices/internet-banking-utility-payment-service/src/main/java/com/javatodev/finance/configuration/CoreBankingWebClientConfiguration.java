@@ -0,0 +1,110 @@
+package com.javatodev.finance.configuration;
+
+import com.javatodev.finance.configuration.filter.ApiRequestContext;
+import com.javatodev.finance.configuration.filter.AppAuthUserFilter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.ChannelOption;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Reactor Netty based {@link WebClient} for core banking, used instead of Feign when
+ * {@code app.config.core-banking.client=webclient}. Connections are pooled and, unless {@code http2} is turned
+ * off, speak HTTP/2 cleartext so many calls share one connection. The service name is resolved through the
+ * load balancer the same way Feign resolves it. The caller's auth id is read from the Reactor context, not from
+ * the thread that happens to send the request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.config.core-banking.client", havingValue = "webclient")
+public class CoreBankingWebClientConfiguration {
+
+    private static final String CORE_BANKING_SERVICE_URL = "http://core-banking-service";
+
+    @Value("${app.config.core-banking.webclient.http2:true}")
+    private boolean http2;
+
+    @Value("${app.config.core-banking.webclient.max-connections:16}")
+    private int maxConnections;
+
+    @Value("${app.config.core-banking.webclient.pending-acquire-max-count:10000}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${app.config.core-banking.webclient.pending-acquire-timeout:5s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${app.config.core-banking.webclient.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${app.config.core-banking.webclient.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${app.config.core-banking.webclient.response-timeout:10s}")
+    private Duration responseTimeout;
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider coreBankingConnectionProvider() {
+        return ConnectionProvider.builder("core-banking")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMaxCount)
+            .pendingAcquireTimeout(pendingAcquireTimeout)
+            .maxIdleTime(maxIdleTime)
+            .metrics(true)
+            .build();
+    }
+
+    @Bean
+    WebClient coreBankingWebClient(WebClient.Builder webClientBuilder, ConnectionProvider coreBankingConnectionProvider,
+                                   LoadBalancedExchangeFilterFunction loadBalancerFilter) {
+        HttpClient httpClient = HttpClient.create(coreBankingConnectionProvider)
+            // prior knowledge h2c, core banking enables it with server.http2.enabled
+            .protocol(http2 ? HttpProtocol.H2C : HttpProtocol.HTTP11)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+            .responseTimeout(responseTimeout);
+
+        // not among the default codecs, needed for app.config.core-banking.encoding=cbor; without the media type
+        // they would take the JSON types and win over the JSON codecs, which come after them
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        return webClientBuilder
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .codecs(codecs -> {
+                codecs.customCodecs().register(new Jackson2CborEncoder(cborMapper, MediaType.APPLICATION_CBOR));
+                codecs.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            })
+            .filter(loadBalancerFilter)
+            .filter(authUserFilter())
+            .baseUrl(CORE_BANKING_SERVICE_URL)
+            .build();
+    }
+
+    private static ExchangeFilterFunction authUserFilter() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            String authId = context.<ApiRequestContext>getOrEmpty(ApiRequestContext.class)
+                .map(ApiRequestContext::getAuthId)
+                .orElse(null);
+            if (authId == null) {
+                return next.exchange(request);
+            }
+            return next.exchange(ClientRequest.from(request).header(AppAuthUserFilter.HTTP_HEADER_AUTH_USER_ID, authId).build());
+        });
+    }
+
+}
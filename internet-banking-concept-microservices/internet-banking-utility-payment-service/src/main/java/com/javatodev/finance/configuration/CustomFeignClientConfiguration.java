@@ -1,8 +1,57 @@
 package com.javatodev.finance.configuration;
 
+import com.javatodev.finance.configuration.filter.ApiRequestContextHolder;
+import com.javatodev.finance.configuration.filter.AppAuthUserFilter;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
 import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import feign.RequestInterceptor;
+import feign.codec.Encoder;
 
 @Configuration
 public class CustomFeignClientConfiguration extends FeignClientProperties.FeignClientConfiguration {
+
+    /**
+     * Sends request bodies to core banking as CBOR when {@code app.config.core-banking.encoding=cbor}, core
+     * banking picks the encoding from the content type and JSON stays the default.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.config.core-banking.encoding", havingValue = "cbor")
+    Encoder cborEncoder(ObjectFactory<HttpMessageConverters> messageConverters) {
+        SpringEncoder springEncoder = new SpringEncoder(messageConverters);
+        return (object, bodyType, template) -> {
+            template.removeHeader(HttpHeaders.CONTENT_TYPE);
+            template.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE);
+            springEncoder.encode(object, bodyType, template);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.config.core-banking.encoding", havingValue = "cbor")
+    RequestInterceptor cborAcceptInterceptor() {
+        return template -> template.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    /**
+     * Passes the caller's auth id on to core banking, which serves the reads right after a payment of the same
+     * caller from its primary database.
+     */
+    @Bean
+    RequestInterceptor authIdForwardingInterceptor() {
+        return template -> {
+            String authId = ApiRequestContextHolder.getContext().getAuthId();
+            if (authId != null) {
+                template.header(AppAuthUserFilter.HTTP_HEADER_AUTH_USER_ID, authId);
+            }
+        };
+    }
+
 }
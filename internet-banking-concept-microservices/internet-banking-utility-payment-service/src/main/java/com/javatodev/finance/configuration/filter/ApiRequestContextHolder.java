@@ -1,8 +1,14 @@
 package com.javatodev.finance.configuration.filter;
 
-import lombok.extern.slf4j.Slf4j;
-
-@Slf4j
+/**
+ * Gives access to the {@link ApiRequestContext} of the request being handled. A context is only visible
+ * inside the {@link Scope} that bound it, like a {@code ScopedValue} binding, which is still a preview API on
+ * Java 21. Closing the scope restores what was bound before, so no context outlives its request on a pooled
+ * thread, and code running outside a request never attaches one to its thread.
+ * <p>
+ * Work a request hands to another thread does not see its context unless it is bound there again, or carried
+ * in the Reactor context under the {@link ApiRequestContext} class for reactive pipelines.
+ */
 public final class ApiRequestContextHolder {
 
     private ApiRequestContextHolder() {
@@ -10,21 +16,47 @@ public final class ApiRequestContextHolder {
 
     private static final ThreadLocal<ApiRequestContext> contextHolder = new ThreadLocal<>();
 
-    public static void clearContext() {
-        contextHolder.remove();
+    private static final ApiRequestContext EMPTY = new ApiRequestContext() {
+        @Override
+        public void setAuthId(String authId) {
+            throw new IllegalStateException("No request context is bound to this thread");
+        }
+    };
+
+    /**
+     * Binds the context to the current thread until the returned scope is closed.
+     */
+    public static Scope bind(ApiRequestContext context) {
+        ApiRequestContext previous = contextHolder.get();
+        contextHolder.set(context);
+        return new Scope(previous);
     }
 
+    /**
+     * Returns the bound context, or an empty read-only one when no request is being handled.
+     */
     public static ApiRequestContext getContext() {
-
         ApiRequestContext ctx = contextHolder.get();
+        return ctx != null ? ctx : EMPTY;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final ApiRequestContext previous;
+
+        private Scope(ApiRequestContext previous) {
+            this.previous = previous;
+        }
 
-        if (ctx == null) {
-            ctx = new ApiRequestContext();
-            contextHolder.set(ctx);
-            log.debug("getContext() : new APIRequestContext created..!");
+        @Override
+        public void close() {
+            if (previous == null) {
+                contextHolder.remove();
+            } else {
+                contextHolder.set(previous);
+            }
         }
 
-        return ctx;
     }
 
 }
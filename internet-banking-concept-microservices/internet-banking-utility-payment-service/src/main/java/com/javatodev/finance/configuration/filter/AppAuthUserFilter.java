@@ -15,20 +15,19 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AppAuthUserFilter implements Filter {
 
-    private static final String HTTP_HEADER_AUTH_USER_ID = "X-Auth-Id";
+    public static final String HTTP_HEADER_AUTH_USER_ID = "X-Auth-Id";
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) request;
         String userAuthId = httpServletRequest.getHeader(HTTP_HEADER_AUTH_USER_ID);
         log.info("Incoming Request From {}", userAuthId);
+        ApiRequestContext context = new ApiRequestContext();
         if (!StringUtils.isEmpty(userAuthId)) {
-            ApiRequestContextHolder.getContext().setAuthId(userAuthId);
+            context.setAuthId(userAuthId);
         }
-        try {
+        try (ApiRequestContextHolder.Scope scope = ApiRequestContextHolder.bind(context)) {
             chain.doFilter(request, response);
-        }finally {
-            ApiRequestContextHolder.clearContext();
         }
     }
 }
@@ -0,0 +1,94 @@
+package com.javatodev.finance.configuration.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * Reserves blocks of ids in the id tables on connections of its own, for the {@link PooledTableIdGenerator}.
+ * Hibernate's table generator takes a second connection from the application pool while the inserting
+ * transaction holds one, so once every pooled connection belongs to a transaction waiting for ids nothing moves
+ * until the connection timeout. The pool here is small, only one reservation per id table runs at a time.
+ */
+@Component
+public class IdBlockAllocator implements DisposableBean {
+
+    private final HikariDataSource dataSource;
+
+    public IdBlockAllocator(DataSourceProperties properties, @Value("${app.config.persistence.id-allocation.pool-size:2}") int poolSize) {
+        dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("id-allocation");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(0);
+    }
+
+    /**
+     * Moves the segment's value on by {@code blockSize} and returns the value it had, the pooled optimizer hands
+     * out the ids up to it. A missing segment row starts at {@code initialValue}.
+     */
+    public long reserve(String table, String segmentColumn, String valueColumn, String segment, long initialValue, int blockSize)
+        throws SQLException {
+        while (true) {
+            try {
+                return reserveOnce(table, segmentColumn, valueColumn, segment, initialValue, blockSize);
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // another instance created the segment row first, read it again
+            }
+        }
+    }
+
+    private long reserveOnce(String table, String segmentColumn, String valueColumn, String segment, long initialValue, int blockSize)
+        throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                Long value = null;
+                try (PreparedStatement select = connection.prepareStatement(
+                    "select " + valueColumn + " from " + table + " where " + segmentColumn + " = ? for update")) {
+                    select.setString(1, segment);
+                    try (ResultSet resultSet = select.executeQuery()) {
+                        if (resultSet.next()) {
+                            value = resultSet.getLong(1);
+                        }
+                    }
+                }
+                if (value == null) {
+                    value = initialValue;
+                    try (PreparedStatement insert = connection.prepareStatement(
+                        "insert into " + table + " (" + segmentColumn + ", " + valueColumn + ") values (?, ?)")) {
+                        insert.setString(1, segment);
+                        insert.setLong(2, value + blockSize);
+                        insert.executeUpdate();
+                    }
+                } else {
+                    try (PreparedStatement update = connection.prepareStatement(
+                        "update " + table + " set " + valueColumn + " = ? where " + segmentColumn + " = ?")) {
+                        update.setLong(1, value + blockSize);
+                        update.setString(2, segment);
+                        update.executeUpdate();
+                    }
+                }
+                connection.commit();
+                return value;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        dataSource.close();
+    }
+
+}
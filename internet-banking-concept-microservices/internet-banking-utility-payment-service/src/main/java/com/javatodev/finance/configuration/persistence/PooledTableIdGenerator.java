@@ -0,0 +1,80 @@
+package com.javatodev.finance.configuration.persistence;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerationException;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.resource.beans.container.spi.BeanContainer;
+import org.hibernate.resource.beans.internal.FallbackBeanInstanceProducer;
+import org.hibernate.resource.beans.spi.ManagedBeanRegistry;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Hibernate's {@link TableGenerator} with its blocks reserved by the {@link IdBlockAllocator} instead of on a
+ * second connection of the application pool. Takes the parameters of the table generator, set through
+ * {@code @GenericGenerator}, and keeps its table layout and pooled optimizer.
+ */
+public class PooledTableIdGenerator extends TableGenerator {
+
+    private static final BeanContainer.LifecycleOptions EXISTING_BEAN = new BeanContainer.LifecycleOptions() {
+        @Override
+        public boolean canUseCachedReferences() {
+            return true;
+        }
+
+        @Override
+        public boolean useJpaCompliantCreation() {
+            return false;
+        }
+    };
+
+    private ServiceRegistry serviceRegistry;
+    private volatile IdBlockAllocator allocator;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        super.configure(type, parameters, serviceRegistry);
+        this.serviceRegistry = serviceRegistry;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return getOptimizer().generate(new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                IntegralDataTypeHolder value = IdentifierGeneratorHelper.getIntegralDataTypeHolder(getIdentifierType().getReturnedClass());
+                try {
+                    value.initialize(allocator().reserve(getTableName(), getSegmentColumnName(), getValueColumnName(), getSegmentValue(),
+                        getInitialValue(), getIncrementSize()));
+                } catch (SQLException e) {
+                    throw new IdentifierGenerationException("Could not reserve ids for " + getSegmentValue(), e);
+                }
+                return value;
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return session.getTenantIdentifier();
+            }
+        });
+    }
+
+    private IdBlockAllocator allocator() {
+        if (allocator == null) {
+            // Spring Boot hands Spring's bean factory to Hibernate as its bean container
+            BeanContainer beanContainer = serviceRegistry.requireService(ManagedBeanRegistry.class).getBeanContainer();
+            if (beanContainer == null) {
+                throw new IdentifierGenerationException("No bean container to look up the id block allocator in");
+            }
+            allocator = beanContainer.getBean(IdBlockAllocator.class, EXISTING_BEAN, FallbackBeanInstanceProducer.INSTANCE).getBeanInstance();
+        }
+        return allocator;
+    }
+
+}
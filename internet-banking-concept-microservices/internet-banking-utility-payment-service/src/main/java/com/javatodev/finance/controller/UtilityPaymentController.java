@@ -2,13 +2,16 @@ package com.javatodev.finance.controller;
 
 import com.javatodev.finance.model.rest.request.UtilityPaymentRequest;
 import com.javatodev.finance.service.UtilityPaymentService;
+import com.javatodev.finance.service.idempotency.IdempotencyService;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import lombok.RequiredArgsConstructor;
@@ -19,15 +22,21 @@ import lombok.RequiredArgsConstructor;
 public class UtilityPaymentController {
 
     private final UtilityPaymentService utilityPaymentService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
-    public ResponseEntity readPayments(Pageable pageable) {
+    public ResponseEntity readPayments(@RequestParam(value = "after", required = false) String after, Pageable pageable) {
+        // with an after token, even an empty one, the payments are paged by keyset
+        if (after != null) {
+            return ResponseEntity.ok(utilityPaymentService.readPayments(after, pageable.getPageSize()));
+        }
         return ResponseEntity.ok(utilityPaymentService.readPayments(pageable));
     }
 
     @PostMapping
-    public ResponseEntity processPayment(@RequestBody UtilityPaymentRequest paymentRequest) {
-        return ResponseEntity.ok(utilityPaymentService.utilPayment(paymentRequest));
+    public ResponseEntity processPayment(@RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                         @RequestBody UtilityPaymentRequest paymentRequest) {
+        return idempotencyService.execute(idempotencyKey, paymentRequest, () -> ResponseEntity.ok(utilityPaymentService.utilPayment(paymentRequest)));
     }
 
 }
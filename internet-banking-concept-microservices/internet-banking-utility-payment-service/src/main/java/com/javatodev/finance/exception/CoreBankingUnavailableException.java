@@ -0,0 +1,11 @@
+package com.javatodev.finance.exception;
+
+/**
+ * Raised instead of calling core banking while its circuit is open or its concurrency limits are reached, the
+ * request was not sent.
+ */
+public class CoreBankingUnavailableException extends SimpleBankingGlobalException {
+    public CoreBankingUnavailableException(String message) {
+        super(message, GlobalErrorCode.CORE_BANKING_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,11 @@
+package com.javatodev.finance.exception;
+
+public class EntityNotFoundException extends SimpleBankingGlobalException {
+    public EntityNotFoundException() {
+        super("Requested entity not present in the DB.", GlobalErrorCode.ERROR_ENTITY_NOT_FOUND);
+    }
+
+    public EntityNotFoundException(String message) {
+        super(message, GlobalErrorCode.ERROR_ENTITY_NOT_FOUND);
+    }
+}
@@ -0,0 +1,11 @@
+package com.javatodev.finance.exception;
+
+public class GlobalErrorCode {
+    public static final String ERROR_ENTITY_NOT_FOUND = "UTILITY-PAYMENT-SERVICE-1000";
+    public static final String IDEMPOTENCY_KEY_REUSED = "UTILITY-PAYMENT-SERVICE-1001";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS = "UTILITY-PAYMENT-SERVICE-1002";
+    public static final String IDEMPOTENCY_KEY_INVALID = "UTILITY-PAYMENT-SERVICE-1003";
+    public static final String CORE_BANKING_UNAVAILABLE = "UTILITY-PAYMENT-SERVICE-1004";
+    public static final String INVALID_CURSOR = "UTILITY-PAYMENT-SERVICE-1005";
+    public static final String IDEMPOTENCY_KEY_OUTCOME_UNKNOWN = "UTILITY-PAYMENT-SERVICE-1006";
+}
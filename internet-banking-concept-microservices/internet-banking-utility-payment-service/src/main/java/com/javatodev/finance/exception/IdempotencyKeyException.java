@@ -0,0 +1,7 @@
+package com.javatodev.finance.exception;
+
+public class IdempotencyKeyException extends SimpleBankingGlobalException {
+    public IdempotencyKeyException(String message, String code) {
+        super(message, code);
+    }
+}
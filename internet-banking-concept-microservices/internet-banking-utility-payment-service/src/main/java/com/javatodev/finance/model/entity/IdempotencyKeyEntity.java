@@ -0,0 +1,43 @@
+package com.javatodev.finance.model.entity;
+
+import com.javatodev.finance.model.IdempotencyKeyStatus;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome of a request sent with an {@code Idempotency-Key} header, kept until it expires so a retry of the
+ * request gets the stored response instead of being processed again.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "idempotency_key")
+public class IdempotencyKeyEntity {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    private IdempotencyKeyStatus status;
+
+    private String owner;
+
+    private Integer responseStatus;
+
+    @Lob
+    private String responseBody;
+
+    private String responseLocation;
+
+    private Instant createdDate;
+
+    private Instant expiresAt;
+
+}
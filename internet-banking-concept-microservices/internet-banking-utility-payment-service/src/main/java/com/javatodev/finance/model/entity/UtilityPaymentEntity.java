@@ -1,8 +1,12 @@
 package com.javatodev.finance.model.entity;
 
+import com.javatodev.finance.configuration.persistence.PooledTableIdGenerator;
 import com.javatodev.finance.model.TransactionStatus;
 import com.javatodev.finance.model.dto.AuditAware;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import java.math.BigDecimal;
 
 import jakarta.persistence.*;
@@ -16,7 +20,15 @@ import lombok.Setter;
 public class UtilityPaymentEntity extends AuditAware {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "utility_payment_id_generator")
+    @GenericGenerator(name = "utility_payment_id_generator", type = PooledTableIdGenerator.class, parameters = {
+        @Parameter(name = "table_name", value = "utility_payment_id_sequence"),
+        @Parameter(name = "segment_column_name", value = "sequence_name"),
+        @Parameter(name = "value_column_name", value = "next_val"),
+        @Parameter(name = "segment_value", value = "utility_payment"),
+        @Parameter(name = "increment_size", value = "50"),
+        @Parameter(name = "optimizer", value = "pooled")
+    })
     private Long id;
 
     private Long providerId;
@@ -1,16 +1,21 @@
 package com.javatodev.finance.model.mapper;
 
+import com.javatodev.finance.model.dto.AuditAware;
 import com.javatodev.finance.model.dto.UtilityPayment;
 import com.javatodev.finance.model.entity.UtilityPaymentEntity;
-
-import org.springframework.beans.BeanUtils;
+import com.javatodev.finance.model.rest.request.UtilityPaymentRequest;
 
 public class UtilityPaymentMapper extends BaseMapper<UtilityPaymentEntity, UtilityPayment> {
     @Override
     public UtilityPaymentEntity convertToEntity(UtilityPayment dto, Object... args) {
         UtilityPaymentEntity entity = new UtilityPaymentEntity();
         if (dto != null) {
-            BeanUtils.copyProperties(dto, entity);
+            entity.setProviderId(dto.getProviderId());
+            entity.setAmount(dto.getAmount());
+            entity.setReferenceNumber(dto.getReferenceNumber());
+            entity.setAccount(dto.getAccount());
+            entity.setStatus(dto.getStatus());
+            copyAudit(dto, entity);
         }
         return entity;
     }
@@ -19,8 +24,33 @@ public class UtilityPaymentMapper extends BaseMapper<UtilityPaymentEntity, Utili
     public UtilityPayment convertToDto(UtilityPaymentEntity entity, Object... args) {
         UtilityPayment dto = new UtilityPayment();
         if (entity != null) {
-            BeanUtils.copyProperties(entity, dto);
+            dto.setProviderId(entity.getProviderId());
+            dto.setAmount(entity.getAmount());
+            dto.setReferenceNumber(entity.getReferenceNumber());
+            dto.setAccount(entity.getAccount());
+            dto.setStatus(entity.getStatus());
+            copyAudit(entity, dto);
         }
         return dto;
     }
+
+    /**
+     * A new payment for the given request, without status or transaction id.
+     */
+    public UtilityPaymentEntity convertRequestToEntity(UtilityPaymentRequest request) {
+        UtilityPaymentEntity entity = new UtilityPaymentEntity();
+        entity.setProviderId(request.getProviderId());
+        entity.setAmount(request.getAmount());
+        entity.setReferenceNumber(request.getReferenceNumber());
+        entity.setAccount(request.getAccount());
+        return entity;
+    }
+
+    private static void copyAudit(AuditAware source, AuditAware target) {
+        target.setCreatedDate(source.getCreatedDate());
+        target.setCreatedBy(source.getCreatedBy());
+        target.setModifiedDate(source.getModifiedDate());
+        target.setModifiedBy(source.getModifiedBy());
+        target.setVersion(source.getVersion());
+    }
 }
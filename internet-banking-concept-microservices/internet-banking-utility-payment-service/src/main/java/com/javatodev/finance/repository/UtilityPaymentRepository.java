@@ -3,7 +3,19 @@ package com.javatodev.finance.repository;
 import com.javatodev.finance.model.dto.UtilityPayment;
 import com.javatodev.finance.model.entity.UtilityPaymentEntity;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface UtilityPaymentRepository extends JpaRepository<UtilityPaymentEntity, UtilityPayment> {
+
+    Slice<UtilityPaymentEntity> findAllBy(Pageable pageable);
+
+    @Query("select p from UtilityPaymentEntity p where p.id > :afterId order by p.id")
+    List<UtilityPaymentEntity> findAllAfter(@Param("afterId") long afterId, Pageable pageable);
+
 }
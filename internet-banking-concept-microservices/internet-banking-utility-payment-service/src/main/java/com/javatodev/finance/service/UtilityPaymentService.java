@@ -1,17 +1,20 @@
 package com.javatodev.finance.service;
 
+import com.javatodev.finance.exception.CoreBankingUnavailableException;
 import com.javatodev.finance.model.TransactionStatus;
 import com.javatodev.finance.model.dto.UtilityPayment;
 import com.javatodev.finance.model.entity.UtilityPaymentEntity;
 import com.javatodev.finance.model.mapper.UtilityPaymentMapper;
 import com.javatodev.finance.model.rest.request.UtilityPaymentRequest;
+import com.javatodev.finance.model.rest.response.CursorPage;
 import com.javatodev.finance.model.rest.response.UtilityPaymentResponse;
 import com.javatodev.finance.repository.UtilityPaymentRepository;
 import com.javatodev.finance.service.rest.BankingCoreRestClient;
+import com.javatodev.finance.service.rest.CoreBankingCallGuard;
 
-import org.springframework.beans.BeanUtils;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -25,18 +28,26 @@ import lombok.extern.slf4j.Slf4j;
 public class UtilityPaymentService {
     private final UtilityPaymentRepository utilityPaymentRepository;
     private final BankingCoreRestClient bankingCoreRestClient;
+    private final CoreBankingCallGuard coreBankingCallGuard;
 
     private UtilityPaymentMapper utilityPaymentMapper = new UtilityPaymentMapper();
 
     public UtilityPaymentResponse utilPayment(UtilityPaymentRequest paymentRequest) {
         log.info("Utility payment processing {}", paymentRequest.toString());
 
-        UtilityPaymentEntity entity = new UtilityPaymentEntity();
-        BeanUtils.copyProperties(paymentRequest, entity);
+        UtilityPaymentEntity entity = utilityPaymentMapper.convertRequestToEntity(paymentRequest);
         entity.setStatus(TransactionStatus.PROCESSING);
         UtilityPaymentEntity optUtilPayment = utilityPaymentRepository.save(entity);
 
-        UtilityPaymentResponse utilityPaymentResponse = bankingCoreRestClient.utilityPayment(paymentRequest);
+        UtilityPaymentResponse utilityPaymentResponse;
+        try {
+            utilityPaymentResponse = coreBankingCallGuard.call("util-payment", () -> bankingCoreRestClient.utilityPayment(paymentRequest));
+        } catch (CoreBankingUnavailableException e) {
+            // never sent to core banking, so the payment definitely did not happen
+            optUtilPayment.setStatus(TransactionStatus.FAILED);
+            utilityPaymentRepository.save(optUtilPayment);
+            throw e;
+        }
         log.info("Transaction response {}", utilityPaymentResponse.toString());
 
         optUtilPayment.setStatus(TransactionStatus.SUCCESS);
@@ -47,7 +58,13 @@ public class UtilityPaymentService {
     }
 
     public List<UtilityPayment> readPayments(Pageable pageable) {
-        Page<UtilityPaymentEntity> allUtilPayments = utilityPaymentRepository.findAll(pageable);
+        // a slice reads one row more instead of counting the whole table
+        Slice<UtilityPaymentEntity> allUtilPayments = utilityPaymentRepository.findAllBy(pageable);
         return utilityPaymentMapper.convertToDtoList(allUtilPayments.getContent());
     }
+
+    public CursorPage<UtilityPayment> readPayments(String after, int size) {
+        List<UtilityPaymentEntity> entities = utilityPaymentRepository.findAllAfter(CursorPage.afterId(after), PageRequest.of(0, size + 1));
+        return CursorPage.of(entities, size, UtilityPaymentEntity::getId).map(utilityPaymentMapper::convertToDtoList);
+    }
 }
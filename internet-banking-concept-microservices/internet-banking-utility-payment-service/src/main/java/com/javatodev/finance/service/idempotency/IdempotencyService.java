@@ -0,0 +1,291 @@
+package com.javatodev.finance.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.javatodev.finance.exception.GlobalErrorCode;
+import com.javatodev.finance.exception.IdempotencyKeyException;
+import com.javatodev.finance.exception.SimpleBankingGlobalException;
+import com.javatodev.finance.model.IdempotencyKeyStatus;
+import com.javatodev.finance.model.entity.IdempotencyKeyEntity;
+import com.javatodev.finance.repository.IdempotencyKeyRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import feign.FeignException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Makes POST endpoints safe to retry with an {@code Idempotency-Key} header. The first request with a key is
+ * processed, its response is stored in the {@code idempotency_key} table and in memory, and later requests
+ * with the same key and payload get that response back without touching core banking again. Duplicates that
+ * arrive while the first one is still running on this instance wait for its result, on another instance they
+ * are rejected until it finishes.
+ * <p>
+ * A running request extends its claim in the background, and only the claim's owner records the outcome. A request
+ * that certainly did not execute, because it was never sent or core banking rejected it, releases its key so the
+ * client can retry it. Any other failure keeps the key as {@code FAILED}: the request may have been executed, and a
+ * retry with the key is refused instead of running it twice. Claims whose owner stopped extending them are treated
+ * the same way. Completed and failed keys are kept for {@code app.config.idempotency.ttl} and purged in the
+ * background.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.config.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${app.config.idempotency.in-progress-timeout:1m}")
+    private Duration inProgressTimeout;
+
+    @Value("${app.config.idempotency.memory-size:10000}")
+    private long memorySize;
+
+    @Value("${app.config.idempotency.purge-interval:10m}")
+    private Duration purgeInterval;
+
+    private final ConcurrentMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+    private Cache<String, IdempotentResponse> completed;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void start() {
+        completed = Caffeine.newBuilder()
+            .maximumSize(memorySize)
+            .expireAfterWrite(ttl)
+            .build();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-key-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::purge, purgeInterval.toMillis(), purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Runs the action once per key and returns its response, or the stored response of an earlier run. Without
+     * a key the action simply runs.
+     */
+    public ResponseEntity<?> execute(String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException("Idempotency-Key must not be longer than " + MAX_KEY_LENGTH + " characters",
+                GlobalErrorCode.IDEMPOTENCY_KEY_INVALID);
+        }
+        String requestHash = fingerprint(request);
+
+        IdempotentResponse response = completed.getIfPresent(key);
+        if (response == null) {
+            CompletableFuture<IdempotentResponse> own = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, own);
+            if (running != null) {
+                response = await(running);
+            } else {
+                try {
+                    response = process(key, requestHash, action);
+                    own.complete(response);
+                } catch (RuntimeException e) {
+                    own.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.remove(key, own);
+                }
+            }
+        }
+        return replay(key, requestHash, response);
+    }
+
+    private IdempotentResponse process(String key, String requestHash, Supplier<ResponseEntity<?>> action) {
+        Instant now = Instant.now();
+        String owner = UUID.randomUUID().toString();
+        if (!claim(key, requestHash, owner, now)) {
+            IdempotencyKeyEntity existing = idempotencyKeyRepository.findById(key).orElse(null);
+            if (existing != null && existing.getExpiresAt().isAfter(now)) {
+                switch (existing.getStatus()) {
+                    case IN_PROGRESS -> throw inProgress(key);
+                    case FAILED -> throw outcomeUnknown(key);
+                    case COMPLETED -> {
+                        IdempotentResponse stored = IdempotentResponse.of(existing);
+                        completed.put(key, stored);
+                        return stored;
+                    }
+                }
+            }
+            if (existing != null && existing.getStatus() == IdempotencyKeyStatus.IN_PROGRESS) {
+                // its owner stopped extending the claim, the request may have been executed and must not run again
+                idempotencyKeyRepository.abandonExpired(key, now, now.plus(ttl));
+                throw outcomeUnknown(key);
+            }
+            // expired but not purged yet, or released by a rejected request in the meantime
+            idempotencyKeyRepository.releaseExpired(key, now);
+            if (!claim(key, requestHash, owner, now)) {
+                throw inProgress(key);
+            }
+        }
+
+        ResponseEntity<?> result;
+        long heartbeatMillis = Math.max(1, inProgressTimeout.toMillis() / 3);
+        ScheduledFuture<?> heartbeat = scheduler.scheduleAtFixedRate(() -> extend(key, owner), heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            if (isRejected(e)) {
+                idempotencyKeyRepository.release(key, owner);
+            } else {
+                // the request may have reached core banking, a retry with this key must not run it a second time
+                log.warn("Outcome of the request with Idempotency-Key {} is unknown, the key is kept as failed", key);
+                idempotencyKeyRepository.fail(key, owner, Instant.now().plus(ttl));
+            }
+            throw e;
+        } finally {
+            heartbeat.cancel(false);
+        }
+
+        URI location = result.getHeaders().getLocation();
+        IdempotentResponse response = new IdempotentResponse(requestHash, result.getStatusCode().value(), serialize(result.getBody()),
+            location == null ? null : location.toString());
+        if (idempotencyKeyRepository.complete(key, owner, response.getStatus(), response.getBody(), response.getLocation(), Instant.now().plus(ttl)) == 0) {
+            log.warn("Claim of Idempotency-Key {} was given up while the request ran, its response is not stored", key);
+        }
+        completed.put(key, response);
+        return response;
+    }
+
+    /**
+     * Whether the request certainly did not execute: it was not sent to core banking, or core banking rejected it
+     * with a 4xx answer and rolled back. Only then the key is released for a retry.
+     */
+    private static boolean isRejected(RuntimeException e) {
+        return e instanceof SimpleBankingGlobalException
+            || (e instanceof FeignException feignException && feignException.status() >= 400 && feignException.status() < 500);
+    }
+
+    private void extend(String key, String owner) {
+        try {
+            if (idempotencyKeyRepository.extend(key, owner, Instant.now().plus(inProgressTimeout)) == 0) {
+                log.warn("Claim of Idempotency-Key {} could not be extended", key);
+            }
+        } catch (Exception e) {
+            // never let an exception cancel the heartbeat
+            log.warn("Failed to extend the claim of Idempotency-Key {}", key, e);
+        }
+    }
+
+    private boolean claim(String key, String requestHash, String owner, Instant now) {
+        try {
+            idempotencyKeyRepository.claim(key, requestHash, owner, now, now.plus(inProgressTimeout));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private static IdempotentResponse await(CompletableFuture<IdempotentResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static ResponseEntity<?> replay(String key, String requestHash, IdempotentResponse response) {
+        if (!response.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyException("Idempotency-Key " + key + " was already used for a different request",
+                GlobalErrorCode.IDEMPOTENCY_KEY_REUSED);
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatus()).contentType(MediaType.APPLICATION_JSON);
+        if (response.getLocation() != null) {
+            builder.location(URI.create(response.getLocation()));
+        }
+        return builder.body(response.getBody());
+    }
+
+    private static IdempotencyKeyException inProgress(String key) {
+        return new IdempotencyKeyException("A request with Idempotency-Key " + key + " is still being processed",
+            GlobalErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS);
+    }
+
+    private static IdempotencyKeyException outcomeUnknown(String key) {
+        return new IdempotencyKeyException("The request with Idempotency-Key " + key + " failed with an unknown outcome, " +
+            "check its result before sending it again with a new key", GlobalErrorCode.IDEMPOTENCY_KEY_OUTCOME_UNKNOWN);
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to fingerprint request", e);
+        }
+    }
+
+    private String serialize(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to store response", e);
+        }
+    }
+
+    private void purge() {
+        try {
+            Instant now = Instant.now();
+            int abandoned = idempotencyKeyRepository.abandonExpired(now, now.plus(ttl));
+            if (abandoned > 0) {
+                log.warn("Marked {} idempotency keys failed whose request stopped without an outcome", abandoned);
+            }
+            int purged = idempotencyKeyRepository.purgeExpired(now);
+            if (purged > 0) {
+                log.info("Purged {} expired idempotency keys", purged);
+            }
+        } catch (Exception e) {
+            // never let an exception cancel the scheduled task
+            log.error("Idempotency key purge failed", e);
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.javatodev.finance.service.rest;
 
 import com.javatodev.finance.configuration.CustomFeignClientConfiguration;
+import com.javatodev.finance.model.rest.request.BatchAccountRequest;
 import com.javatodev.finance.model.rest.request.UtilityPaymentRequest;
 import com.javatodev.finance.model.rest.response.AccountResponse;
 import com.javatodev.finance.model.rest.response.UtilityPaymentResponse;
@@ -11,12 +12,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
-@FeignClient(name = "core-banking-service", configuration = CustomFeignClientConfiguration.class)
+import java.util.List;
+
+@FeignClient(name = "core-banking-service", configuration = CustomFeignClientConfiguration.class, primary = false)
 public interface BankingCoreRestClient {
 
     @RequestMapping(path = "/api/v1/account/bank-account/{account_number}", method = RequestMethod.GET)
     AccountResponse readAccount(@PathVariable("account_number") String accountNumber);
 
+    @RequestMapping(path = "/api/v1/account/bank-account/_batch", method = RequestMethod.POST)
+    List<AccountResponse> readAccounts(@RequestBody BatchAccountRequest batchAccountRequest);
+
     @RequestMapping(path = "/api/v1/transaction/util-payment", method = RequestMethod.POST)
     UtilityPaymentResponse utilityPayment(@RequestBody UtilityPaymentRequest paymentRequest);
 
@@ -0,0 +1,104 @@
+package com.javatodev.finance.service.rest;
+
+import com.javatodev.finance.configuration.filter.ApiRequestContext;
+import com.javatodev.finance.configuration.filter.ApiRequestContextHolder;
+import com.javatodev.finance.model.rest.request.BatchAccountRequest;
+import com.javatodev.finance.model.rest.request.UtilityPaymentRequest;
+import com.javatodev.finance.model.rest.response.AccountResponse;
+import com.javatodev.finance.model.rest.response.UtilityPaymentResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.util.List;
+import java.util.Map;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * {@link BankingCoreRestClient} on top of WebClient and Reactor Netty, chosen over the Feign client with
+ * {@code app.config.core-banking.client=webclient}. The calls run on the Netty event loops, the calling thread
+ * only waits for the result, which with virtual threads enabled parks a virtual thread instead of holding a
+ * platform thread and a connection of its own.
+ * <p>
+ * Failures are raised as {@link FeignException} with the status and cause Feign would report, so callers
+ * treat both clients alike.
+ * <p>
+ * The caller's request context travels in the Reactor context, the filter added in
+ * {@code CoreBankingWebClientConfiguration} turns it into the auth user header.
+ */
+@Primary
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.config.core-banking.client", havingValue = "webclient")
+public class BankingCoreWebClient implements BankingCoreRestClient {
+
+    private final WebClient coreBankingWebClient;
+
+    @Value("${app.config.core-banking.encoding:json}")
+    private String encoding;
+
+    @Override
+    public AccountResponse readAccount(String accountNumber) {
+        return exchange("BankingCoreRestClient#readAccount(String)", HttpMethod.GET,
+            "/api/v1/account/bank-account/{account_number}", null, AccountResponse.class, accountNumber);
+    }
+
+    @Override
+    public List<AccountResponse> readAccounts(BatchAccountRequest batchAccountRequest) {
+        return exchange("BankingCoreRestClient#readAccounts(BatchAccountRequest)", HttpMethod.POST,
+            "/api/v1/account/bank-account/_batch", batchAccountRequest, new ParameterizedTypeReference<List<AccountResponse>>() { });
+    }
+
+    @Override
+    public UtilityPaymentResponse utilityPayment(UtilityPaymentRequest paymentRequest) {
+        return exchange("BankingCoreRestClient#utilityPayment(UtilityPaymentRequest)", HttpMethod.POST,
+            "/api/v1/transaction/util-payment", paymentRequest, UtilityPaymentResponse.class);
+    }
+
+    private <T> T exchange(String methodKey, HttpMethod method, String path, Object body, Class<T> responseType, Object... uriVariables) {
+        return exchange(methodKey, method, path, body, ParameterizedTypeReference.forType(responseType), uriVariables);
+    }
+
+    private <T> T exchange(String methodKey, HttpMethod method, String path, Object body, ParameterizedTypeReference<T> responseType,
+                           Object... uriVariables) {
+        WebClient.RequestBodySpec request = coreBankingWebClient.method(method).uri(path, uriVariables);
+        if ("cbor".equals(encoding)) {
+            request.contentType(MediaType.APPLICATION_CBOR).accept(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON);
+        }
+        return (body == null ? request : request.bodyValue(body))
+            .exchangeToMono(response -> response.statusCode().isError()
+                ? response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(content -> Mono.error(FeignException.errorStatus(methodKey, Response.builder()
+                        .status(response.statusCode().value())
+                        .request(feignRequest(method, path))
+                        .headers(Map.of())
+                        .body(content)
+                        .build())))
+                : response.bodyToMono(responseType))
+            .onErrorMap(WebClientRequestException.class, e -> new RetryableException(-1, e.getMessage(),
+                Request.HttpMethod.valueOf(method.name()), e.getCause(), (Long) null, feignRequest(method, path)))
+            // read by the exchange filter on whichever thread sends the request
+            .contextWrite(Context.of(ApiRequestContext.class, ApiRequestContextHolder.getContext()))
+            .block();
+    }
+
+    private static Request feignRequest(HttpMethod method, String path) {
+        return Request.create(Request.HttpMethod.valueOf(method.name()), path, Map.of(), null, null, null);
+    }
+
+}
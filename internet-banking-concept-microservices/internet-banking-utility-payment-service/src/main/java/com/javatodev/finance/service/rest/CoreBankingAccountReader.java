@@ -0,0 +1,175 @@
+package com.javatodev.finance.service.rest;
+
+import com.javatodev.finance.configuration.filter.ApiRequestContext;
+import com.javatodev.finance.configuration.filter.ApiRequestContextHolder;
+import com.javatodev.finance.exception.EntityNotFoundException;
+import com.javatodev.finance.model.rest.request.BatchAccountRequest;
+import com.javatodev.finance.model.rest.response.AccountResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads core banking accounts with as few calls as possible under concurrent load. Callers asking for an
+ * account that is already being looked up share that lookup, and distinct accounts asked for within
+ * {@code batch-window} are fetched together through the batch endpoint, at most {@code batch-size} per call.
+ * <p>
+ * Lookups are only shared between callers with the same auth id, and run with that caller's request context
+ * bound, so core banking keeps serving a caller that just wrote from its primary database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CoreBankingAccountReader {
+
+    private final BankingCoreRestClient bankingCoreRestClient;
+    private final CoreBankingCallGuard coreBankingCallGuard;
+
+    @Value("${app.config.core-banking.account-read.batch-window:2ms}")
+    private Duration batchWindow;
+
+    @Value("${app.config.core-banking.account-read.batch-size:100}")
+    private int batchSize;
+
+    private final ConcurrentMap<Lookup, CompletableFuture<AccountResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Queue<Lookup> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService lookups;
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "core-banking-account-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lookups = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        lookups.shutdown();
+    }
+
+    public AccountResponse readAccount(String accountNumber) {
+        Lookup key = new Lookup(ApiRequestContextHolder.getContext().getAuthId(), accountNumber);
+        CompletableFuture<AccountResponse> own = new CompletableFuture<>();
+        CompletableFuture<AccountResponse> lookup = inFlight.putIfAbsent(key, own);
+        if (lookup == null) {
+            lookup = own;
+            pending.add(key);
+            if (pendingCount.incrementAndGet() >= batchSize) {
+                scheduler.execute(this::flush);
+            } else if (flushScheduled.compareAndSet(false, true)) {
+                scheduler.schedule(this::flush, batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        // the auth id may be null, HashMap keeps callers without one together
+        Map<String, List<String>> batches = new HashMap<>();
+        Lookup lookup;
+        while ((lookup = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            List<String> batch = batches.computeIfAbsent(lookup.authId(), authId -> new ArrayList<>(batchSize));
+            batch.add(lookup.accountNumber());
+            if (batch.size() == batchSize) {
+                submit(lookup.authId(), batches.remove(lookup.authId()));
+            }
+        }
+        batches.forEach(this::submit);
+    }
+
+    private void submit(String authId, List<String> accountNumbers) {
+        ApiRequestContext context = new ApiRequestContext();
+        context.setAuthId(authId);
+        lookups.execute(() -> {
+            try (ApiRequestContextHolder.Scope scope = ApiRequestContextHolder.bind(context)) {
+                read(authId, accountNumbers);
+            }
+        });
+    }
+
+    private void read(String authId, List<String> accountNumbers) {
+        try {
+            if (accountNumbers.size() == 1) {
+                String accountNumber = accountNumbers.get(0);
+                complete(new Lookup(authId, accountNumber), coreBankingCallGuard.call("read-account", () -> bankingCoreRestClient.readAccount(accountNumber)));
+                return;
+            }
+            Map<String, AccountResponse> accounts = coreBankingCallGuard.call("read-accounts",
+                    () -> bankingCoreRestClient.readAccounts(new BatchAccountRequest(accountNumbers))).stream()
+                .collect(Collectors.toMap(account -> String.valueOf(account.getNumber()), Function.identity(), (first, second) -> first));
+            for (String number : accountNumbers) {
+                AccountResponse account = accounts.get(number);
+                if (account != null) {
+                    complete(new Lookup(authId, number), account);
+                } else {
+                    fail(new Lookup(authId, number), new EntityNotFoundException("Account " + number + " not found in core banking"));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Reading {} accounts from core banking failed", accountNumbers.size(), e);
+            accountNumbers.forEach(number -> fail(new Lookup(authId, number), e));
+        }
+    }
+
+    private void complete(Lookup key, AccountResponse account) {
+        // removed first, so callers arriving from now on start a fresh lookup instead of reusing this result
+        CompletableFuture<AccountResponse> lookup = inFlight.remove(key);
+        if (lookup != null) {
+            lookup.complete(account);
+        }
+    }
+
+    private void fail(Lookup key, RuntimeException e) {
+        CompletableFuture<AccountResponse> lookup = inFlight.remove(key);
+        if (lookup != null) {
+            lookup.completeExceptionally(e);
+        }
+    }
+
+    private record Lookup(String authId, String accountNumber) {
+    }
+
+}
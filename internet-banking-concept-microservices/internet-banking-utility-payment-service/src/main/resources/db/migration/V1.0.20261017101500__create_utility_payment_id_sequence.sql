@@ -0,0 +1,31 @@
+-- banking_core_utility_payment_service.utility_payment definition
+
+CREATE TABLE IF NOT EXISTS `utility_payment` (
+    `id`               bigint(20) NOT NULL AUTO_INCREMENT,
+    `account`          varchar(255)   DEFAULT NULL,
+    `amount`           decimal(19, 2) DEFAULT NULL,
+    `provider_id`      bigint(20)     DEFAULT NULL,
+    `reference_number` varchar(255)   DEFAULT NULL,
+    `status`           varchar(255)   DEFAULT NULL,
+    `transaction_id`   varchar(255)   DEFAULT NULL,
+    `created_by`       varchar(255)   DEFAULT NULL,
+    `created_date`     datetime(6)    DEFAULT NULL,
+    `modified_by`      varchar(255)   DEFAULT NULL,
+    `modified_date`    datetime(6)    DEFAULT NULL,
+    `version`          bigint(20)     NOT NULL,
+    PRIMARY KEY (`id`)
+);
+
+-- banking_core_utility_payment_service.utility_payment_id_sequence definition
+-- pooled id allocation for utility payments, so hibernate can batch the inserts
+
+CREATE TABLE `utility_payment_id_sequence` (
+    `sequence_name` varchar(255) NOT NULL,
+    `next_val`      bigint(20) DEFAULT NULL,
+    PRIMARY KEY (`sequence_name`)
+);
+
+-- the pooled optimizer hands out (next_val - 49 .. next_val), start above the rows written with AUTO_INCREMENT
+INSERT INTO utility_payment_id_sequence (sequence_name, next_val)
+SELECT 'utility_payment', COALESCE(MAX(id), 0) + 50
+FROM utility_payment;
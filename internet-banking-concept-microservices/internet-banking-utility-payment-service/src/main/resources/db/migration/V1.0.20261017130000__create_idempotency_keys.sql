@@ -0,0 +1,14 @@
+-- banking_core_utility_payment_service.idempotency_key definition
+
+CREATE TABLE `idempotency_key` (
+    `idempotency_key`   varchar(255) NOT NULL,
+    `request_hash`      char(64)     NOT NULL,
+    `status`            varchar(20)  NOT NULL,
+    `response_status`   int(11)      DEFAULT NULL,
+    `response_body`     longtext     DEFAULT NULL,
+    `response_location` varchar(255) DEFAULT NULL,
+    `created_date`      datetime(6)  NOT NULL,
+    `expires_at`        datetime(6)  NOT NULL,
+    PRIMARY KEY (`idempotency_key`),
+    KEY `idx_idempotency_key_expires_at` (`expires_at`)
+);
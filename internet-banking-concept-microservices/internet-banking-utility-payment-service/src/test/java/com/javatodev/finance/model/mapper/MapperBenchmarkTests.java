@@ -0,0 +1,67 @@
+package com.javatodev.finance.model.mapper;
+
+import com.javatodev.finance.Benchmarks;
+import com.javatodev.finance.model.TransactionStatus;
+import com.javatodev.finance.model.dto.UtilityPayment;
+import com.javatodev.finance.model.entity.UtilityPaymentEntity;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entity to DTO mapping of a utility payment by the mapper and by {@link BeanUtils#copyProperties}, which the mapper
+ * replaced. Reports the time and the heap allocated per mapping. Sized with {@code benchmark.iterations}.
+ */
+@Tag(Benchmarks.TAG)
+class MapperBenchmarkTests {
+
+    // keeps the results reachable, so the mappings are not optimized away
+    private Object result;
+
+    @Test
+    void entityToDto() {
+        int iterations = Benchmarks.setting("iterations", 200000);
+        UtilityPaymentEntity payment = payment();
+        UtilityPaymentMapper utilityPaymentMapper = new UtilityPaymentMapper();
+
+        measure("utility payment mapper", iterations, () -> utilityPaymentMapper.convertToDto(payment));
+        measure("utility payment BeanUtils", iterations, () -> copyPayment(payment));
+
+        assertThat(utilityPaymentMapper.convertToDto(payment)).usingRecursiveComparison().isEqualTo(copyPayment(payment));
+    }
+
+    private void measure(String benchmark, int iterations, Supplier<Object> mapping) {
+        Benchmarks.report(benchmark, "%s", Benchmarks.measure(iterations, iterations, () -> result = mapping.get()));
+    }
+
+    private static UtilityPayment copyPayment(UtilityPaymentEntity entity) {
+        UtilityPayment dto = new UtilityPayment();
+        BeanUtils.copyProperties(entity, dto);
+        return dto;
+    }
+
+    private static UtilityPaymentEntity payment() {
+        UtilityPaymentEntity payment = new UtilityPaymentEntity();
+        payment.setId(42L);
+        payment.setProviderId(7L);
+        payment.setAmount(new BigDecimal("80.00"));
+        payment.setReferenceNumber("0771234567");
+        payment.setAccount("100015003000");
+        payment.setTransactionId("7c9e6679-7425-40de-944b-e07fc1f90ae7");
+        payment.setStatus(TransactionStatus.SUCCESS);
+        payment.setCreatedDate(Instant.parse("2026-10-17T08:00:00Z"));
+        payment.setCreatedBy("42");
+        payment.setModifiedDate(Instant.parse("2026-10-17T08:00:01Z"));
+        payment.setModifiedBy("42");
+        payment.setVersion(1);
+        return payment;
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.javatodev.finance.service.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javatodev.finance.exception.CoreBankingUnavailableException;
+import com.javatodev.finance.exception.GlobalErrorCode;
+import com.javatodev.finance.exception.IdempotencyKeyException;
+import com.javatodev.finance.model.IdempotencyKeyStatus;
+import com.javatodev.finance.repository.IdempotencyKeyRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.cloud.config.enabled=false",
+    "app.config.idempotency.in-progress-timeout=300ms"
+})
+class IdempotencyServiceTests {
+
+    private static final Map<String, String> REQUEST = Map.of("amount", "10.00");
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private IdempotencyService otherInstance;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        key = UUID.randomUUID().toString();
+        // a second service instance sharing the table, it does not see the first one's in-flight requests
+        otherInstance = new IdempotencyService(idempotencyKeyRepository, objectMapper);
+        ReflectionTestUtils.setField(otherInstance, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(otherInstance, "inProgressTimeout", Duration.ofMillis(300));
+        ReflectionTestUtils.setField(otherInstance, "memorySize", 100L);
+        ReflectionTestUtils.setField(otherInstance, "purgeInterval", Duration.ofMinutes(10));
+        otherInstance.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        otherInstance.stop();
+    }
+
+    @Test
+    void completedRequestIsReplayedWithoutRunningAgain() {
+        AtomicInteger runs = new AtomicInteger();
+
+        idempotencyService.execute(key, REQUEST, () -> ResponseEntity.ok(Map.of("run", runs.incrementAndGet())));
+        ResponseEntity<?> replayed = otherInstance.execute(key, REQUEST, () -> ResponseEntity.ok(Map.of("run", runs.incrementAndGet())));
+
+        assertThat(runs).hasValue(1);
+        assertThat(replayed.getBody()).isEqualTo("{\"run\":1}");
+    }
+
+    @Test
+    void requestThatWasNotSentReleasesItsKey() {
+        assertThatThrownBy(() -> idempotencyService.execute(key, REQUEST, () -> {
+            throw new CoreBankingUnavailableException("circuit open");
+        })).isInstanceOf(CoreBankingUnavailableException.class);
+
+        ResponseEntity<?> retried = idempotencyService.execute(key, REQUEST, () -> ResponseEntity.ok("done"));
+
+        assertThat(retried.getStatusCode().value()).isEqualTo(200);
+    }
+
+    @Test
+    void requestWithAnUnknownOutcomeKeepsItsKey() {
+        assertThatThrownBy(() -> idempotencyService.execute(key, REQUEST, () -> {
+            throw new IllegalStateException("read timed out");
+        })).isInstanceOf(IllegalStateException.class);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> otherInstance.execute(key, REQUEST, () -> ResponseEntity.ok(runs.incrementAndGet())))
+            .isInstanceOfSatisfying(IdempotencyKeyException.class,
+                e -> assertThat(e.getMessage() + e.getCode()).contains(GlobalErrorCode.IDEMPOTENCY_KEY_OUTCOME_UNKNOWN));
+        assertThat(runs).hasValue(0);
+        assertThat(idempotencyKeyRepository.findById(key).orElseThrow().getStatus()).isEqualTo(IdempotencyKeyStatus.FAILED);
+    }
+
+    @Test
+    void claimOfAStoppedOwnerIsNotRunAgain() {
+        Instant longAgo = Instant.now().minus(Duration.ofMinutes(5));
+        idempotencyKeyRepository.claim(key, "hash", "crashed-instance", longAgo, longAgo.plusSeconds(60));
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> idempotencyService.execute(key, REQUEST, () -> ResponseEntity.ok(runs.incrementAndGet())))
+            .isInstanceOf(IdempotencyKeyException.class);
+
+        assertThat(runs).hasValue(0);
+        assertThat(idempotencyKeyRepository.findById(key).orElseThrow().getStatus()).isEqualTo(IdempotencyKeyStatus.FAILED);
+        assertThat(idempotencyKeyRepository.complete(key, "crashed-instance", 200, "{}", null, Instant.now().plusSeconds(60))).isZero();
+    }
+
+    @Test
+    void slowRequestKeepsItsClaimAndRunsOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<ResponseEntity<?>> slow = executor.submit(() -> idempotencyService.execute(key, REQUEST, () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                sleep(1000);
+                return ResponseEntity.ok("slow");
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            // well past the in-progress timeout, the heartbeat keeps the claim alive
+            sleep(700);
+
+            List<Future<ResponseEntity<?>>> duplicates = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                duplicates.add(executor.submit(() -> otherInstance.execute(key, REQUEST, () -> ResponseEntity.ok(runs.incrementAndGet()))));
+            }
+            for (Future<ResponseEntity<?>> duplicate : duplicates) {
+                assertThatThrownBy(duplicate::get).cause().isInstanceOfSatisfying(IdempotencyKeyException.class,
+                    e -> assertThat(e.getMessage() + e.getCode()).contains(GlobalErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS));
+            }
+
+            assertThat(slow.get().getBody()).isEqualTo("\"slow\"");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(runs).hasValue(1);
+        assertThat(idempotencyKeyRepository.findById(key).orElseThrow().getStatus()).isEqualTo(IdempotencyKeyStatus.COMPLETED);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}